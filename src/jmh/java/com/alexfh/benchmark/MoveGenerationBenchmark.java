@@ -0,0 +1,219 @@
+package com.alexfh.benchmark;
+
+import com.alexfh.scrabbleanalyzer.BoardAnalyzer;
+import com.alexfh.scrabbleanalyzer.Main;
+import com.alexfh.scrabbleanalyzer.ScrabbleGame;
+import com.alexfh.scrabbleanalyzer.ai.LeaveTable;
+import com.alexfh.scrabbleanalyzer.ai.MoveBuffer;
+import com.alexfh.scrabbleanalyzer.dictionary.DictionaryCompiler;
+import com.alexfh.scrabbleanalyzer.dictionary.IWordGraph;
+import com.alexfh.scrabbleanalyzer.rule.ILetterScoreMap;
+import com.alexfh.scrabbleanalyzer.rule.impl.LetterScoreMapImpl;
+import com.alexfh.scrabbleanalyzer.state.IScrabbleBoard;
+import com.alexfh.scrabbleanalyzer.state.IScrabbleGameState;
+import com.alexfh.scrabbleanalyzer.state.impl.PlayerTileRackImpl;
+import com.alexfh.scrabbleanalyzer.state.impl.ScrabbleBoardImpl;
+import com.alexfh.scrabbleanalyzer.state.impl.ScrabbleGameStateImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+Move generation benchmarks over the fixture games in src/test/resources/games and a few synthetic worst cases.
+Run with ./gradlew jmh, which adds the GC profiler for allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dscrabbleanalyzer.printTimings=false")
+public
+class MoveGenerationBenchmark
+{
+
+    private static final String gamesFolder     = "src/test/resources/games/";
+    private static final String multipliersFile = "src/test/resources/multipliers.txt";
+    private static final String fillerTiles     = "etaoinsrhldcumfpgwybvkxjqzeaio";
+
+    @Param({ "game1", "game2", "game3", "game4", "game5", "openBoard", "twoBlanksOpenBoard", "nearFullBoard" })
+    public String position;
+
+    private ILetterScoreMap         letterScoreMap;
+    private IWordGraph              dictionary;
+    private IScrabbleGameState      gameState;
+    private List<ScrabbleGame.Move> moves;
+    private MoveBuffer              unsortedMoves;
+    private MoveBuffer              moveBuffer;
+    private LeaveTable              leaves;
+
+    @Setup(Level.Trial)
+    public
+    void setup() throws IOException, InterruptedException
+    {
+        try (InputStream wordList = Main.class.getResourceAsStream(Main.dictionaryResource))
+        {
+            if (wordList == null)
+            {
+                throw new IOException("Missing dictionary resource " + Main.dictionaryResource);
+            }
+
+            this.dictionary = DictionaryCompiler.compile(wordList.readAllBytes());
+        }
+
+        this.letterScoreMap = LetterScoreMapImpl.defaultScoreMap;
+        this.gameState      = this.loadPosition(this.position);
+        this.moves          = new ScrabbleGame(this.letterScoreMap, this.dictionary, this.gameState).findMoves();
+        this.unsortedMoves  = new MoveBuffer();
+        this.moveBuffer     = new MoveBuffer();
+        this.leaves         = LeaveTable.zero();
+
+        new ScrabbleGame(this.letterScoreMap, this.dictionary, this.gameState).findMoves(this.unsortedMoves);
+    }
+
+    private
+    IScrabbleGameState loadPosition(String position) throws IOException, InterruptedException
+    {
+        return switch (position)
+        {
+            case "openBoard" -> new ScrabbleGameStateImpl(ScrabbleBoardImpl.defaultBlankBoard(),
+                new PlayerTileRackImpl("aeinrst".toCharArray()));
+            case "twoBlanksOpenBoard" -> new ScrabbleGameStateImpl(ScrabbleBoardImpl.defaultBlankBoard(),
+                new PlayerTileRackImpl(new char[]{ 'r', 'e', 't', IScrabbleGameState.wildCardTile,
+                                                   IScrabbleGameState.wildCardTile, 'i', 'n' }));
+            case "nearFullBoard" -> this.nearFullBoard();
+            default -> ScrabbleGameStateImpl.fromFiles(
+                new File(MoveGenerationBenchmark.gamesFolder + position + "/board.txt"),
+                new File(MoveGenerationBenchmark.multipliersFile),
+                new File(MoveGenerationBenchmark.gamesFolder + position + "/currentletters.txt"));
+        };
+    }
+
+    // fills a blank board by repeatedly playing the best move for racks drawn from a fixed tile sequence
+    private
+    IScrabbleGameState nearFullBoard() throws InterruptedException
+    {
+        IScrabbleBoard board = ScrabbleBoardImpl.defaultBlankBoard();
+        int            drawn = 0;
+
+        for (int turn = 0; turn < 60; turn++)
+        {
+            char[] rack = new char[7];
+
+            for (int i = 0; i < rack.length; i++, drawn++)
+            {
+                rack[i] = MoveGenerationBenchmark.fillerTiles.charAt(
+                    drawn % MoveGenerationBenchmark.fillerTiles.length());
+            }
+
+            List<ScrabbleGame.Move> best = new ScrabbleGame(this.letterScoreMap, this.dictionary,
+                new ScrabbleGameStateImpl(board, new PlayerTileRackImpl(rack))).findTopMoves(1);
+
+            if (best.isEmpty())
+            {
+                break;
+            }
+
+            ScrabbleGame.Move   move   = best.get(0);
+            ScrabbleGame.Offset offset = move.isVertical() ? ScrabbleGame.vertOffset : ScrabbleGame.horiOffset;
+
+            for (int i = 0; i < move.playedTiles().length; i++)
+            {
+                int spotInWord = move.tileSpotsInWord()[i];
+                int row        = offset.newRow(move.row(), spotInWord);
+                int col        = offset.newCol(move.col(), spotInWord);
+
+                board.setCharAt(row, col, move.playedWord().charAt(spotInWord));
+            }
+        }
+
+        return new ScrabbleGameStateImpl(board, new PlayerTileRackImpl(new char[]{ 'e', 's', 'a', 'r',
+                                                                                    IScrabbleGameState.wildCardTile,
+                                                                                    'd', 'l' }));
+    }
+
+    @Benchmark
+    public
+    List<ScrabbleGame.Move> findMoves() throws InterruptedException
+    {
+        return new ScrabbleGame(this.letterScoreMap, this.dictionary, this.gameState).findMoves();
+    }
+
+    @Benchmark
+    public
+    int findMovesIntoBuffer() throws InterruptedException
+    {
+        this.moveBuffer.clear();
+        new ScrabbleGame(this.letterScoreMap, this.dictionary, this.gameState).findMoves(this.moveBuffer);
+
+        return this.moveBuffer.size();
+    }
+
+    @Benchmark
+    public
+    List<ScrabbleGame.Move> findMovesParallel() throws InterruptedException
+    {
+        return new ScrabbleGame(this.letterScoreMap, this.dictionary, this.gameState).findMovesParallel();
+    }
+
+    @Benchmark
+    public
+    List<ScrabbleGame.Move> findTopMoves() throws InterruptedException
+    {
+        return new ScrabbleGame(this.letterScoreMap, this.dictionary, this.gameState).findTopMoves(10);
+    }
+
+    @Benchmark
+    public
+    BoardAnalyzer crossChecks() throws InterruptedException
+    {
+        BoardAnalyzer boardAnalyzer = new BoardAnalyzer(this.letterScoreMap, this.dictionary);
+
+        boardAnalyzer.update(this.gameState);
+
+        return boardAnalyzer;
+    }
+
+    // includes copying the unsorted moves
+    @Benchmark
+    public
+    List<ScrabbleGame.Move> sortMoves()
+    {
+        List<ScrabbleGame.Move> moves = new ArrayList<>(this.moves);
+
+        Collections.sort(moves);
+
+        return moves;
+    }
+
+    // includes copying the unsorted moves
+    @Benchmark
+    public
+    MoveBuffer sortMoveBuffer()
+    {
+        this.moveBuffer.clear();
+        this.moveBuffer.addAll(this.unsortedMoves);
+        this.moveBuffer.sort();
+
+        return this.moveBuffer;
+    }
+
+    // same as sortMoveBuffer plus the leave lookups, to compare against it
+    @Benchmark
+    public
+    MoveBuffer sortMoveBufferByEquity()
+    {
+        this.moveBuffer.clear();
+        this.moveBuffer.addAll(this.unsortedMoves);
+        this.moveBuffer.sortByEquity(this.leaves, this.gameState.getTilesInRack());
+
+        return this.moveBuffer;
+    }
+
+}
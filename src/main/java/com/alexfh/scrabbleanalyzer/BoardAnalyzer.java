@@ -0,0 +1,346 @@
+package com.alexfh.scrabbleanalyzer;
+
+import com.alexfh.scrabbleanalyzer.dictionary.IWordGraph;
+import com.alexfh.scrabbleanalyzer.rule.ILetterScoreMap;
+import com.alexfh.scrabbleanalyzer.state.IScrabbleBoard;
+import com.alexfh.scrabbleanalyzer.state.IScrabbleGameState;
+import com.alexfh.scrabbleanalyzer.util.ScrabbleUtil;
+
+/*
+Cross-check and scoring tables for a board, kept between move generations. update compares the board with the one
+the tables were last computed for and only recomputes the changed squares and the empty squares at the ends of the runs
+of tiles next to them, since a square's tables depend only on its own multipliers and the unbroken runs of tiles
+touching it in its row and column.
+
+Not thread-safe: a ScrabbleGame using an analyzer must not run while it is being updated by another.
+ */
+public
+class BoardAnalyzer
+{
+
+    private final ILetterScoreMap letterScoreMap;
+    private final IWordGraph      dictionary;
+
+    /*
+    perpVert and perpHori are masks of valid tile placements at a given position based on created perpendicular words,
+    with bit ScrabbleUtil.charToInt(c) set if c is valid. They don't depend on the rack, so changing the rack tiles
+    never requires analyzing the board again
+
+    t, f = true, false
+    .    = blank tile
+    *    = blank tile considered for placement of new tile
+    -, | = blank tiles on the line of consideration
+
+    --------
+    perpVert
+    --------
+    i..|..
+    t..|..
+    ..b*t.
+       ^
+       |
+         a  b  c  d  e  f  g  h  i  j  k  l  m  n  o  p  q  r  s  t  u  v  w  x  y  z
+       [ t, f, f, f, t, f, f, f, t, f, f, f, f, f, t, f, f, f, f, f, t, f, f, f, f, f ] <- perpVert[1][3]
+       since 'bat', 'bet', 'bit', 'bot', and 'but' are valid words
+
+    --------
+    perpHori
+    --------
+
+    foo...      a  b  c  d  e  f  g  h  i  j  k  l  m  n  o  p  q  r  s  t  u  v  w  x  y  z
+    -----* <- [ f, t, t, f, f, t, f, t, f, f, f, f, t, t, f, t, f, t, t, f, f, f, f, f, f, f ] <- perpHori[0][5]
+    .....a    since 'bat', 'cat', 'fat', 'hat', 'mat', 'nat', 'pat', 'rat', and 'sat' are valid words
+    .....t
+
+    perpVert and perpHori work to limit what permutations of the playerTiles are used to create words, since
+    words will only be valid if they form only valid words in the perpendicular direction
+
+    when it is being considered whether to place a playerTile at a position,
+    this.perp(Vert|Hori)[row][col] & (1 << ScrabbleUtil.charToInt(char)) will show if it is a valid placement
+    perpendicularly
+     */
+    static final int allValid   = (1 << IScrabbleGameState.alphaChars.length) - 1;
+    static final int allInvalid = 0;
+
+    int[][]       perpVert;
+    int[][]       perpHori;
+    int[][][]     scoreDataVert;
+    // letterMultiplier, wordMultiplier, prefixPlacedTileScores, suffixPlacedTileScores | null for invalid
+    int[][][]     scoreDataHori;
+    // letterMultiplier, wordMultiplier, prefixPlacedTileScores, suffixPlacedTileScores | null for invalid
+    int[][]       perpScoreDataVert; // -1 for invalid
+    int[][]       perpScoreDataHori; // -1 for invalid
+
+    // the board the tables were computed for, and a copy of its state
+    private IScrabbleBoard board;
+    private byte[][]       analyzedSquares;
+    private int[][]        analyzedLetterMultipliers;
+    private int[][]        analyzedWordMultipliers;
+    private boolean        valid = false;
+
+    public
+    BoardAnalyzer(ILetterScoreMap letterScoreMap, IWordGraph dictionary)
+    {
+        this.letterScoreMap = letterScoreMap;
+        this.dictionary     = dictionary;
+    }
+
+    public
+    void update(IScrabbleBoard board) throws InterruptedException
+    {
+        boolean fullUpdate = !this.valid || this.analyzedSquares.length != board.getRows() ||
+                             this.analyzedSquares[0].length != board.getCols();
+        this.board = board;
+        this.valid = false; // stays false if interrupted part way through
+
+        if (fullUpdate)
+        {
+            this.allocate(board.getRows(), board.getCols());
+            this.initializeValidPerpendicularPlacementsAndScoringData();
+        }
+        else
+        {
+            this.updateChangedSquares();
+        }
+
+        this.valid = true;
+    }
+
+    private
+    void allocate(int rows, int cols)
+    {
+        this.perpVert                  = new int[rows][cols];
+        this.perpHori                  = new int[rows][cols];
+        this.scoreDataVert             = new int[rows][cols][];
+        this.scoreDataHori             = new int[rows][cols][];
+        this.perpScoreDataVert         = new int[rows][cols];
+        this.perpScoreDataHori         = new int[rows][cols];
+        this.analyzedSquares           = new byte[rows][cols];
+        this.analyzedLetterMultipliers = new int[rows][cols];
+        this.analyzedWordMultipliers   = new int[rows][cols];
+    }
+
+    private
+    void updateChangedSquares() throws InterruptedException
+    {
+        for (int row = 0; row < this.board.getRows(); row++)
+        {
+            ScrabbleUtil.checkInterrupted();
+
+            for (int col = 0; col < this.board.getCols(); col++)
+            {
+                if (this.hasChangedAt(row, col))
+                {
+                    this.updateAround(row, col);
+                }
+            }
+        }
+    }
+
+    // the changed square, and the empty squares at the ends of the runs of tiles on either side of it in its row and
+    // column, which are the only squares whose perpendicular words could have changed with it
+    private
+    void updateAround(int row, int col)
+    {
+        this.initializeValidPerpendicularPlacementsAndScoringDataAt(row, col);
+        this.updateEndOfRun(row, col, ScrabbleGame.horiOffset, -1, true);
+        this.updateEndOfRun(row, col, ScrabbleGame.horiOffset, 1, true);
+        this.updateEndOfRun(row, col, ScrabbleGame.vertOffset, -1, false);
+        this.updateEndOfRun(row, col, ScrabbleGame.vertOffset, 1, false);
+    }
+
+    private
+    void updateEndOfRun(int row, int col, ScrabbleGame.Offset offset, int step, boolean isVertical)
+    {
+        int newRow = offset.newRow(row, step);
+        int newCol = offset.newCol(col, step);
+
+        while (newRow >= 0 && newRow < this.board.getRows() && newCol >= 0 && newCol < this.board.getCols())
+        {
+            if (this.board.isEmptyAt(newRow, newCol))
+            {
+                this.initializeValidPerpendicularPlacementAndScoringDataAt(newRow, newCol, isVertical);
+
+                return;
+            }
+
+            newRow = offset.newRow(newRow, step);
+            newCol = offset.newCol(newCol, step);
+        }
+    }
+
+    private
+    boolean hasChangedAt(int row, int col)
+    {
+        return this.analyzedSquares[row][col] != this.board.getSquareAt(row, col) ||
+               this.analyzedLetterMultipliers[row][col] != this.board.getLetterMultiplierAt(row, col) ||
+               this.analyzedWordMultipliers[row][col] != this.board.getWordMultiplierAt(row, col);
+    }
+
+    private
+    void initializeValidPerpendicularPlacementsAndScoringData() throws InterruptedException
+    {
+        for (int row = 0; row < this.board.getRows(); row++)
+        {
+            for (int col = 0; col < this.board.getCols(); col++)
+            {
+                ScrabbleUtil.checkInterrupted();
+                this.initializeValidPerpendicularPlacementsAndScoringDataAt(row, col);
+            }
+        }
+    }
+
+    private
+    void initializeValidPerpendicularPlacementsAndScoringDataAt(int row, int col)
+    {
+        this.analyzedSquares[row][col]           = this.board.getSquareAt(row, col);
+        this.analyzedLetterMultipliers[row][col] = this.board.getLetterMultiplierAt(row, col);
+        this.analyzedWordMultipliers[row][col]   = this.board.getWordMultiplierAt(row, col);
+
+        if (!this.board.isEmptyAt(row, col))
+        { // tile already placed, nothing valid
+            this.perpVert[row][col]          = BoardAnalyzer.allInvalid;
+            this.perpHori[row][col]          = BoardAnalyzer.allInvalid;
+            this.perpScoreDataVert[row][col] = ScrabbleGame.invalidPerpWordScore;
+            this.perpScoreDataHori[row][col] = ScrabbleGame.invalidPerpWordScore;
+
+            return;
+        }
+
+        this.initializeValidPerpendicularPlacementAndScoringDataAt(row, col, true);
+        this.initializeValidPerpendicularPlacementAndScoringDataAt(row, col, false);
+    }
+
+    private
+    void initializeValidPerpendicularPlacementAndScoringDataAt(int row, int col, boolean isVertical)
+    {
+        int[][]             perpSource          = isVertical ? this.perpVert : this.perpHori;
+        int[][]             perpScoreDataSource = isVertical ? this.perpScoreDataVert : this.perpScoreDataHori;
+        int[][][]           scoreDataSource     = isVertical ? this.scoreDataHori : this.scoreDataVert;
+        int                 wordStartPerp       = isVertical ? col : row;
+        int                 lineBoundPerp       = isVertical ? this.board.getCols() : this.board.getRows();
+        ScrabbleGame.Offset offsetPerp          = isVertical ? ScrabbleGame.horiOffset : ScrabbleGame.vertOffset;
+        boolean beforeEmpty = wordStartPerp == 0 ||
+                              this.board.isEmptyAt(offsetPerp.newRow(row, -1), offsetPerp.newCol(col, -1));
+        boolean afterEmpty = wordStartPerp == lineBoundPerp - 1 ||
+                             this.board.isEmptyAt(offsetPerp.newRow(row, 1), offsetPerp.newCol(col, 1));
+        int before      = wordStartPerp, after = wordStartPerp;
+        int i           = 0;
+        int score       = 0;
+        int prefixScore = 0;
+        int suffixScore = 0;
+
+        while (after + 1 < lineBoundPerp &&
+               !this.board.isEmptyAt(offsetPerp.newRow(row, i + 1), offsetPerp.newCol(col, i + 1)))
+        {
+            int newRow = offsetPerp.newRow(row, i + 1), newCol = offsetPerp.newCol(col, i + 1);
+
+            if (!this.board.isWildcardAt(newRow, newCol))
+            {
+                int s = this.letterScoreMap.getScore(this.board.getCharAt(newRow, newCol));
+                score += s;
+                suffixScore += s;
+            }
+
+            after++;
+            i++;
+        }
+
+        i = 0;
+
+        while (before - 1 >= 0 &&
+               !this.board.isEmptyAt(offsetPerp.newRow(row, i - 1), offsetPerp.newCol(col, i - 1)))
+        {
+            int newRow = offsetPerp.newRow(row, i - 1), newCol = offsetPerp.newCol(col, i - 1);
+
+            if (!this.board.isWildcardAt(newRow, newCol))
+            {
+                int s = this.letterScoreMap.getScore(this.board.getCharAt(newRow, newCol));
+                score += s;
+                prefixScore += s;
+            }
+
+            before--;
+            i--;
+        }
+
+        if (beforeEmpty && afterEmpty)
+        { // nothing before or after, anything is valid for placement
+            perpSource[row][col]          = BoardAnalyzer.allValid;
+            perpScoreDataSource[row][col] = ScrabbleGame.invalidPerpWordScore;
+            scoreDataSource[row][col]     = new int[]{ this.board.getLetterMultiplierAt(row, col),
+                                                       this.board.getWordMultiplierAt(row, col), prefixScore,
+                                                       suffixScore };
+
+            return;
+        }
+
+        int currentPath = this.dictionary.getRoot();
+        int current     = before;
+
+        while (current < wordStartPerp)
+        {
+            currentPath = this.dictionary.getPath(currentPath,
+                this.board.getCharAt(offsetPerp.newRow(row, i), offsetPerp.newCol(col, i)));
+
+            if (currentPath == IWordGraph.noPath)
+            {
+                break;
+            }
+
+            current++;
+            i++;
+        }
+
+        if (current == wordStartPerp)
+        { // before tile is valid prefix
+            int result   = BoardAnalyzer.allInvalid;
+            int pathMask = this.dictionary.getPathMask(currentPath);
+
+            for (char c : IScrabbleGameState.alphaChars)
+            {
+                if ((pathMask & (1 << ScrabbleUtil.charToInt(c))) == 0)
+                {
+                    continue;
+                }
+
+                int afterPath = this.dictionary.getPath(currentPath, c);
+                current = wordStartPerp + 1;
+                i       = 1;
+
+                while (current <= after)
+                {
+                    afterPath = this.dictionary.getPath(afterPath,
+                        this.board.getCharAt(offsetPerp.newRow(row, i), offsetPerp.newCol(col, i)));
+
+                    if (afterPath == IWordGraph.noPath)
+                    {
+                        break;
+                    }
+
+                    current++;
+                    i++;
+                }
+
+                if (afterPath != IWordGraph.noPath && this.dictionary.isWordHere(afterPath))
+                {
+                    result |= 1 << ScrabbleUtil.charToInt(c);
+                }
+            }
+
+            perpSource[row][col]          = result;
+            perpScoreDataSource[row][col] = (result != BoardAnalyzer.allInvalid) ? score
+                                                                                 : ScrabbleGame.invalidPerpWordScore;
+        }
+        else
+        {
+            perpSource[row][col]          = BoardAnalyzer.allInvalid;
+            perpScoreDataSource[row][col] = ScrabbleGame.invalidPerpWordScore;
+        }
+
+        scoreDataSource[row][col] = new int[]{ this.board.getLetterMultiplierAt(row, col),
+                                               this.board.getWordMultiplierAt(row, col), prefixScore, suffixScore };
+    }
+
+
+}
@@ -1,29 +1,151 @@
 package com.alexfh.scrabbleanalyzer;
 
-import com.alexfh.scrabbleanalyzer.dictionary.WordGraphDictionary;
+import com.alexfh.scrabbleanalyzer.ai.LeaveTable;
+import com.alexfh.scrabbleanalyzer.batch.BatchAnalyzer;
+import com.alexfh.scrabbleanalyzer.dictionary.DictionaryCompiler;
+import com.alexfh.scrabbleanalyzer.dictionary.IWordGraph;
 import com.alexfh.scrabbleanalyzer.gui.ScrabbleAnalyzer;
 import com.alexfh.scrabbleanalyzer.gui.font.ScrabbleFonts;
 import com.alexfh.scrabbleanalyzer.gui.tile.DocumentProvider;
+import com.alexfh.scrabbleanalyzer.service.AnalysisServer;
+import com.alexfh.scrabbleanalyzer.sim.EndgameSolver;
+import com.alexfh.scrabbleanalyzer.sim.LeaveTrainer;
+import com.alexfh.scrabbleanalyzer.sim.SelfPlayBenchmark;
+import com.alexfh.scrabbleanalyzer.sim.Simulator;
+import com.alexfh.scrabbleanalyzer.util.ScrabbleUtil;
 
 import javax.swing.*;
 import java.awt.*;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
 
 public
 class Main
 {
 
-    public static WordGraphDictionary dictionary;
+    public static final String dictionaryResource = "/nwl20.txt";
+    public static       IWordGraph dictionary;
+    // null when there is no leaves file, which leaves equity sorting unavailable
+    public static       LeaveTable leaves;
 
     public static
-    void main(String[] args) throws IOException, FontFormatException
+    void main(String[] args) throws IOException, FontFormatException, InterruptedException
     {
+        if (args.length > 0 && args[0].equals("batch"))
+        {
+            BatchAnalyzer.main(Arrays.copyOfRange(args, 1, args.length));
+
+            return;
+        }
+
+        if (args.length > 0 && args[0].equals("serve"))
+        {
+            AnalysisServer.main(Arrays.copyOfRange(args, 1, args.length));
+
+            return;
+        }
+
+        if (args.length > 0 && args[0].equals("simulate"))
+        {
+            Simulator.main(Arrays.copyOfRange(args, 1, args.length));
+
+            return;
+        }
+
+        if (args.length > 0 && args[0].equals("endgame"))
+        {
+            EndgameSolver.main(Arrays.copyOfRange(args, 1, args.length));
+
+            return;
+        }
+
+        if (args.length > 0 && args[0].equals("train-leaves"))
+        {
+            LeaveTrainer.main(Arrays.copyOfRange(args, 1, args.length));
+
+            return;
+        }
+
+        if (args.length > 0 && args[0].equals("selfplay"))
+        {
+            SelfPlayBenchmark.main(Arrays.copyOfRange(args, 1, args.length));
+
+            return;
+        }
+
         System.setProperty("awt.useSystemAAFontSettings", "on");
 
-        Main.dictionary = WordGraphDictionary.fromInputStream(Main.class.getResourceAsStream("/nwl20.txt"));
+        Main.dictionary = Main.loadDictionary();
+        Main.leaves     = Main.loadLeaves();
         DocumentProvider.INSTANCE.init();
         ScrabbleFonts.init();
         SwingUtilities.invokeLater(ScrabbleAnalyzer::new);
     }
 
+    public static
+    IWordGraph loadDictionary() throws IOException
+    {
+        long   start = System.nanoTime();
+        byte[] wordList;
+
+        try (InputStream inputStream = Main.class.getResourceAsStream(Main.dictionaryResource))
+        {
+            wordList = inputStream.readAllBytes();
+        }
+
+        IWordGraph dictionary = DictionaryCompiler.loadOrCompile(Main.getPackedDictionaryFile(), wordList);
+
+        ScrabbleUtil.printTiming("loadDictionary", System.nanoTime() - start);
+
+        return dictionary;
+    }
+
+    public static
+    LeaveTable loadLeaves() throws IOException
+    {
+        File leavesFile = Main.getLeavesFile();
+
+        if (!leavesFile.isFile())
+        {
+            return null;
+        }
+
+        long       start  = System.nanoTime();
+        LeaveTable leaves = LeaveTable.fromFile(leavesFile);
+
+        ScrabbleUtil.printTiming("loadLeaves", System.nanoTime() - start);
+
+        return leaves;
+    }
+
+    // precompiled dictionary, shared by every instance running as this user unless overridden
+    private static
+    File getPackedDictionaryFile()
+    {
+        String configuredPath = System.getProperty("scrabbleanalyzer.dictionary");
+
+        if (configuredPath != null)
+        {
+            return new File(configuredPath);
+        }
+
+        return new File(new File(System.getProperty("user.home"), ".scrabbleanalyzer"), "nwl20.sadg");
+    }
+
+    // trained leave values, shared by every instance running as this user unless overridden
+    public static
+    File getLeavesFile()
+    {
+        String configuredPath = System.getProperty("scrabbleanalyzer.leaves");
+
+        if (configuredPath != null)
+        {
+            return new File(configuredPath);
+        }
+
+        return new File(new File(System.getProperty("user.home"), ".scrabbleanalyzer"), "leaves.salv");
+    }
+
 }
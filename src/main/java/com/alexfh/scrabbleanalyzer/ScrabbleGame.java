@@ -1,31 +1,30 @@
 package com.alexfh.scrabbleanalyzer;
 
-import com.alexfh.scrabbleanalyzer.ai.PermuteTree;
-import com.alexfh.scrabbleanalyzer.dictionary.WordGraphDictionary;
+import com.alexfh.scrabbleanalyzer.ai.IMoveSink;
+import com.alexfh.scrabbleanalyzer.ai.MoveBatcher;
+import com.alexfh.scrabbleanalyzer.ai.MoveBuffer;
+import com.alexfh.scrabbleanalyzer.ai.TopMoves;
+import com.alexfh.scrabbleanalyzer.dictionary.IWordGraph;
 import com.alexfh.scrabbleanalyzer.rule.ILetterScoreMap;
+import com.alexfh.scrabbleanalyzer.state.IScrabbleBoard;
 import com.alexfh.scrabbleanalyzer.state.IScrabbleGameState;
 import com.alexfh.scrabbleanalyzer.util.ScrabbleUtil;
 
 import java.util.*;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
 
 public
 class ScrabbleGame
 {
 
-    public static final  ExecutorService threadPool           = Executors.newCachedThreadPool();
-    private static final boolean[]       allValid             = new boolean[IScrabbleGameState.alphaChars.length];
-    private static final boolean[]       allInvalid           = new boolean[IScrabbleGameState.alphaChars.length];
-    private static final int             invalidPerpWordScore = -1;
+    public static final  ForkJoinPool    forkJoinPool         = new ForkJoinPool();
+    static final         int             invalidPerpWordScore = -1;
     public static final  Offset          vertOffset           = new Offset(1, 0);
     public static final  Offset          horiOffset           = new Offset(0, 1);
 
-    static
-    {
-        Arrays.fill(ScrabbleGame.allValid, true);
-    }
-
     public static
     record Offset(int moveRowBy, int moveColBy)
     {
@@ -76,11 +75,13 @@ class ScrabbleGame
         private final int[]       posInEffectiveWordMap;
         private final int[]       effectiveWordSizeMap;
         private       int         numPlacedTiles;
-        private final boolean[][] validPerpTilesForPlacement;
+        private final int[]       validPerpTilesForPlacement; // masks of valid tiles from the rack
         private final int[][][]   scoreDataSource;
         private final int[][]     perpScoreDataSource;
         private final int[][]     cumulativeScoringData;
         private final Offset      offset;
+        private final int[]       remainingTileScores; // scratch space for getScoreBound
+        private final int[]       tileCoefficients;    // scratch space for getScoreBound
 
         private
         WordStart(int row, int col, boolean isVertical, int minTilesPlaced, int maxTilesPlaced, char[] effectiveWord,
@@ -95,26 +96,51 @@ class ScrabbleGame
             this.effectiveWord              = effectiveWord;
             this.posInEffectiveWordMap      = posInEffectiveWordMap;
             this.effectiveWordSizeMap       = effectiveWordSizeMap;
-            this.validPerpTilesForPlacement = new boolean[this.maxTilesPlaced][];
-            this.scoreDataSource            = this.isVertical ? ScrabbleGame.this.scoreDataVert
-                                                              : ScrabbleGame.this.scoreDataHori;
-            this.perpScoreDataSource        = this.isVertical ? ScrabbleGame.this.perpScoreDataVert
-                                                              : ScrabbleGame.this.perpScoreDataHori;
+            this.validPerpTilesForPlacement = new int[this.maxTilesPlaced];
+            this.scoreDataSource            = this.isVertical ? ScrabbleGame.this.boardAnalyzer.scoreDataVert
+                                                              : ScrabbleGame.this.boardAnalyzer.scoreDataHori;
+            this.perpScoreDataSource        = this.isVertical ? ScrabbleGame.this.boardAnalyzer.perpScoreDataVert
+                                                              : ScrabbleGame.this.boardAnalyzer.perpScoreDataHori;
             this.cumulativeScoringData
                                             = new int[this.maxTilesPlaced][]; // letterMultiplier, perpWordMultiplier, cumulativePlayScore, cumulativeMainWordScore, cumulativeMainWordMultiplier
             this.offset                     = this.isVertical ? ScrabbleGame.vertOffset : ScrabbleGame.horiOffset;
-            boolean[][][] validPerpTilesSource = this.isVertical ? ScrabbleGame.this.perpVert
-                                                                 : ScrabbleGame.this.perpHori;
+            this.remainingTileScores        = new int[ScrabbleGame.this.numTilesInRack];
+            this.tileCoefficients           = new int[this.maxTilesPlaced];
+            int[][] validPerpTilesSource = this.isVertical ? ScrabbleGame.this.boardAnalyzer.perpVert
+                                                           : ScrabbleGame.this.boardAnalyzer.perpHori;
 
             for (int i = 0; i < validPerpTilesForPlacement.length; i++)
             {
                 int spotInWord = this.posInEffectiveWordMap[i];
                 int newRow     = offset.newRow(this.row, spotInWord);
                 int newCol     = offset.newCol(this.col, spotInWord);
-                this.validPerpTilesForPlacement[i] = validPerpTilesSource[newRow][newCol];
+                this.validPerpTilesForPlacement[i] = validPerpTilesSource[newRow][newCol] & ScrabbleGame.this.rackMask;
             }
         }
 
+        // independent copy for another thread, sharing only the read-only data, with its own scoring cache
+        private
+        WordStart(WordStart other)
+        {
+            this.row                        = other.row;
+            this.col                        = other.col;
+            this.isVertical                 = other.isVertical;
+            this.minTilesPlaced             = other.minTilesPlaced;
+            this.maxTilesPlaced             = other.maxTilesPlaced;
+            this.currentlyPlacedTiles       = other.currentlyPlacedTiles.clone();
+            this.effectiveWord              = other.effectiveWord.clone();
+            this.posInEffectiveWordMap      = other.posInEffectiveWordMap;
+            this.effectiveWordSizeMap       = other.effectiveWordSizeMap;
+            this.numPlacedTiles             = other.numPlacedTiles;
+            this.validPerpTilesForPlacement = other.validPerpTilesForPlacement;
+            this.scoreDataSource            = other.scoreDataSource;
+            this.perpScoreDataSource        = other.perpScoreDataSource;
+            this.cumulativeScoringData      = new int[this.maxTilesPlaced][];
+            this.offset                     = other.offset;
+            this.remainingTileScores        = new int[other.remainingTileScores.length];
+            this.tileCoefficients           = new int[other.tileCoefficients.length];
+        }
+
         // lazily cache scoring data for words based on number of tiles
         private
         int[] getScoreDataForTile(int tile)
@@ -130,7 +156,7 @@ class ScrabbleGame
             int[] normalScoreData  = this.scoreDataSource[newRow][newCol];
             int   perpScoreData    = this.perpScoreDataSource[newRow][newCol];
             int   letterMultiplier = normalScoreData[0];
-            int   wordMultiplier   = ScrabbleGame.this.gameState.getWordMultiplierAt(newRow, newCol);
+            int   wordMultiplier   = ScrabbleGame.this.board.getWordMultiplierAt(newRow, newCol);
             int   prefixScore      = normalScoreData[2];
             int   suffixScore      = normalScoreData[3];
             int[] current          = new int[5];
@@ -188,10 +214,77 @@ class ScrabbleGame
             return playScore;
         }
 
+        /*
+        upper bound on the score of any move that extends the current placement with tiles from rack. Every
+        remaining square is assumed to form words, and the highest scoring tiles are paired with the squares where a
+        letter counts the most, which by the rearrangement inequality is the best any assignment could do
+         */
+        private
+        int getScoreBound(int[] rack)
+        {
+            int numRemaining = 0;
+
+            for (int i = 0; i < rack.length; i++)
+            {
+                char c     = ScrabbleUtil.intToChar(i);
+                int  score = (c == IScrabbleGameState.wildCardTile) ? 0 : ScrabbleGame.this.letterScoreMap.getScore(c);
+
+                for (int n = 0; n < rack[i]; n++)
+                {
+                    this.remainingTileScores[numRemaining++] = score;
+                }
+            }
+
+            ScrabbleGame.sortDescending(this.remainingTileScores, numRemaining);
+
+            int placedMainWordScore = 0;
+            int placedPerpWordScore = 0;
+
+            for (int i = 0; i < this.numPlacedTiles; i++)
+            {
+                char  placedTile      = this.currentlyPlacedTiles[i];
+                int[] tileScoringData = this.getScoreDataForTile(i);
+                int letterScore = (placedTile == IScrabbleGameState.wildCardTile) ? 0 : tileScoringData[0] *
+                                                                                        ScrabbleGame.this.letterScoreMap.getScore(
+                                                                                            placedTile);
+                placedMainWordScore += letterScore;
+                placedPerpWordScore += letterScore * tileScoringData[1];
+            }
+
+            int bound     = Integer.MIN_VALUE;
+            int mostTiles = Math.min(this.maxTilesPlaced, this.numPlacedTiles + numRemaining);
+
+            for (int n = Math.max(this.numPlacedTiles + 1, this.minTilesPlaced); n <= mostTiles; n++)
+            {
+                int[] cumulativeData     = this.getScoreDataForTile(n - 1);
+                int   mainWordMultiplier = cumulativeData[4];
+                int   numNewTiles        = n - this.numPlacedTiles;
+                int   score = cumulativeData[2] + placedPerpWordScore +
+                              mainWordMultiplier * (cumulativeData[3] + placedMainWordScore);
+
+                for (int i = 0; i < numNewTiles; i++)
+                {
+                    int[] tileScoringData = this.cumulativeScoringData[this.numPlacedTiles + i];
+                    this.tileCoefficients[i] = tileScoringData[0] * (tileScoringData[1] + mainWordMultiplier);
+                }
+
+                ScrabbleGame.sortDescending(this.tileCoefficients, numNewTiles);
+
+                for (int i = 0; i < numNewTiles; i++)
+                {
+                    score += this.tileCoefficients[i] * this.remainingTileScores[i];
+                }
+
+                bound = Math.max(bound, score);
+            }
+
+            return bound;
+        }
+
         private
         boolean cantPlace(char tile)
         {
-            return !this.validPerpTilesForPlacement[this.numPlacedTiles][ScrabbleUtil.charToInt(tile)];
+            return (this.validPerpTilesForPlacement[this.numPlacedTiles] & (1 << ScrabbleUtil.charToInt(tile))) == 0;
         }
 
         private
@@ -223,63 +316,30 @@ class ScrabbleGame
     }
 
     private final ILetterScoreMap     letterScoreMap;
-    private final WordGraphDictionary dictionary;
+    private final IWordGraph          dictionary;
     private final IScrabbleGameState  gameState;
+    private final IScrabbleBoard      board;
 
-    /*
-    perpVert and perpHori are valid tile placements at a given position based on created perpendicular words
-
-    t, f = true, false
-    .    = blank tile
-    *    = blank tile considered for placement of new tile
-    -, | = blank tiles on the line of consideration
-
-    --------
-    perpVert
-    --------
-    i..|..
-    t..|..
-    ..b*t.
-       ^
-       |
-         a  b  c  d  e  f  g  h  i  j  k  l  m  n  o  p  q  r  s  t  u  v  w  x  y  z
-       [ t, f, f, f, t, f, f, f, t, f, f, f, f, f, t, f, f, f, f, f, t, f, f, f, f, f ] <- perpVert[1][3]
-       since 'bat', 'bet', 'bit', 'bot', and 'but' are valid words
-
-    --------
-    perpHori
-    --------
-
-    foo...      a  b  c  d  e  f  g  h  i  j  k  l  m  n  o  p  q  r  s  t  u  v  w  x  y  z
-    -----* <- [ f, t, t, f, f, t, f, t, f, f, f, f, t, t, f, t, f, t, t, f, f, f, f, f, f, f ] <- perpHori[0][5]
-    .....a    since 'bat', 'cat', 'fat', 'hat', 'mat', 'nat', 'pat', 'rat', and 'sat' are valid words
-    .....t
-
-    perpVert and perpHori work to limit what permutations of the playerTiles are used to create words, since
-    words will only be valid if they form only valid words in the perpendicular direction
-
-    when it is being considered whether to place a playerTile at a position,
-    this.perp(Vert|Hori)[row][col][ScrabbleUtil.charToInt(char)] will show if it is a valid placement perpendicularly
-     */
-    private final boolean[][][]   perpVert;
-    private final boolean[][][]   perpHori;
-    private       PermuteTree     permuteTree;
+    private final BoardAnalyzer   boardAnalyzer;
+    private final int[]           rackCounts; // tiles left in the rack, indexed by ScrabbleUtil.charToInt
     private       List<WordStart> validWordStarts;
-    private final boolean[]       possibleCharPlacements;
-    private final boolean[][]     canPlaceVert;
-    private final boolean[][]     canPlaceHori;
-    private final int[][][]       scoreDataVert;
-    // letterMultiplier, wordMultiplier, prefixPlacedTileScores, suffixPlacedTileScores | null for invalid
-    private final int[][][]       scoreDataHori;
-    // letterMultiplier, wordMultiplier, prefixPlacedTileScores, suffixPlacedTileScores | null for invalid
-    private final int[][]         perpScoreDataVert; // -1 for invalid
-    private final int[][]         perpScoreDataHori; // -1 for invalid
+    private final int             rackMask; // bit ScrabbleUtil.charToInt(c) set if c can be placed from the rack
+    private final int             numTilesInRack;
     private       boolean         initialized = false;
+    private volatile boolean      cancelled   = false;
 
     public
-    ScrabbleGame(ILetterScoreMap letterScoreMap, WordGraphDictionary dictionary, IScrabbleGameState gameState)
+    ScrabbleGame(ILetterScoreMap letterScoreMap, IWordGraph dictionary, IScrabbleGameState gameState)
     {
-        if (dictionary.getRoot() == null)
+        this(letterScoreMap, dictionary, gameState, new BoardAnalyzer(letterScoreMap, dictionary));
+    }
+
+    // boardAnalyzer must have been created with the same letterScoreMap and dictionary
+    public
+    ScrabbleGame(ILetterScoreMap letterScoreMap, IWordGraph dictionary, IScrabbleGameState gameState,
+                 BoardAnalyzer boardAnalyzer)
+    {
+        if (dictionary.getRoot() == IWordGraph.noPath)
         {
             throw new IllegalStateException("Empty dictionary");
         }
@@ -287,24 +347,22 @@ class ScrabbleGame
         this.letterScoreMap         = letterScoreMap;
         this.dictionary             = dictionary;
         this.gameState              = gameState;
-        this.perpVert               = new boolean[this.gameState.getRows()][this.gameState.getCols()][];
-        this.perpHori               = new boolean[this.gameState.getRows()][this.gameState.getCols()][];
-        this.possibleCharPlacements = this.getPossiblePlacements();
-        this.canPlaceVert           = new boolean[this.gameState.getRows()][this.gameState.getCols()];
-        this.canPlaceHori           = new boolean[this.gameState.getRows()][this.gameState.getCols()];
-        this.scoreDataVert          = new int[this.gameState.getRows()][this.gameState.getCols()][];
-        this.scoreDataHori          = new int[this.gameState.getRows()][this.gameState.getCols()][];
-        this.perpScoreDataVert      = new int[this.gameState.getRows()][this.gameState.getCols()];
-        this.perpScoreDataHori      = new int[this.gameState.getRows()][this.gameState.getCols()];
+        this.board                  = gameState.getBoard();
+        this.boardAnalyzer          = boardAnalyzer;
+        this.rackMask               = this.getRackMask();
+        this.numTilesInRack         = gameState.getNumTilesInRack();
+        this.rackCounts             = new int[IScrabbleGameState.alphaChars.length + 1];
     }
 
     private
     void initialize() throws InterruptedException
     {
-        this.permuteTree = ScrabbleUtil.timeRetrievalInterruptable(
-            () -> new PermuteTree(this.gameState.getTilesInRack()), "generatePermuteTree");
+        for (Character c : this.gameState.getTilesInRack())
+        {
+            this.rackCounts[ScrabbleUtil.charToInt(c)]++;
+        }
 
-        ScrabbleUtil.timeItInterruptable(this::initializeValidPerpendicularPlacementsAndScoringData,
+        ScrabbleUtil.timeItInterruptable(() -> this.boardAnalyzer.update(this.board),
             "initializeValidPerpendicularPlacements");
 
         this.validWordStarts = ScrabbleUtil.timeRetrievalInterruptable(this::findValidWordStarts,
@@ -314,51 +372,276 @@ class ScrabbleGame
 
     public
     List<Move> findMoves() throws InterruptedException
+    {
+        MoveBuffer moves = new MoveBuffer();
+
+        this.findMoves(moves);
+
+        return moves.toList();
+    }
+
+    // best k moves, best first
+    public
+    List<Move> findTopMoves(int k) throws InterruptedException
+    {
+        TopMoves moves = new TopMoves(k);
+
+        this.findMoves(moves);
+
+        return moves.toSortedList();
+    }
+
+    // branches that can't reach moves.getMinimumScore() are skipped
+    public
+    void findMoves(IMoveSink moves) throws InterruptedException
     {
         if (!this.initialized)
         {
             this.initialize();
         }
 
-        List<Move> moves = new ArrayList<>();
-
         for (WordStart wordStart : this.validWordStarts)
         {
             ScrabbleUtil.checkInterrupted();
-            this.addAllMovesFromWordStart(wordStart, moves);
+            this.addAllMovesFromWordStart(wordStart, this.rackCounts, moves);
+        }
+    }
+
+    public
+    List<Move> findMovesParallel() throws InterruptedException
+    {
+        MoveBuffer moves = new MoveBuffer();
+
+        this.findMovesParallel(ScrabbleGame.forkJoinPool, moves);
+
+        return moves.toList();
+    }
+
+    // same moves in the same order as findMoves, with WordStarts spread across the pool
+    public
+    void findMovesParallel(ForkJoinPool pool, MoveBuffer moves) throws InterruptedException
+    {
+        this.findMovesParallel(pool, moves, null);
+    }
+
+    // batcher, if not null, is also given the moves of each WordStart as it is finished
+    public
+    void findMovesParallel(ForkJoinPool pool, MoveBuffer moves, MoveBatcher batcher) throws InterruptedException
+    {
+        if (!this.initialized)
+        {
+            this.initialize();
+        }
+
+        List<WordStart>          wordStarts = new ArrayList<>(this.validWordStarts);
+        ForkJoinTask<MoveBuffer> task       = pool.submit(
+            new WordStartsTask(wordStarts, 0, wordStarts.size(), batcher));
+
+        try
+        {
+            moves.addAll(task.get());
+        }
+        catch (InterruptedException e)
+        {
+            this.cancelled = true;
+
+            // the remaining tasks stop at their next check, wait for them so none outlive this call
+            task.quietlyJoin();
+
+            throw e;
+        }
+        catch (ExecutionException e)
+        {
+            throw new IllegalStateException("Parallel move generation failed", e.getCause());
+        }
+    }
+
+    // splits a range of WordStarts in halves, joining left before right so moves keep their sequential order
+    private
+    class WordStartsTask extends RecursiveTask<MoveBuffer>
+    {
+
+        private final List<WordStart> wordStarts;
+        private final int             from;
+        private final int             to;
+        private final MoveBatcher     batcher;
+
+        private
+        WordStartsTask(List<WordStart> wordStarts, int from, int to, MoveBatcher batcher)
+        {
+            this.wordStarts = wordStarts;
+            this.from       = from;
+            this.to         = to;
+            this.batcher    = batcher;
+        }
+
+        @Override
+        protected
+        MoveBuffer compute()
+        {
+            // an empty range only comes from a game without any WordStarts, since halves are never empty
+            if (ScrabbleGame.this.cancelled || this.to == this.from)
+            {
+                return new MoveBuffer();
+            }
+
+            if (this.to - this.from == 1)
+            {
+                MoveBuffer moves = ScrabbleGame.this.computeMovesFromWordStart(this.wordStarts.get(this.from));
+
+                // copied by the batcher now, since the parent task appends to the buffer once it is returned
+                if (this.batcher != null)
+                {
+                    this.batcher.add(moves);
+                }
+
+                return moves;
+            }
+
+            int            mid   = (this.from + this.to) >>> 1;
+            WordStartsTask left  = new WordStartsTask(this.wordStarts, this.from, mid, this.batcher);
+            WordStartsTask right = new WordStartsTask(this.wordStarts, mid, this.to, this.batcher);
+
+            left.fork();
+
+            MoveBuffer rightMoves = right.compute();
+            MoveBuffer moves      = left.join();
+
+            moves.addAll(rightMoves);
+
+            return moves;
+        }
+
+    }
+
+    // a single first tile placed on its own copy of a WordStart
+    private
+    class FirstTileTask extends RecursiveTask<MoveBuffer>
+    {
+
+        private final WordStart wordStart;
+        private final int[]     rack;
+        private final int       path;
+
+        private
+        FirstTileTask(WordStart wordStart, int[] rack, int path)
+        {
+            this.wordStart = wordStart;
+            this.rack      = rack;
+            this.path      = path;
+        }
+
+        @Override
+        protected
+        MoveBuffer compute()
+        {
+            MoveBuffer moves = new MoveBuffer();
+
+            if (!ScrabbleGame.this.cancelled)
+            {
+                ScrabbleGame.this.permuteOnWordStart(this.wordStart, this.rack, this.path, moves);
+            }
+
+            return moves;
+        }
+
+    }
+
+    private
+    MoveBuffer computeMovesFromWordStart(WordStart wordStart)
+    {
+        MoveBuffer moves = new MoveBuffer();
+
+        if (this.rackCounts[ScrabbleUtil.charToInt(IScrabbleGameState.wildCardTile)] == 0)
+        {
+            this.addAllMovesFromWordStart(wordStart, this.rackCounts.clone(), moves);
+
+            return moves;
+        }
+
+        // a wildcard multiplies the work under a WordStart by up to 26, so its first tile branches are split too
+        int startPath = this.initializePath(wordStart);
+
+        if (startPath == IWordGraph.noPath)
+        {
+            ScrabbleGame.reportInvalidPrefix(wordStart);
+
+            return moves;
+        }
+
+        List<FirstTileTask> branches = new ArrayList<>();
+        int                 newPath;
+
+        for (int i = 0; i < this.rackCounts.length; i++)
+        {
+            if (this.rackCounts[i] == 0)
+            {
+                continue;
+            }
+
+            char   c       = ScrabbleUtil.intToChar(i);
+            char[] placeAs = (c == IScrabbleGameState.wildCardTile) ? IScrabbleGameState.alphaChars : new char[]{ c };
+
+            for (char as : placeAs)
+            {
+                if (wordStart.cantPlace(as) ||
+                    (newPath = this.followPathToNextBlank(wordStart, startPath, as)) == IWordGraph.noPath)
+                {
+                    continue;
+                }
+
+                WordStart branch     = new WordStart(wordStart);
+                int[]     branchRack = this.rackCounts.clone();
+
+                branch.placeTileAs(c, as);
+                branchRack[i]--;
+                branches.add(new FirstTileTask(branch, branchRack, newPath));
+            }
+        }
+
+        ForkJoinTask.invokeAll(branches);
+
+        for (FirstTileTask branch : branches)
+        {
+            moves.addAll(branch.join());
         }
 
         return moves;
     }
 
     private
-    void addAllMovesFromWordStart(WordStart wordStart, List<Move> moves)
+    void addAllMovesFromWordStart(WordStart wordStart, int[] rack, IMoveSink moves)
     {
-        WordGraphDictionary.WGNode startPath = this.initializePath(wordStart);
+        int startPath = this.initializePath(wordStart);
 
-        if (startPath == null)
+        if (startPath == IWordGraph.noPath)
         {
-            System.out.println("PANIC: placement with invalid prefix | " + Arrays.toString(wordStart.effectiveWord));
+            ScrabbleGame.reportInvalidPrefix(wordStart);
 
             return;
         }
 
-        this.permuteOnWordStart(wordStart, this.permuteTree.getRoot(), startPath, moves);
+        this.permuteOnWordStart(wordStart, rack, startPath, moves);
+    }
+
+    // on stderr, since stdout carries only the results of the command line tools
+    private static
+    void reportInvalidPrefix(WordStart wordStart)
+    {
+        System.err.println("PANIC: placement with invalid prefix | " + Arrays.toString(wordStart.effectiveWord));
     }
 
+    // rack holds the counts of the tiles not yet placed. Each distinct tile is tried once per position, so
+    // duplicate tiles never produce the same move twice
     private
-    void permuteOnWordStart(WordStart wordStart, PermuteTree.PTNode perm, WordGraphDictionary.WGNode path,
-                            List<Move> moves)
+    void permuteOnWordStart(WordStart wordStart, int[] rack, int path, IMoveSink moves)
     {
-        if (wordStart.numPlacedTiles >= wordStart.minTilesPlaced && path.isWordHere())
+        if (wordStart.numPlacedTiles >= wordStart.minTilesPlaced && this.dictionary.isWordHere(path))
         {
-            char[] playedTilesCopy = new char[wordStart.numPlacedTiles];
-            int[]  tileSpotsInWord = new int[wordStart.numPlacedTiles];
-
-            System.arraycopy(wordStart.currentlyPlacedTiles, 0, playedTilesCopy, 0, playedTilesCopy.length);
-            System.arraycopy(wordStart.posInEffectiveWordMap, 0, tileSpotsInWord, 0, tileSpotsInWord.length);
-            moves.add(new Move(path.getWord(), playedTilesCopy, tileSpotsInWord, wordStart.isVertical, wordStart.row,
-                wordStart.col, wordStart.getScore()));
+            // the formed word extends through any tiles on the board following the last placed tile
+            moves.add(wordStart.row, wordStart.col, wordStart.isVertical, wordStart.getScore(),
+                wordStart.currentlyPlacedTiles, wordStart.posInEffectiveWordMap, wordStart.numPlacedTiles,
+                wordStart.effectiveWord, wordStart.effectiveWordSizeMap[wordStart.numPlacedTiles - 1]);
         }
 
         if (wordStart.numPlacedTiles == wordStart.maxTilesPlaced)
@@ -366,51 +649,65 @@ class ScrabbleGame
             return;
         }
 
-        WordGraphDictionary.WGNode newPath;
+        int minimumScore = moves.getMinimumScore();
 
-        for (Character c : perm.getPaths())
+        if (minimumScore != IMoveSink.acceptsAnyScore && wordStart.getScoreBound(rack) < minimumScore)
         {
+            return;
+        }
+
+        int newPath;
+
+        for (int i = 0; i < rack.length; i++)
+        {
+            if (rack[i] == 0)
+            {
+                continue;
+            }
+
+            char c = ScrabbleUtil.intToChar(i);
+            rack[i]--;
+
             if (c == IScrabbleGameState.wildCardTile)
             {
                 for (char as : IScrabbleGameState.alphaChars)
                 {
-                    if (wordStart.cantPlace(as) || (newPath = this.followPathToNextBlank(wordStart, path, as)) == null)
+                    if (wordStart.cantPlace(as) ||
+                        (newPath = this.followPathToNextBlank(wordStart, path, as)) == IWordGraph.noPath)
                     {
                         continue;
                     }
 
                     wordStart.placeWildcardTileAs(as);
-                    this.permuteOnWordStart(wordStart, perm.getPath(c), newPath, moves);
+                    this.permuteOnWordStart(wordStart, rack, newPath, moves);
                     wordStart.removeTile();
                 }
             }
-            else
+            else if (!wordStart.cantPlace(c) &&
+                     (newPath = this.followPathToNextBlank(wordStart, path, c)) != IWordGraph.noPath)
             {
-                if (wordStart.cantPlace(c) || (newPath = this.followPathToNextBlank(wordStart, path, c)) == null)
-                {
-                    continue;
-                }
-
                 wordStart.placeTile(c);
-                this.permuteOnWordStart(wordStart, perm.getPath(c), newPath, moves);
+                this.permuteOnWordStart(wordStart, rack, newPath, moves);
                 wordStart.removeTile();
             }
+
+            rack[i]++;
         }
     }
 
     private
-    WordGraphDictionary.WGNode initializePath(WordStart wordStart)
+    int initializePath(WordStart wordStart)
     {
-        int                        start   = 0;
-        int                        finish  = wordStart.posInEffectiveWordMap[0];
-        int                        current = start;
-        WordGraphDictionary.WGNode newPath = this.dictionary.getRoot();
+        int start   = 0;
+        int finish  = wordStart.posInEffectiveWordMap[0];
+        int current = start;
+        int newPath = this.dictionary.getRoot();
 
         while (current < finish)
         {
-            newPath = newPath.getPath(wordStart.effectiveWord[current]);
+            newPath = this.dictionary.getPath(newPath, wordStart.effectiveWord[current]);
 
-            if (newPath == null)
+            if (newPath == IWordGraph.noPath)
             {
                 break;
             }
@@ -422,24 +719,23 @@ class ScrabbleGame
     }
 
     private
-    WordGraphDictionary.WGNode followPathToNextBlank(WordStart wordStart, WordGraphDictionary.WGNode currentPath,
-                                                     char toPlace)
+    int followPathToNextBlank(WordStart wordStart, int currentPath, char toPlace)
     {
-        int                        start   = wordStart.posInEffectiveWordMap[wordStart.numPlacedTiles];
-        int                        finish  = wordStart.effectiveWordSizeMap[wordStart.numPlacedTiles];
-        int                        current = start + 1;
-        WordGraphDictionary.WGNode newPath = currentPath.getPath(toPlace);
+        int start   = wordStart.posInEffectiveWordMap[wordStart.numPlacedTiles];
+        int finish  = wordStart.effectiveWordSizeMap[wordStart.numPlacedTiles];
+        int current = start + 1;
+        int newPath = this.dictionary.getPath(currentPath, toPlace);
 
-        if (newPath == null)
+        if (newPath == IWordGraph.noPath)
         {
-            return null;
+            return IWordGraph.noPath;
         }
 
         while (current < finish)
         {
-            newPath = newPath.getPath(wordStart.effectiveWord[current]);
+            newPath = this.dictionary.getPath(newPath, wordStart.effectiveWord[current]);
 
-            if (newPath == null)
+            if (newPath == IWordGraph.noPath)
             {
                 break;
             }
@@ -450,22 +746,41 @@ class ScrabbleGame
         return newPath;
     }
 
+    // insertion sort, for the handful of values getScoreBound sorts
+    private static
+    void sortDescending(int[] values, int length)
+    {
+        for (int i = 1; i < length; i++)
+        {
+            int value = values[i];
+            int j     = i - 1;
+
+            while (j >= 0 && values[j] < value)
+            {
+                values[j + 1] = values[j];
+                j--;
+            }
+
+            values[j + 1] = value;
+        }
+    }
+
     private
-    boolean[] getPossiblePlacements()
+    int getRackMask()
     {
-        boolean[] placements = new boolean[IScrabbleGameState.alphaChars.length];
+        int rackMask = 0;
 
         for (Character c : this.gameState.getTilesInRack())
         {
             if (c == IScrabbleGameState.wildCardTile)
             {
-                return ScrabbleGame.allValid;
+                return BoardAnalyzer.allValid;
             }
 
-            placements[ScrabbleUtil.charToInt(c)] = true;
+            rackMask |= 1 << ScrabbleUtil.charToInt(c);
         }
 
-        return placements;
+        return rackMask;
     }
 
     private
@@ -473,9 +788,9 @@ class ScrabbleGame
     {
         List<WordStart> wordStarts = new LinkedList<>();
 
-        for (int row = 0; row < this.gameState.getRows(); row++)
+        for (int row = 0; row < this.board.getRows(); row++)
         {
-            for (int col = 0; col < this.gameState.getCols(); col++)
+            for (int col = 0; col < this.board.getCols(); col++)
             {
                 ScrabbleUtil.checkInterrupted();
                 this.addWordStartIfValid(row, col, true, wordStarts);
@@ -492,7 +807,7 @@ class ScrabbleGame
         int    wordStart = isVertical ? row : col;
         Offset offset    = isVertical ? ScrabbleGame.vertOffset : ScrabbleGame.horiOffset;
         boolean beforeEmpty = wordStart == 0 ||
-                              this.gameState.isEmptyAt(offset.newRow(row, -1), offset.newCol(col, -1));
+                              this.board.isEmptyAt(offset.newRow(row, -1), offset.newCol(col, -1));
 
         if (!beforeEmpty)
         {
@@ -501,9 +816,9 @@ class ScrabbleGame
 
         int         wordStartPerp    = isVertical ? col : row;
         Offset      offsetPerp       = isVertical ? ScrabbleGame.horiOffset : ScrabbleGame.vertOffset;
-        int         lineBound        = isVertical ? this.gameState.getRows() : this.gameState.getCols();
-        int         lineBoundPerp    = isVertical ? this.gameState.getCols() : this.gameState.getRows();
-        boolean[][] canPlaceSource   = isVertical ? this.canPlaceVert : this.canPlaceHori;
+        int         lineBound        = isVertical ? this.board.getRows() : this.board.getCols();
+        int         lineBoundPerp    = isVertical ? this.board.getCols() : this.board.getRows();
+        int[][]     perpSource       = isVertical ? this.boardAnalyzer.perpVert : this.boardAnalyzer.perpHori;
         int         blanks           = 0;
         int         tillBound        = lineBound - wordStart;
         boolean     hasAnchor        = false;
@@ -514,11 +829,11 @@ class ScrabbleGame
         {
             int     newRow  = offset.newRow(row, w);
             int     newCol  = offset.newCol(col, w);
-            boolean isBlank = this.gameState.isEmptyAt(newRow, newCol);
+            boolean isBlank = this.board.isEmptyAt(newRow, newCol);
 
             if (isBlank)
             {
-                if (blanks == this.gameState.getNumTilesInRack() || !canPlaceSource[newRow][newCol])
+                if (blanks == this.numTilesInRack || (perpSource[newRow][newCol] & this.rackMask) == 0)
                 {
                     break;
                 }
@@ -528,12 +843,12 @@ class ScrabbleGame
 
             if (!hasAnchor)
             {
-                boolean onBeforeSide = wordStartPerp > 0 && !this.gameState.isEmptyAt(offsetPerp.newRow(newRow, -1),
+                boolean onBeforeSide = wordStartPerp > 0 && !this.board.isEmptyAt(offsetPerp.newRow(newRow, -1),
                     offsetPerp.newCol(newCol, -1));
                 boolean onAfterSide = wordStartPerp < lineBoundPerp - 1 &&
-                                      !this.gameState.isEmptyAt(offsetPerp.newRow(newRow, 1),
+                                      !this.board.isEmptyAt(offsetPerp.newRow(newRow, 1),
                                           offsetPerp.newCol(newCol, 1));
-                boolean onAnchor = newRow == this.gameState.getAnchorRow() && newCol == this.gameState.getAnchorCol();
+                boolean onAnchor = newRow == this.board.getAnchorRow() && newCol == this.board.getAnchorCol();
                 boolean anchorable = !isBlank || onBeforeSide || onAfterSide || onAnchor;
 
                 if (anchorable)
@@ -559,8 +874,8 @@ class ScrabbleGame
         {
             int newRow = offset.newRow(row, i);
             int newCol = offset.newCol(col, i);
-            effectiveWord[i] = this.gameState.getCharAt(newRow, newCol);
-            boolean isBlank = this.gameState.isEmptyAt(newRow, newCol);
+            effectiveWord[i] = this.board.getCharAt(newRow, newCol);
+            boolean isBlank = this.board.isEmptyAt(newRow, newCol);
 
             if (isBlank)
             {
@@ -577,173 +892,4 @@ class ScrabbleGame
             posInEffectiveWordMap, effectiveWordSizeMap));
     }
 
-    private
-    void initializeValidPerpendicularPlacementsAndScoringData() throws InterruptedException
-    {
-        for (int row = 0; row < this.gameState.getRows(); row++)
-        {
-            for (int col = 0; col < this.gameState.getCols(); col++)
-            {
-                ScrabbleUtil.checkInterrupted();
-
-                if (!this.gameState.isEmptyAt(row, col))
-                { // tile already placed, nothing valid
-                    this.perpVert[row][col]          = ScrabbleGame.allInvalid;
-                    this.perpHori[row][col]          = ScrabbleGame.allInvalid;
-                    this.perpScoreDataVert[row][col] = ScrabbleGame.invalidPerpWordScore;
-                    this.perpScoreDataHori[row][col] = ScrabbleGame.invalidPerpWordScore;
-
-                    continue;
-                }
-
-                this.initializeValidPerpendicularPlacementAndScoringDataAt(row, col, true);
-                this.initializeValidPerpendicularPlacementAndScoringDataAt(row, col, false);
-            }
-        }
-    }
-
-    private
-    void initializeValidPerpendicularPlacementAndScoringDataAt(int row, int col, boolean isVertical)
-    {
-        boolean[][][] perpSource          = isVertical ? this.perpVert : this.perpHori;
-        int[][]       perpScoreDataSource = isVertical ? this.perpScoreDataVert : this.perpScoreDataHori;
-        int[][][]     scoreDataSource     = isVertical ? this.scoreDataHori : this.scoreDataVert;
-        boolean[][]   canPlaceSource      = isVertical ? this.canPlaceVert : this.canPlaceHori;
-        int           wordStartPerp       = isVertical ? col : row;
-        int           lineBoundPerp       = isVertical ? this.gameState.getCols() : this.gameState.getRows();
-        Offset        offsetPerp          = isVertical ? ScrabbleGame.horiOffset : ScrabbleGame.vertOffset;
-        boolean beforeEmpty = wordStartPerp == 0 ||
-                              this.gameState.isEmptyAt(offsetPerp.newRow(row, -1), offsetPerp.newCol(col, -1));
-        boolean afterEmpty = wordStartPerp == lineBoundPerp - 1 ||
-                             this.gameState.isEmptyAt(offsetPerp.newRow(row, 1), offsetPerp.newCol(col, 1));
-        int before      = wordStartPerp, after = wordStartPerp;
-        int i           = 0;
-        int score       = 0;
-        int prefixScore = 0;
-        int suffixScore = 0;
-
-        while (after + 1 < lineBoundPerp &&
-               !this.gameState.isEmptyAt(offsetPerp.newRow(row, i + 1), offsetPerp.newCol(col, i + 1)))
-        {
-            int newRow = offsetPerp.newRow(row, i + 1), newCol = offsetPerp.newCol(col, i + 1);
-
-            if (!this.gameState.isWildcardAt(newRow, newCol))
-            {
-                int s = this.letterScoreMap.getScore(this.gameState.getCharAt(newRow, newCol));
-                score += s;
-                suffixScore += s;
-            }
-
-            after++;
-            i++;
-        }
-
-        i = 0;
-
-        while (before - 1 >= 0 &&
-               !this.gameState.isEmptyAt(offsetPerp.newRow(row, i - 1), offsetPerp.newCol(col, i - 1)))
-        {
-            int newRow = offsetPerp.newRow(row, i - 1), newCol = offsetPerp.newCol(col, i - 1);
-
-            if (!this.gameState.isWildcardAt(newRow, newCol))
-            {
-                int s = this.letterScoreMap.getScore(this.gameState.getCharAt(newRow, newCol));
-                score += s;
-                prefixScore += s;
-            }
-
-            before--;
-            i--;
-        }
-
-        if (beforeEmpty && afterEmpty)
-        { // nothing before or after, anything is valid for placement
-            canPlaceSource[row][col]      = true;
-            perpSource[row][col]          = ScrabbleGame.allValid;
-            perpScoreDataSource[row][col] = ScrabbleGame.invalidPerpWordScore;
-            scoreDataSource[row][col]     = new int[]{ this.gameState.getLetterMultiplierAt(row, col),
-                                                       this.gameState.getWordMultiplierAt(row, col), prefixScore,
-                                                       suffixScore };
-
-            return;
-        }
-
-        WordGraphDictionary.WGNode currentPath = this.dictionary.getRoot();
-        int                        current     = before;
-
-        while (current < wordStartPerp)
-        {
-            currentPath = currentPath.getPath(
-                this.gameState.getCharAt(offsetPerp.newRow(row, i), offsetPerp.newCol(col, i)));
-
-            if (currentPath == null)
-            {
-                break;
-            }
-
-            current++;
-            i++;
-        }
-
-        if (current == wordStartPerp)
-        { // before tile is valid prefix
-            boolean[] result = new boolean[IScrabbleGameState.alphaChars.length];
-            int       scoreData;
-            boolean   hasAny = false;
-
-            for (Character c : currentPath.getPaths())
-            {
-                if (!this.possibleCharPlacements[ScrabbleUtil.charToInt(c)])
-                {
-                    continue;
-                }
-
-                WordGraphDictionary.WGNode afterPath = currentPath.getPath(c);
-                current = wordStartPerp + 1;
-                i       = 1;
-
-                while (current <= after)
-                {
-                    afterPath = afterPath.getPath(
-                        this.gameState.getCharAt(offsetPerp.newRow(row, i), offsetPerp.newCol(col, i)));
-
-                    if (afterPath == null)
-                    {
-                        break;
-                    }
-
-                    current++;
-                    i++;
-                }
-
-                if (afterPath != null && afterPath.isWordHere())
-                {
-                    result[ScrabbleUtil.charToInt(c)] = true;
-                    hasAny                            = true;
-                }
-            }
-
-            if (hasAny)
-            {
-                canPlaceSource[row][col] = true;
-                scoreData                = score;
-            }
-            else
-            {
-                scoreData = ScrabbleGame.invalidPerpWordScore;
-            }
-
-            perpSource[row][col]          = result;
-            perpScoreDataSource[row][col] = scoreData;
-        }
-        else
-        {
-            perpSource[row][col]          = ScrabbleGame.allInvalid;
-            perpScoreDataSource[row][col] = ScrabbleGame.invalidPerpWordScore;
-        }
-
-        scoreDataSource[row][col] = new int[]{ this.gameState.getLetterMultiplierAt(row, col),
-                                               this.gameState.getWordMultiplierAt(row, col), prefixScore, suffixScore };
-    }
-
 }
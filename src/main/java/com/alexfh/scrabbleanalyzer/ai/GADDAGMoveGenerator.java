@@ -0,0 +1,462 @@
+package com.alexfh.scrabbleanalyzer.ai;
+
+import com.alexfh.scrabbleanalyzer.ScrabbleGame;
+import com.alexfh.scrabbleanalyzer.dictionary.GADDAG;
+import com.alexfh.scrabbleanalyzer.dictionary.IWordGraph;
+import com.alexfh.scrabbleanalyzer.rule.ILetterScoreMap;
+import com.alexfh.scrabbleanalyzer.state.IScrabbleGameState;
+import com.alexfh.scrabbleanalyzer.util.ScrabbleUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+Anchor based move generator walking a GADDAG (see dictionary.GADDAG). Produces the same moves as
+ScrabbleGame.findMoves, but instead of enumerating every start square before an anchor and walking each prefix from
+the root, words are grown outwards from each anchor, so the letters left of the anchor are only traversed once.
+
+An anchor is an empty square next to a placed tile, or the board anchor. Every move covers at least one anchor, and is
+generated only from the leftmost anchor it covers: when growing left, tiles are never placed on another anchor.
+ */
+public
+class GADDAGMoveGenerator
+{
+
+    private static final int  bingoBonus    = 35;
+    private static final int  noPerpWord    = -1;
+    private static final int  allLetters    = (1 << IScrabbleGameState.alphaChars.length) - 1;
+    private static final int  wildcardIndex = ScrabbleUtil.charToInt(IScrabbleGameState.wildCardTile);
+    private static final char notPlaced     = IScrabbleGameState.emptyMarker;
+
+    private final ILetterScoreMap         letterScoreMap;
+    private final IWordGraph              gaddag;
+    private final IScrabbleGameState      gameState;
+    private final int[]                   rackCounts = new int[IScrabbleGameState.alphaChars.length + 1];
+    private final int[][]                 crossChecks; // letters forming valid perpendicular words | 0 if occupied
+    private final int[][]                 perpScores; // score of the perpendicular word's existing tiles | noPerpWord
+    private final boolean[][]             anchors;
+    private final char[]                  lineTiles; // rack tile placed at a position of the line | notPlaced
+    private final char[]                  lineLetters; // letter at a position of the line, placed or existing
+    private       List<ScrabbleGame.Move> moves;
+    private       boolean                 isVertical;
+    private       int                     line;
+    private       int                     lineLength;
+    private       int                     anchorPos;
+    private       int                     tilesLeft;
+
+    public
+    GADDAGMoveGenerator(ILetterScoreMap letterScoreMap, IWordGraph gaddag, IScrabbleGameState gameState)
+    {
+        if (gaddag.getRoot() == IWordGraph.noPath)
+        {
+            throw new IllegalStateException("Empty dictionary");
+        }
+
+        int maxLineLength = Math.max(gameState.getRows(), gameState.getCols());
+        this.letterScoreMap = letterScoreMap;
+        this.gaddag         = gaddag;
+        this.gameState      = gameState;
+        this.crossChecks    = new int[gameState.getRows()][gameState.getCols()];
+        this.perpScores     = new int[gameState.getRows()][gameState.getCols()];
+        this.anchors        = new boolean[gameState.getRows()][gameState.getCols()];
+        this.lineTiles      = new char[maxLineLength];
+        this.lineLetters    = new char[maxLineLength];
+    }
+
+    public
+    List<ScrabbleGame.Move> findMoves() throws InterruptedException
+    {
+        this.moves = new ArrayList<>();
+
+        for (char tile : this.gameState.getTilesInRack())
+        {
+            this.rackCounts[ScrabbleUtil.charToInt(tile)]++;
+        }
+
+        this.tilesLeft = this.gameState.getNumTilesInRack();
+
+        this.findAnchors();
+        this.findMovesInDirection(false);
+        this.findMovesInDirection(true);
+
+        return this.moves;
+    }
+
+    private
+    void findAnchors()
+    {
+        for (int row = 0; row < this.gameState.getRows(); row++)
+        {
+            for (int col = 0; col < this.gameState.getCols(); col++)
+            {
+                boolean onAnchor = row == this.gameState.getAnchorRow() && col == this.gameState.getAnchorCol();
+                boolean touchesTile = this.isOccupied(row - 1, col) || this.isOccupied(row + 1, col) ||
+                                      this.isOccupied(row, col - 1) || this.isOccupied(row, col + 1);
+                this.anchors[row][col] = this.gameState.isEmptyAt(row, col) && (onAnchor || touchesTile);
+            }
+        }
+    }
+
+    private
+    boolean isOccupied(int row, int col)
+    {
+        return row >= 0 && row < this.gameState.getRows() && col >= 0 && col < this.gameState.getCols() &&
+               !this.gameState.isEmptyAt(row, col);
+    }
+
+    private
+    void findMovesInDirection(boolean isVertical) throws InterruptedException
+    {
+        this.isVertical = isVertical;
+        this.lineLength = isVertical ? this.gameState.getRows() : this.gameState.getCols();
+        int numLines = isVertical ? this.gameState.getCols() : this.gameState.getRows();
+
+        for (int row = 0; row < this.gameState.getRows(); row++)
+        {
+            for (int col = 0; col < this.gameState.getCols(); col++)
+            {
+                ScrabbleUtil.checkInterrupted();
+                this.initializeCrossCheckAt(row, col);
+            }
+        }
+
+        for (this.line = 0; this.line < numLines; this.line++)
+        {
+            for (int pos = 0; pos < this.lineLength; pos++)
+            {
+                this.lineTiles[pos]   = GADDAGMoveGenerator.notPlaced;
+                this.lineLetters[pos] = this.charAt(pos);
+            }
+
+            for (this.anchorPos = 0; this.anchorPos < this.lineLength; this.anchorPos++)
+            {
+                if (!this.anchors[this.rowAt(this.anchorPos)][this.colAt(this.anchorPos)])
+                {
+                    continue;
+                }
+
+                ScrabbleUtil.checkInterrupted();
+                this.growLeft(this.anchorPos, this.gaddag.getRoot());
+            }
+        }
+    }
+
+    // perpendicular words run across the current direction
+    private
+    void initializeCrossCheckAt(int row, int col)
+    {
+        if (!this.gameState.isEmptyAt(row, col))
+        {
+            this.crossChecks[row][col] = 0;
+            this.perpScores[row][col]  = GADDAGMoveGenerator.noPerpWord;
+
+            return;
+        }
+
+        int moveRowBy = this.isVertical ? 0 : 1;
+        int moveColBy = this.isVertical ? 1 : 0;
+        int before    = 0;
+        int after     = 0;
+        int score     = 0;
+
+        while (this.isOccupied(row - moveRowBy * (before + 1), col - moveColBy * (before + 1)))
+        {
+            before++;
+            score += this.scoreOfExisting(row - moveRowBy * before, col - moveColBy * before);
+        }
+
+        while (this.isOccupied(row + moveRowBy * (after + 1), col + moveColBy * (after + 1)))
+        {
+            after++;
+            score += this.scoreOfExisting(row + moveRowBy * after, col + moveColBy * after);
+        }
+
+        if (before == 0 && after == 0)
+        {
+            this.crossChecks[row][col] = GADDAGMoveGenerator.allLetters;
+            this.perpScores[row][col]  = GADDAGMoveGenerator.noPerpWord;
+
+            return;
+        }
+
+        int crossCheck = 0;
+
+        for (char c : IScrabbleGameState.alphaChars)
+        {
+            int path = this.gaddag.getPath(this.gaddag.getRoot(), c);
+
+            for (int i = 1; i <= before && path != IWordGraph.noPath; i++)
+            {
+                path = this.gaddag.getPath(path,
+                    this.gameState.getCharAt(row - moveRowBy * i, col - moveColBy * i));
+            }
+
+            if (path != IWordGraph.noPath && after > 0)
+            {
+                path = this.gaddag.getPath(path, GADDAG.separator);
+            }
+
+            for (int i = 1; i <= after && path != IWordGraph.noPath; i++)
+            {
+                path = this.gaddag.getPath(path,
+                    this.gameState.getCharAt(row + moveRowBy * i, col + moveColBy * i));
+            }
+
+            if (path != IWordGraph.noPath && this.gaddag.isWordHere(path))
+            {
+                crossCheck |= 1 << ScrabbleUtil.charToInt(c);
+            }
+        }
+
+        this.crossChecks[row][col] = crossCheck;
+        this.perpScores[row][col]  = score;
+    }
+
+    private
+    int scoreOfExisting(int row, int col)
+    {
+        if (this.gameState.isWildcardAt(row, col))
+        {
+            return 0;
+        }
+
+        return this.letterScoreMap.getScore(this.gameState.getCharAt(row, col));
+    }
+
+    private
+    int rowAt(int pos)
+    {
+        return this.isVertical ? pos : this.line;
+    }
+
+    private
+    int colAt(int pos)
+    {
+        return this.isVertical ? this.line : pos;
+    }
+
+    private
+    char charAt(int pos)
+    {
+        return this.gameState.getCharAt(this.rowAt(pos), this.colAt(pos));
+    }
+
+    private
+    boolean isEmptyAt(int pos)
+    {
+        return this.gameState.isEmptyAt(this.rowAt(pos), this.colAt(pos));
+    }
+
+    // consume the square at pos while growing left from the anchor, path has not consumed it yet
+    private
+    void growLeft(int pos, int path)
+    {
+        if (!this.isEmptyAt(pos))
+        {
+            int next = this.gaddag.getPath(path, this.lineLetters[pos]);
+
+            if (next != IWordGraph.noPath)
+            {
+                this.afterGrowLeft(pos, next);
+            }
+
+            return;
+        }
+
+        this.forEachPlacement(pos, path, true, pos);
+    }
+
+    private
+    void afterGrowLeft(int pos, int path)
+    {
+        boolean beforeEmpty = pos == 0 || this.isEmptyAt(pos - 1);
+
+        if (beforeEmpty)
+        {
+            boolean afterAnchorEmpty = this.anchorPos + 1 == this.lineLength || this.isEmptyAt(this.anchorPos + 1);
+
+            if (afterAnchorEmpty && this.gaddag.isWordHere(path))
+            {
+                this.addMove(pos, this.anchorPos);
+            }
+
+            if (this.anchorPos + 1 < this.lineLength)
+            {
+                int separatorPath = this.gaddag.getPath(path, GADDAG.separator);
+
+                if (separatorPath != IWordGraph.noPath)
+                {
+                    this.growRight(this.anchorPos + 1, separatorPath, pos);
+                }
+            }
+        }
+
+        if (pos == 0)
+        {
+            return;
+        }
+
+        if (!beforeEmpty ||
+            (this.tilesLeft > 0 && !this.anchors[this.rowAt(pos - 1)][this.colAt(pos - 1)]))
+        {
+            this.growLeft(pos - 1, path);
+        }
+    }
+
+    // consume the square at pos while growing right from the anchor, the word starts at start
+    private
+    void growRight(int pos, int path, int start)
+    {
+        if (!this.isEmptyAt(pos))
+        {
+            int next = this.gaddag.getPath(path, this.lineLetters[pos]);
+
+            if (next != IWordGraph.noPath)
+            {
+                this.afterGrowRight(pos, next, start);
+            }
+
+            return;
+        }
+
+        if (this.tilesLeft > 0)
+        {
+            this.forEachPlacement(pos, path, false, start);
+        }
+    }
+
+    private
+    void afterGrowRight(int pos, int path, int start)
+    {
+        boolean afterEmpty = pos + 1 == this.lineLength || this.isEmptyAt(pos + 1);
+
+        if (afterEmpty && this.gaddag.isWordHere(path))
+        {
+            this.addMove(start, pos);
+        }
+
+        if (pos + 1 < this.lineLength)
+        {
+            this.growRight(pos + 1, path, start);
+        }
+    }
+
+    // try every rack tile that fits the square at pos, blanks as every letter they can stand for
+    private
+    void forEachPlacement(int pos, int path, boolean growingLeft, int start)
+    {
+        int placeable = this.crossChecks[this.rowAt(pos)][this.colAt(pos)] & this.gaddag.getPathMask(path);
+
+        for (int i = 0; placeable != 0; i++, placeable >>>= 1)
+        {
+            if ((placeable & 1) == 0)
+            {
+                continue;
+            }
+
+            char letter = ScrabbleUtil.intToChar(i);
+            int  next   = this.gaddag.getPath(path, letter);
+
+            if (this.rackCounts[i] > 0)
+            {
+                this.placeAndGrow(pos, next, growingLeft, start, i, letter);
+            }
+
+            if (this.rackCounts[GADDAGMoveGenerator.wildcardIndex] > 0)
+            {
+                this.placeAndGrow(pos, next, growingLeft, start, GADDAGMoveGenerator.wildcardIndex, letter);
+            }
+        }
+    }
+
+    private
+    void placeAndGrow(int pos, int path, boolean growingLeft, int start, int tileIndex, char letter)
+    {
+        this.rackCounts[tileIndex]--;
+        this.tilesLeft--;
+
+        this.lineTiles[pos]   = ScrabbleUtil.intToChar(tileIndex);
+        this.lineLetters[pos] = letter;
+
+        if (growingLeft)
+        {
+            this.afterGrowLeft(pos, path);
+        }
+        else
+        {
+            this.afterGrowRight(pos, path, start);
+        }
+
+        this.lineTiles[pos]   = GADDAGMoveGenerator.notPlaced;
+        this.lineLetters[pos] = IScrabbleGameState.emptyMarker;
+
+        this.tilesLeft++;
+        this.rackCounts[tileIndex]++;
+    }
+
+    private
+    void addMove(int start, int end)
+    {
+        int    numPlaced          = 0;
+        int    playScore          = 0;
+        int    mainWordScore      = 0;
+        int    mainWordMultiplier = 1;
+        char[] word               = new char[end - start + 1];
+
+        for (int pos = start; pos <= end; pos++)
+        {
+            word[pos - start] = this.lineLetters[pos];
+
+            if (this.lineTiles[pos] != GADDAGMoveGenerator.notPlaced)
+            {
+                numPlaced++;
+            }
+        }
+
+        char[] playedTiles     = new char[numPlaced];
+        int[]  tileSpotsInWord = new int[numPlaced];
+        int    placed          = 0;
+
+        for (int pos = start; pos <= end; pos++)
+        {
+            int  row  = this.rowAt(pos);
+            int  col  = this.colAt(pos);
+            char tile = this.lineTiles[pos];
+
+            if (tile == GADDAGMoveGenerator.notPlaced)
+            {
+                mainWordScore += this.scoreOfExisting(row, col);
+
+                continue;
+            }
+
+            int wordMultiplier = this.gameState.getWordMultiplierAt(row, col);
+            int perpScore      = this.perpScores[row][col];
+            int letterScore    = (tile == IScrabbleGameState.wildCardTile) ? 0 :
+                                 this.gameState.getLetterMultiplierAt(row, col) *
+                                 this.letterScoreMap.getScore(this.lineLetters[pos]);
+            mainWordScore += letterScore;
+            mainWordMultiplier *= wordMultiplier;
+
+            if (perpScore != GADDAGMoveGenerator.noPerpWord)
+            {
+                playScore += wordMultiplier * (perpScore + letterScore);
+            }
+
+            playedTiles[placed]     = tile;
+            tileSpotsInWord[placed] = pos - start;
+            placed++;
+        }
+
+        playScore += mainWordMultiplier * mainWordScore;
+
+        if (numPlaced > 1 && numPlaced == this.gameState.getRackSize()) // ScrabbleGame never awards single tiles
+        {
+            playScore += GADDAGMoveGenerator.bingoBonus;
+        }
+
+        this.moves.add(new ScrabbleGame.Move(new String(word), playedTiles, tileSpotsInWord, this.isVertical,
+            this.rowAt(start), this.colAt(start), playScore));
+    }
+
+}
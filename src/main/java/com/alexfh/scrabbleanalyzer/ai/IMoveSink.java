@@ -0,0 +1,23 @@
+package com.alexfh.scrabbleanalyzer.ai;
+
+/*
+Receives moves as they are generated. The arrays passed to add are reused by the generator, so a sink must copy
+whatever it keeps.
+ */
+public
+interface IMoveSink
+{
+
+    int acceptsAnyScore = Integer.MIN_VALUE;
+
+    void add(int row, int col, boolean isVertical, int score, char[] placedTiles, int[] tileSpotsInWord,
+             int numPlacedTiles, char[] word, int wordLength);
+
+    // lowest score a new move could have and still be kept, lets the generator skip branches that can't reach it
+    default
+    int getMinimumScore()
+    {
+        return IMoveSink.acceptsAnyScore;
+    }
+
+}
@@ -0,0 +1,179 @@
+package com.alexfh.scrabbleanalyzer.ai;
+
+import com.alexfh.scrabbleanalyzer.state.IScrabbleGameState;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/*
+Values of rack leaves, the tiles kept on the rack after a move, for ranking moves by equity: score plus the value of
+the leave. Every multiset of up to maxLeaveSize tiles, wildcards included, has a slot in one flat float array, at the
+index given by a perfect hash of the sorted leave:
+
+index = offset[k] + sum for i < k of C(t[i] + i, i + 1)
+
+where t[0] <= ... <= t[k - 1] are the k tiles of the leave by ScrabbleUtil.charToInt, wildcards being 26, and offset[k]
+is the number of leaves of fewer than k tiles. Adding i to the i-th tile turns the sorted multiset into strictly
+increasing numbers, and the sum is their rank in the combinatorial number system, so the leaves of k tiles get the
+distinct indices below C(26 + k, k). A lookup is at most six table reads whatever the size of the table.
+
+On disk a table is a header of magic, format version and entry count, all little-endian ints, followed by the
+little-endian float values in index order.
+ */
+public
+class LeaveTable
+{
+
+    public static final int maxLeaveSize = 6;
+    public static final int numTileTypes = IScrabbleGameState.alphaChars.length + 1;
+
+    private static final int       fileMagic     = 0x53414C56; // SALV
+    private static final int       fileVersion   = 1;
+    private static final int       headerInts    = 3;
+    private static final ByteOrder fileByteOrder = ByteOrder.LITTLE_ENDIAN;
+
+    // binomials[n][r] = C(n, r)
+    private static final int[][] binomials =
+        new int[LeaveTable.numTileTypes + LeaveTable.maxLeaveSize][LeaveTable.maxLeaveSize + 2];
+    // index of the first leave of each size
+    private static final int[]   offsets   = new int[LeaveTable.maxLeaveSize + 2];
+
+    static
+    {
+        for (int n = 0; n < LeaveTable.binomials.length; n++)
+        {
+            LeaveTable.binomials[n][0] = 1;
+
+            for (int r = 1; r < LeaveTable.binomials[n].length && n > 0; r++)
+            {
+                LeaveTable.binomials[n][r] = LeaveTable.binomials[n - 1][r - 1] + LeaveTable.binomials[n - 1][r];
+            }
+        }
+
+        for (int k = 1; k < LeaveTable.offsets.length; k++)
+        {
+            LeaveTable.offsets[k] = LeaveTable.offsets[k - 1] +
+                                    LeaveTable.binomials[LeaveTable.numTileTypes + k - 2][k - 1];
+        }
+    }
+
+    public static final int numLeaves = LeaveTable.offsets[LeaveTable.maxLeaveSize + 1];
+
+    // a table valuing every leave at 0, ranking moves by score
+    public static
+    LeaveTable zero()
+    {
+        return new LeaveTable(new float[LeaveTable.numLeaves]);
+    }
+
+    public static
+    LeaveTable fromFile(File leavesFile) throws IOException
+    {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(leavesFile.toPath())).order(LeaveTable.fileByteOrder);
+
+        if (data.remaining() < LeaveTable.headerInts * Integer.BYTES)
+        {
+            throw new IOException("Truncated leaves file: " + leavesFile);
+        }
+
+        int magic     = data.getInt();
+        int version   = data.getInt();
+        int numValues = data.getInt();
+
+        if (magic != LeaveTable.fileMagic)
+        {
+            throw new IOException("Not a leaves file: " + leavesFile);
+        }
+
+        if (version != LeaveTable.fileVersion)
+        {
+            throw new IOException("Unsupported leaves version: " + version + " in " + leavesFile);
+        }
+
+        if (numValues != LeaveTable.numLeaves || data.remaining() != numValues * Float.BYTES)
+        {
+            throw new IOException("Corrupt leaves file: " + leavesFile);
+        }
+
+        float[] values = new float[numValues];
+
+        data.asFloatBuffer().get(values);
+
+        return new LeaveTable(values);
+    }
+
+    // the index of a leave, given as its tiles by ScrabbleUtil.charToInt in ascending order
+    public static
+    int getIndex(int[] sortedTiles, int numTiles)
+    {
+        int index = LeaveTable.offsets[numTiles];
+
+        for (int i = 0; i < numTiles; i++)
+        {
+            index += LeaveTable.binomials[sortedTiles[i] + i][i + 1];
+        }
+
+        return index;
+    }
+
+    private final float[] values;
+
+    public
+    LeaveTable(float[] values)
+    {
+        if (values.length != LeaveTable.numLeaves)
+        {
+            throw new IllegalArgumentException("Expected " + LeaveTable.numLeaves + " leave values");
+        }
+
+        this.values = values;
+    }
+
+    public
+    float getValue(int index)
+    {
+        return this.values[index];
+    }
+
+    // leaves longer than maxLeaveSize, which only custom racks can keep, are valued at 0
+    public
+    float getLeaveValue(int[] sortedTiles, int numTiles)
+    {
+        return (numTiles > LeaveTable.maxLeaveSize) ? 0 : this.values[LeaveTable.getIndex(sortedTiles, numTiles)];
+    }
+
+    public
+    void writeToFile(File leavesFile) throws IOException
+    {
+        ByteBuffer data = ByteBuffer.allocate((LeaveTable.headerInts + this.values.length) * Integer.BYTES)
+            .order(LeaveTable.fileByteOrder);
+
+        data.putInt(LeaveTable.fileMagic);
+        data.putInt(LeaveTable.fileVersion);
+        data.putInt(this.values.length);
+        data.asFloatBuffer().put(this.values);
+        data.rewind();
+
+        File tempFile = new File(leavesFile.getPath() + ".tmp");
+
+        // write then move, so a starting JVM never reads a partially written file
+        try (FileChannel channel = FileChannel.open(tempFile.toPath(), StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))
+        {
+            while (data.hasRemaining())
+            {
+                channel.write(data);
+            }
+        }
+
+        Files.move(tempFile.toPath(), leavesFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.alexfh.scrabbleanalyzer.ai;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/*
+Collects the moves of each WordStart as ScrabbleGame.findMovesParallel finishes it, and passes them on in sorted batches
+while generation is still running, so that a caller can show the best moves found so far instead of waiting for all of
+them.
+
+The first batch is passed on once the interval has passed since the batcher was created, so positions that are
+generated within it never show partial results, and each later batch once the interval has passed since the previous
+one. A batch holds only the moves found since the previous batch. Moves still waiting when generation finishes are not
+passed on, the complete result replaces the batches anyway.
+
+Batches are sorted and passed on from the generating threads, outside of the lock that adding moves takes, so
+consecutive batches may be passed on concurrently and out of order. The consumer should hand them off rather than do
+any work.
+ */
+public
+class MoveBatcher
+{
+
+    private final long                 intervalNanos;
+    private final Consumer<MoveBuffer> onBatch;
+    private       MoveBuffer           pending;
+    private       long                 lastBatch;
+
+    public
+    MoveBatcher(long intervalMillis, Consumer<MoveBuffer> onBatch)
+    {
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        this.onBatch       = onBatch;
+        this.pending       = new MoveBuffer();
+        this.lastBatch     = System.nanoTime();
+    }
+
+    public
+    void add(MoveBuffer moves)
+    {
+        MoveBuffer batch;
+
+        synchronized (this)
+        {
+            this.pending.addAll(moves);
+
+            long now = System.nanoTime();
+
+            if (now - this.lastBatch < this.intervalNanos || this.pending.size() == 0)
+            {
+                return;
+            }
+
+            batch          = this.pending;
+            this.pending   = new MoveBuffer();
+            this.lastBatch = now;
+        }
+
+        // outside the lock, so the other workers only wait for each other to copy their moves in
+        batch.sort();
+        this.onBatch.accept(batch);
+    }
+
+}
@@ -0,0 +1,435 @@
+package com.alexfh.scrabbleanalyzer.ai;
+
+import com.alexfh.scrabbleanalyzer.ScrabbleGame;
+import com.alexfh.scrabbleanalyzer.util.ScrabbleUtil;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntBinaryOperator;
+
+/*
+Growable sink for generated moves, kept in two primitive arrays so that emitting a move allocates nothing once the
+buffer has grown to fit. Each move is one record of four ints:
+
+0  row | col << 8 | isVertical << 16
+1  score
+2  offset of the move's data in the char arena
+3  number of placed tiles | word length << 16
+
+At its arena offset a move stores its placed tiles, then the spot in the word of each placed tile, then the word.
+ScrabbleGame.Move objects are only created by getMove, for the moves a caller actually reads.
+
+After sortByEquity the buffer also keeps the equity of each move, until it is added to, cleared or sorted again.
+ */
+public
+class MoveBuffer implements IMoveSink
+{
+
+    private static final int recordInts      = 4;
+    private static final int defaultCapacity = 256;
+    private static final int colShift        = 8;
+    private static final int verticalBit     = 1 << 16;
+    private static final int positionMask    = 0xFF;
+    private static final int wordLengthShift = 16;
+    private static final int numTilesMask    = 0xFFFF;
+
+    private int[]   records;
+    private char[]  arena;
+    private float[] equities  = null;
+    private int     size      = 0;
+    private int     arenaSize = 0;
+
+    public
+    MoveBuffer()
+    {
+        this(MoveBuffer.defaultCapacity);
+    }
+
+    public
+    MoveBuffer(int capacity)
+    {
+        this.records = new int[Math.max(1, capacity) * MoveBuffer.recordInts];
+        this.arena   = new char[Math.max(1, capacity) * 16];
+    }
+
+    @Override
+    public
+    void add(int row, int col, boolean isVertical, int score, char[] placedTiles, int[] tileSpotsInWord,
+             int numPlacedTiles, char[] word, int wordLength)
+    {
+        int recordStart = this.size * MoveBuffer.recordInts;
+        int arenaStart  = this.arenaSize;
+
+        this.ensureCapacity(recordStart + MoveBuffer.recordInts, arenaStart + 2 * numPlacedTiles + wordLength);
+
+        this.records[recordStart]     = row | (col << MoveBuffer.colShift) | (isVertical ? MoveBuffer.verticalBit : 0);
+        this.records[recordStart + 1] = score;
+        this.records[recordStart + 2] = arenaStart;
+        this.records[recordStart + 3] = numPlacedTiles | (wordLength << MoveBuffer.wordLengthShift);
+
+        System.arraycopy(placedTiles, 0, this.arena, arenaStart, numPlacedTiles);
+
+        for (int i = 0; i < numPlacedTiles; i++)
+        {
+            this.arena[arenaStart + numPlacedTiles + i] = (char) tileSpotsInWord[i];
+        }
+
+        System.arraycopy(word, 0, this.arena, arenaStart + 2 * numPlacedTiles, wordLength);
+
+        this.size++;
+        this.arenaSize += 2 * numPlacedTiles + wordLength;
+        this.equities = null;
+    }
+
+    // appends every move of other, in order
+    public
+    void addAll(MoveBuffer other)
+    {
+        int recordStart = this.size * MoveBuffer.recordInts;
+        int numInts     = other.size * MoveBuffer.recordInts;
+
+        this.ensureCapacity(recordStart + numInts, this.arenaSize + other.arenaSize);
+        System.arraycopy(other.records, 0, this.records, recordStart, numInts);
+        System.arraycopy(other.arena, 0, this.arena, this.arenaSize, other.arenaSize);
+
+        for (int i = recordStart + 2; i < recordStart + numInts; i += MoveBuffer.recordInts)
+        {
+            this.records[i] += this.arenaSize;
+        }
+
+        this.size += other.size;
+        this.arenaSize += other.arenaSize;
+        this.equities = null;
+    }
+
+    // keeps the arrays so the buffer can be refilled without allocating
+    public
+    void clear()
+    {
+        this.size      = 0;
+        this.arenaSize = 0;
+        this.equities  = null;
+    }
+
+    // releases the spare capacity of a buffer that won't be added to again
+    public
+    void trimToSize()
+    {
+        this.records = Arrays.copyOf(this.records, Math.max(1, this.size) * MoveBuffer.recordInts);
+        this.arena   = Arrays.copyOf(this.arena, Math.max(1, this.arenaSize));
+    }
+
+    // approximate heap size of the backing arrays
+    public
+    long getSizeInBytes()
+    {
+        return 4L * this.records.length + 2L * this.arena.length +
+               ((this.equities == null) ? 0 : 4L * this.equities.length);
+    }
+
+    public
+    int size()
+    {
+        return this.size;
+    }
+
+    public
+    int getRow(int i)
+    {
+        return this.records[i * MoveBuffer.recordInts] & MoveBuffer.positionMask;
+    }
+
+    public
+    int getCol(int i)
+    {
+        return (this.records[i * MoveBuffer.recordInts] >>> MoveBuffer.colShift) & MoveBuffer.positionMask;
+    }
+
+    public
+    boolean isVertical(int i)
+    {
+        return (this.records[i * MoveBuffer.recordInts] & MoveBuffer.verticalBit) != 0;
+    }
+
+    public
+    int getScore(int i)
+    {
+        return this.records[i * MoveBuffer.recordInts + 1];
+    }
+
+    public
+    boolean hasEquities()
+    {
+        return this.equities != null;
+    }
+
+    // only valid after sortByEquity
+    public
+    float getEquity(int i)
+    {
+        return this.equities[i];
+    }
+
+    public
+    int getNumPlacedTiles(int i)
+    {
+        return this.records[i * MoveBuffer.recordInts + 3] & MoveBuffer.numTilesMask;
+    }
+
+    public
+    int getWordLength(int i)
+    {
+        return this.records[i * MoveBuffer.recordInts + 3] >>> MoveBuffer.wordLengthShift;
+    }
+
+    public
+    String getWord(int i)
+    {
+        return new String(this.arena, this.getWordStart(i), this.getWordLength(i));
+    }
+
+    public
+    ScrabbleGame.Move getMove(int i)
+    {
+        int    tilesStart      = this.records[i * MoveBuffer.recordInts + 2];
+        int    numPlacedTiles  = this.getNumPlacedTiles(i);
+        char[] placedTiles     = Arrays.copyOfRange(this.arena, tilesStart, tilesStart + numPlacedTiles);
+        int[]  tileSpotsInWord = new int[numPlacedTiles];
+
+        for (int t = 0; t < numPlacedTiles; t++)
+        {
+            tileSpotsInWord[t] = this.arena[tilesStart + numPlacedTiles + t];
+        }
+
+        return new ScrabbleGame.Move(this.getWord(i), placedTiles, tileSpotsInWord, this.isVertical(i),
+            this.getRow(i), this.getCol(i), this.getScore(i));
+    }
+
+    // read-only view creating each Move on access
+    public
+    List<ScrabbleGame.Move> asList()
+    {
+        return new AbstractList<>()
+        {
+            @Override
+            public
+            ScrabbleGame.Move get(int index)
+            {
+                return MoveBuffer.this.getMove(index);
+            }
+
+            @Override
+            public
+            int size()
+            {
+                return MoveBuffer.this.size;
+            }
+        };
+    }
+
+    public
+    List<ScrabbleGame.Move> toList()
+    {
+        return new ArrayList<>(this.asList());
+    }
+
+    // stable sort into the same order as ScrabbleGame.Move's natural ordering, moving only the records
+    public
+    void sort()
+    {
+        int[] order = new int[this.size];
+        int[] temp  = new int[this.size];
+
+        Arrays.setAll(order, i -> i);
+        this.mergeSort(order, temp, 0, this.size, this::compare);
+        this.reorder(order);
+
+        this.equities = null;
+    }
+
+    // stable sort by equity, the score plus the value of the leave each move keeps from rackTiles, best first with
+    // ties in the order of sort
+    public
+    void sortByEquity(LeaveTable leaves, List<Character> rackTiles)
+    {
+        int[]     rack     = rackTiles.stream().mapToInt(ScrabbleUtil::charToInt).sorted().toArray();
+        int[]     leave    = new int[rack.length];
+        boolean[] isPlayed = new boolean[rack.length];
+        float[]   equities = new float[this.size];
+
+        for (int i = 0; i < this.size; i++)
+        {
+            int tilesStart = this.records[i * MoveBuffer.recordInts + 2];
+            int leaveSize  = 0;
+
+            Arrays.fill(isPlayed, false);
+
+            for (int t = 0; t < this.getNumPlacedTiles(i); t++)
+            {
+                int tile = ScrabbleUtil.charToInt(this.arena[tilesStart + t]);
+
+                for (int j = 0; j < rack.length; j++)
+                {
+                    if (!isPlayed[j] && rack[j] == tile)
+                    {
+                        isPlayed[j] = true;
+
+                        break;
+                    }
+                }
+            }
+
+            for (int j = 0; j < rack.length; j++)
+            {
+                if (!isPlayed[j])
+                {
+                    leave[leaveSize++] = rack[j];
+                }
+            }
+
+            equities[i] = this.getScore(i) + leaves.getLeaveValue(leave, leaveSize);
+        }
+
+        int[] order = new int[this.size];
+        int[] temp  = new int[this.size];
+
+        Arrays.setAll(order, i -> i);
+        this.mergeSort(order, temp, 0, this.size, (a, b) ->
+        {
+            int result = Float.compare(equities[b], equities[a]);
+
+            return (result != 0) ? result : this.compare(a, b);
+        });
+        this.reorder(order);
+
+        this.equities = new float[this.size];
+
+        for (int i = 0; i < this.size; i++)
+        {
+            this.equities[i] = equities[order[i]];
+        }
+    }
+
+    // adds the moves of another sorted buffer to this sorted one in linear time, keeping it sorted
+    public
+    void addAllSorted(MoveBuffer sorted)
+    {
+        int mid = this.size;
+
+        this.addAll(sorted);
+
+        int[] order = new int[this.size];
+        int[] temp  = new int[this.size];
+
+        Arrays.setAll(order, i -> i);
+        this.merge(order, temp, 0, mid, this.size, this::compare);
+        this.reorder(order);
+    }
+
+    private
+    void reorder(int[] order)
+    {
+        int[] sorted = new int[this.records.length];
+
+        for (int i = 0; i < this.size; i++)
+        {
+            System.arraycopy(this.records, order[i] * MoveBuffer.recordInts, sorted, i * MoveBuffer.recordInts,
+                MoveBuffer.recordInts);
+        }
+
+        this.records = sorted;
+    }
+
+    private
+    void mergeSort(int[] order, int[] temp, int from, int to, IntBinaryOperator comparator)
+    {
+        if (to - from < 2)
+        {
+            return;
+        }
+
+        int mid = (from + to) >>> 1;
+
+        this.mergeSort(order, temp, from, mid, comparator);
+        this.mergeSort(order, temp, mid, to, comparator);
+        this.merge(order, temp, from, mid, to, comparator);
+    }
+
+    // merges the sorted runs [from, mid) and [mid, to) of order
+    private
+    void merge(int[] order, int[] temp, int from, int mid, int to, IntBinaryOperator comparator)
+    {
+        if (from == mid || mid == to || comparator.applyAsInt(order[mid - 1], order[mid]) <= 0)
+        {
+            return;
+        }
+
+        System.arraycopy(order, from, temp, from, to - from);
+
+        for (int i = from, l = from, r = mid; i < to; i++)
+        {
+            if (r == to || (l < mid && comparator.applyAsInt(temp[l], temp[r]) <= 0))
+            {
+                order[i] = temp[l++];
+            }
+            else
+            {
+                order[i] = temp[r++];
+            }
+        }
+    }
+
+    // matches ScrabbleGame.Move.compareTo
+    private
+    int compare(int a, int b)
+    {
+        int result = Integer.compare(this.getScore(b), this.getScore(a));
+
+        if (result != 0)
+        {
+            return result;
+        }
+
+        result = Integer.compare(this.getNumPlacedTiles(a), this.getNumPlacedTiles(b));
+
+        if (result != 0)
+        {
+            return result;
+        }
+
+        result = Arrays.compare(this.arena, this.getWordStart(a), this.getWordStart(a) + this.getWordLength(a),
+            this.arena, this.getWordStart(b), this.getWordStart(b) + this.getWordLength(b));
+
+        if (result != 0)
+        {
+            return result;
+        }
+
+        result = Integer.compare(this.getRow(a), this.getRow(b));
+
+        return (result != 0) ? result : Integer.compare(this.getCol(a), this.getCol(b));
+    }
+
+    private
+    int getWordStart(int i)
+    {
+        return this.records[i * MoveBuffer.recordInts + 2] + 2 * this.getNumPlacedTiles(i);
+    }
+
+    private
+    void ensureCapacity(int numRecordInts, int numArenaChars)
+    {
+        if (numRecordInts > this.records.length)
+        {
+            this.records = Arrays.copyOf(this.records, Math.max(numRecordInts, this.records.length * 2));
+        }
+
+        if (numArenaChars > this.arena.length)
+        {
+            this.arena = Arrays.copyOf(this.arena, Math.max(numArenaChars, this.arena.length * 2));
+        }
+    }
+
+}
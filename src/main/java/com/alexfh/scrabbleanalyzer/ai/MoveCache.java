@@ -0,0 +1,110 @@
+package com.alexfh.scrabbleanalyzer.ai;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+Bounded cache of sorted move lists, keyed by the ZobristHash of the position they were generated for. Undo, redo and
+previews keep returning to positions that were analyzed moments ago, which can then skip move generation entirely.
+
+The cache is bounded by the total size of the cached buffers rather than their number, since a position with two
+wildcards can have a hundred times the moves of another, and evicts the least recently used buffers first. A buffer
+larger than the whole budget is not cached at all.
+
+Cached buffers are shared with every caller that gets them, so they must not be modified once put.
+ */
+public
+class MoveCache
+{
+
+    private final long                            maxBytes;
+    private final LinkedHashMap<Long, MoveBuffer> entries = new LinkedHashMap<>(16, 0.75F, true);
+    private       long                            bytes   = 0;
+    private       long                            hits    = 0;
+    private       long                            misses  = 0;
+
+    public
+    MoveCache(long maxBytes)
+    {
+        this.maxBytes = maxBytes;
+    }
+
+    public synchronized
+    MoveBuffer get(long positionHash)
+    {
+        MoveBuffer moves = this.entries.get(positionHash);
+
+        if (moves != null)
+        {
+            this.hits++;
+        }
+        else
+        {
+            this.misses++;
+        }
+
+        return moves;
+    }
+
+    public synchronized
+    void put(long positionHash, MoveBuffer moves)
+    {
+        long size = moves.getSizeInBytes();
+
+        if (size > this.maxBytes)
+        {
+            return;
+        }
+
+        MoveBuffer previous = this.entries.put(positionHash, moves);
+
+        if (previous != null)
+        {
+            this.bytes -= previous.getSizeInBytes();
+        }
+
+        this.bytes += size;
+
+        Iterator<Map.Entry<Long, MoveBuffer>> leastRecentlyUsed = this.entries.entrySet().iterator();
+
+        while (this.bytes > this.maxBytes)
+        {
+            this.bytes -= leastRecentlyUsed.next().getValue().getSizeInBytes();
+            leastRecentlyUsed.remove();
+        }
+    }
+
+    public synchronized
+    void clear()
+    {
+        this.entries.clear();
+
+        this.bytes = 0;
+    }
+
+    public synchronized
+    int size()
+    {
+        return this.entries.size();
+    }
+
+    public synchronized
+    long getSizeInBytes()
+    {
+        return this.bytes;
+    }
+
+    public synchronized
+    long getHits()
+    {
+        return this.hits;
+    }
+
+    public synchronized
+    long getMisses()
+    {
+        return this.misses;
+    }
+
+}
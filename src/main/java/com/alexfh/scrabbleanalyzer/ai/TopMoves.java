@@ -0,0 +1,78 @@
+package com.alexfh.scrabbleanalyzer.ai;
+
+import com.alexfh.scrabbleanalyzer.ScrabbleGame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/*
+Keeps the best k moves by ScrabbleGame.Move's natural ordering in a heap with the worst kept move on top. Moves that
+can't beat it are rejected before a Move is created for them.
+ */
+public
+class TopMoves implements IMoveSink
+{
+
+    private final int                              k;
+    private final PriorityQueue<ScrabbleGame.Move> heap;
+
+    public
+    TopMoves(int k)
+    {
+        if (k < 1)
+        {
+            throw new IllegalArgumentException("k must be positive: " + k);
+        }
+
+        this.k    = k;
+        this.heap = new PriorityQueue<>(k, Comparator.reverseOrder());
+    }
+
+    @Override
+    public
+    void add(int row, int col, boolean isVertical, int score, char[] placedTiles, int[] tileSpotsInWord,
+             int numPlacedTiles, char[] word, int wordLength)
+    {
+        if (score < this.getMinimumScore())
+        {
+            return;
+        }
+
+        ScrabbleGame.Move move = new ScrabbleGame.Move(new String(word, 0, wordLength),
+            Arrays.copyOf(placedTiles, numPlacedTiles), Arrays.copyOf(tileSpotsInWord, numPlacedTiles), isVertical,
+            row, col, score);
+
+        if (this.heap.size() < this.k)
+        {
+            this.heap.add(move);
+        }
+        else if (move.compareTo(this.heap.peek()) < 0)
+        {
+            this.heap.poll();
+            this.heap.add(move);
+        }
+    }
+
+    @Override
+    public
+    int getMinimumScore()
+    {
+        return (this.heap.size() < this.k) ? IMoveSink.acceptsAnyScore : this.heap.peek().score();
+    }
+
+    // best first
+    public
+    List<ScrabbleGame.Move> toSortedList()
+    {
+        List<ScrabbleGame.Move> moves = new ArrayList<>(this.heap);
+
+        Collections.sort(moves);
+
+        return moves;
+    }
+
+}
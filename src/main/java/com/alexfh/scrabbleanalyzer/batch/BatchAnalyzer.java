@@ -0,0 +1,263 @@
+package com.alexfh.scrabbleanalyzer.batch;
+
+import com.alexfh.scrabbleanalyzer.Main;
+import com.alexfh.scrabbleanalyzer.ScrabbleGame;
+import com.alexfh.scrabbleanalyzer.dictionary.IWordGraph;
+import com.alexfh.scrabbleanalyzer.rule.ILetterScoreMap;
+import com.alexfh.scrabbleanalyzer.rule.impl.LetterScoreMapImpl;
+import com.alexfh.scrabbleanalyzer.state.IScrabbleGameState;
+import com.alexfh.scrabbleanalyzer.util.CommandLineOptions;
+import com.alexfh.scrabbleanalyzer.util.MoveJson;
+import com.alexfh.scrabbleanalyzer.util.ScrabbleUtil;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/*
+Headless analysis of saved positions, run with "batch" as the first program argument:
+
+batch <input> [--top <n>] [--threads <n>] [--multipliers <file>] [--output <file>]
+
+Positions are streamed from the input by PositionReader and analyzed on a fixed pool of worker threads, which all share
+the one loaded dictionary. Only a couple of positions per worker are in flight at a time, so archives of any size run
+in bounded memory. Each position produces one line of JSON, in input order, holding either its best moves and the time
+spent generating them, or the reason it could not be analyzed:
+
+{"position":"archive.sa#0","nanos":1520301,"moves":[{"word":"jagra","score":38,...}]}
+{"position":"games/bad","error":"Non-rectangular board"}
+ */
+public
+class BatchAnalyzer
+{
+
+    private static final String usage            =
+        "Usage: batch <input> [--top <n>] [--threads <n>] [--multipliers <file>] [--output <file>]";
+    private static final int    defaultTopMoves  = 10;
+    private static final int    pendingPerWorker = 2;
+
+    public
+    record Summary(int numPositions, int numFailed)
+    {
+
+    }
+
+    private
+    record Result(String line, boolean failed)
+    {
+
+    }
+
+    public static
+    void main(String[] args) throws IOException, InterruptedException
+    {
+        Path input;
+        int  topMoves;
+        int  threads;
+        File multipliersFile;
+        File outputFile;
+
+        try
+        {
+            CommandLineOptions options = CommandLineOptions.parse(args, 1, "--top", "--threads", "--multipliers",
+                "--output");
+
+            input           = Path.of(options.getArgument(0, "input"));
+            topMoves        = options.getInt("--top", BatchAnalyzer.defaultTopMoves, 1, Integer.MAX_VALUE);
+            threads         = options.getInt("--threads", Runtime.getRuntime().availableProcessors(), 1,
+                Integer.MAX_VALUE);
+            multipliersFile = options.getFile("--multipliers", null);
+            outputFile      = options.getFile("--output", null);
+        }
+        catch (IllegalArgumentException e)
+        {
+            System.err.println(e.getMessage());
+            System.err.println(BatchAnalyzer.usage);
+
+            return;
+        }
+
+        // stdout may be carrying the results
+        ScrabbleUtil.setPrintTimings(false);
+
+        BatchAnalyzer analyzer = new BatchAnalyzer(LetterScoreMapImpl.defaultScoreMap, Main.loadDictionary(), topMoves,
+            threads, multipliersFile);
+        long          start    = System.nanoTime();
+        Summary       summary;
+
+        try (
+            OutputStream outputStream = (outputFile != null) ? new FileOutputStream(outputFile) : System.out;
+            Writer output = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8))
+        )
+        {
+            summary = analyzer.analyze(input, output);
+        }
+
+        System.err.println(
+            "Analyzed " + summary.numPositions() + " positions (" + summary.numFailed() + " failed) in " +
+            1.0D * (System.nanoTime() - start) / 1000000000 + "s");
+
+        if (summary.numFailed() > 0)
+        {
+            System.exit(1);
+        }
+    }
+
+    private final ILetterScoreMap scoreMap;
+    private final IWordGraph      dictionary;
+    private final int             topMoves;
+    private final int             threads;
+    private final PositionReader  positionReader;
+
+    public
+    BatchAnalyzer(ILetterScoreMap scoreMap, IWordGraph dictionary, int topMoves, int threads, File multipliersFile)
+    {
+        this.scoreMap       = scoreMap;
+        this.dictionary     = dictionary;
+        this.topMoves       = topMoves;
+        this.threads        = threads;
+        this.positionReader = new PositionReader(multipliersFile);
+    }
+
+    public
+    Summary analyze(Path input, Writer output) throws IOException, InterruptedException
+    {
+        ExecutorService       workers    = Executors.newFixedThreadPool(this.threads);
+        Deque<Future<Result>> pending    = new ArrayDeque<>();
+        int[]                 counts     = new int[2]; // positions, failed
+        int                   maxPending = this.threads * BatchAnalyzer.pendingPerWorker;
+
+        try
+        {
+            this.positionReader.read(input, new PositionReader.PositionConsumer()
+            {
+                @Override
+                public
+                void accept(String name, IScrabbleGameState gameState) throws InterruptedException
+                {
+                    this.enqueue(workers.submit(() -> BatchAnalyzer.this.analyzePosition(name, gameState)));
+                }
+
+                @Override
+                public
+                void reject(String name, Exception exception) throws InterruptedException
+                {
+                    this.enqueue(CompletableFuture.completedFuture(BatchAnalyzer.failure(name, exception)));
+                }
+
+                private
+                void enqueue(Future<Result> result) throws InterruptedException
+                {
+                    pending.addLast(result);
+
+                    // blocks the reader on the oldest position until there is room for the next one
+                    if (pending.size() >= maxPending)
+                    {
+                        BatchAnalyzer.write(pending.removeFirst(), output, counts);
+                    }
+                }
+            });
+
+            while (!pending.isEmpty())
+            {
+                BatchAnalyzer.write(pending.removeFirst(), output, counts);
+            }
+        }
+        catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+        finally
+        {
+            workers.shutdownNow();
+        }
+
+        return new Summary(counts[0], counts[1]);
+    }
+
+    private
+    Result analyzePosition(String name, IScrabbleGameState gameState) throws InterruptedException
+    {
+        try
+        {
+            long                    start = System.nanoTime();
+            List<ScrabbleGame.Move> moves = new ScrabbleGame(this.scoreMap, this.dictionary, gameState).findTopMoves(
+                this.topMoves);
+            long                    nanos = System.nanoTime() - start;
+            StringBuilder           line  = new StringBuilder();
+
+            line.append("{\"position\":");
+            MoveJson.appendString(line, name);
+            line.append(",\"nanos\":").append(nanos).append(",\"moves\":");
+            MoveJson.appendMoves(line, moves);
+
+            return new Result(line.append('}').toString(), false);
+        }
+        catch (RuntimeException e)
+        {
+            return BatchAnalyzer.failure(name, e);
+        }
+    }
+
+    private static
+    Result failure(String name, Exception exception)
+    {
+        StringBuilder line = new StringBuilder();
+
+        line.append("{\"position\":");
+        MoveJson.appendString(line, name);
+        line.append(",\"error\":");
+        MoveJson.appendString(line, String.valueOf(exception.getMessage()));
+
+        return new Result(line.append('}').toString(), true);
+    }
+
+    private static
+    void write(Future<Result> pendingResult, Writer output, int[] counts) throws InterruptedException
+    {
+        Result result;
+
+        try
+        {
+            result = pendingResult.get();
+        }
+        catch (ExecutionException e)
+        {
+            throw new IllegalStateException(e.getCause());
+        }
+
+        try
+        {
+            output.write(result.line());
+            output.write('\n');
+            output.flush();
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+
+        counts[0]++;
+
+        if (result.failed())
+        {
+            counts[1]++;
+        }
+    }
+
+}
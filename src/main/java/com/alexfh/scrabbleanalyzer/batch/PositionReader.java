@@ -0,0 +1,172 @@
+package com.alexfh.scrabbleanalyzer.batch;
+
+import com.alexfh.scrabbleanalyzer.state.IScrabbleGameState;
+import com.alexfh.scrabbleanalyzer.state.impl.ScrabbleGameStateImpl;
+import com.alexfh.scrabbleanalyzer.state.impl.stream.SAInputStream;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+/*
+Streams the positions of a batch input to a consumer one at a time, so that only the positions being analyzed are held
+in memory. The input is either:
+
+- a file of one or more concatenated game states as written by SAOutputStream, named <file>#<index>
+- a directory, walked in path order, in which every .sa file is read as above, and every directory containing a
+  board.txt and currentletters.txt is read as a text position as in ScrabbleGameStateImpl.fromFiles, named after the
+  directory. Text positions use the given multipliers file, or else the nearest multipliers.txt in or above their
+  directory, up to the input directory.
+
+A position that cannot be read is passed to reject, and the rest of the input is still read. A truncated game file
+ends at its first unreadable state.
+ */
+public
+class PositionReader
+{
+
+    public static final String gameFileExtension   = ".sa";
+    public static final String boardFileName       = "board.txt";
+    public static final String rackFileName        = "currentletters.txt";
+    public static final String multipliersFileName = "multipliers.txt";
+
+    public
+    interface PositionConsumer
+    {
+
+        void accept(String name, IScrabbleGameState gameState) throws InterruptedException;
+
+        void reject(String name, Exception exception) throws InterruptedException;
+
+    }
+
+    private final File multipliersFile;
+
+    // multipliersFile may be null to look for a multipliers.txt beside each text position
+    public
+    PositionReader(File multipliersFile)
+    {
+        this.multipliersFile = multipliersFile;
+    }
+
+    public
+    void read(Path input, PositionConsumer consumer) throws IOException, InterruptedException
+    {
+        if (Files.isDirectory(input))
+        {
+            this.readDirectory(input, consumer);
+        }
+        else
+        {
+            this.readGameFile(input, consumer);
+        }
+    }
+
+    private
+    void readDirectory(Path root, PositionConsumer consumer) throws IOException, InterruptedException
+    {
+        List<Path> paths;
+
+        try (Stream<Path> walk = Files.walk(root))
+        {
+            paths = walk.sorted().toList();
+        }
+
+        for (Path path : paths)
+        {
+            if (Files.isDirectory(path))
+            {
+                if (Files.isRegularFile(path.resolve(PositionReader.boardFileName)))
+                {
+                    this.readTextPosition(root, path, consumer);
+                }
+            }
+            else if (path.getFileName().toString().endsWith(PositionReader.gameFileExtension))
+            {
+                this.readGameFile(path, consumer);
+            }
+        }
+    }
+
+    private
+    void readGameFile(Path path, PositionConsumer consumer) throws IOException, InterruptedException
+    {
+        try (
+            BufferedInputStream bufferedIn = new BufferedInputStream(new FileInputStream(path.toFile()));
+            SAInputStream saInputStream = new SAInputStream(bufferedIn)
+        )
+        {
+            for (int i = 0; ; i++)
+            {
+                bufferedIn.mark(1);
+
+                if (bufferedIn.read() == -1)
+                {
+                    return;
+                }
+
+                bufferedIn.reset();
+
+                IScrabbleGameState gameState;
+
+                try
+                {
+                    gameState = saInputStream.readGameState();
+                }
+                catch (IOException | RuntimeException e)
+                {
+                    consumer.reject(path + "#" + i, e);
+
+                    return;
+                }
+
+                consumer.accept(path + "#" + i, gameState);
+            }
+        }
+    }
+
+    private
+    void readTextPosition(Path root, Path directory, PositionConsumer consumer) throws InterruptedException
+    {
+        IScrabbleGameState gameState;
+
+        try
+        {
+            File multipliersFile = (this.multipliersFile != null) ? this.multipliersFile : this.findMultipliersFile(
+                root, directory);
+
+            gameState = ScrabbleGameStateImpl.fromFiles(directory.resolve(PositionReader.boardFileName).toFile(),
+                multipliersFile, directory.resolve(PositionReader.rackFileName).toFile());
+        }
+        catch (IOException | RuntimeException e)
+        {
+            consumer.reject(directory.toString(), e);
+
+            return;
+        }
+
+        consumer.accept(directory.toString(), gameState);
+    }
+
+    private
+    File findMultipliersFile(Path root, Path directory) throws IOException
+    {
+        for (Path current = directory; current != null && current.startsWith(root); current = current.getParent())
+        {
+            Path multipliersPath = current.resolve(PositionReader.multipliersFileName);
+
+            if (Files.isRegularFile(multipliersPath))
+            {
+                return multipliersPath.toFile();
+            }
+        }
+
+        throw new IOException("No " + PositionReader.multipliersFileName + " found for " + directory);
+    }
+
+}
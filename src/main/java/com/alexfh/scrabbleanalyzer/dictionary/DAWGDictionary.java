@@ -0,0 +1,415 @@
+package com.alexfh.scrabbleanalyzer.dictionary;
+
+import com.alexfh.scrabbleanalyzer.util.ScrabbleUtil;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/*
+Immutable, minimized word graph. Unlike WordGraphDictionary, which is a plain trie, nodes that accept the same set of
+suffixes are shared, so the graph is a real DAWG. It is built incrementally from lexicographically sorted words using
+Daciuk's algorithm, meaning the full trie never has to exist in memory.
+
+Since a node can be reached through many prefixes, nodes do not know what word they represent. Callers traversing the
+graph are expected to track the letters they followed.
+ */
+public
+class DAWGDictionary implements IWordGraph
+{
+
+    public static
+    DAWGDictionary fromInputStream(InputStream inputStream)
+    {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)))
+        {
+            return DAWGDictionary.fromReader(reader);
+        }
+        catch (IOException e)
+        {
+            e.printStackTrace();
+        }
+
+        return new Builder().build();
+    }
+
+    public static
+    DAWGDictionary fromFile(File dictionaryFile) throws IOException
+    {
+        try (BufferedReader reader = new BufferedReader(new FileReader(dictionaryFile, StandardCharsets.UTF_8)))
+        {
+            return DAWGDictionary.fromReader(reader);
+        }
+    }
+
+    public static
+    DAWGDictionary fromWordGraph(WordGraphDictionary wordGraph)
+    {
+        List<String> words = new ArrayList<>();
+
+        wordGraph.forEach(words::add);
+
+        return DAWGDictionary.fromWords(words);
+    }
+
+    public static
+    DAWGDictionary fromWords(Collection<String> words)
+    {
+        Builder builder = new Builder();
+
+        new TreeSet<>(words).forEach(builder::addWord);
+
+        return builder.build();
+    }
+
+    private static
+    DAWGDictionary fromReader(BufferedReader reader) throws IOException
+    {
+        List<String> words = new ArrayList<>();
+        String       line;
+
+        while ((line = reader.readLine()) != null)
+        {
+            words.add(line.toLowerCase());
+        }
+
+        return DAWGDictionary.fromWords(words);
+    }
+
+    public static
+    class DAWGNode
+    {
+
+        private static final char[]     noPathChars = new char[0];
+        private static final DAWGNode[] noPathNodes = new DAWGNode[0];
+
+        private int        id;
+        private boolean    wordHere;
+        private char[]     pathChars = DAWGNode.noPathChars; // sorted, parallel to pathNodes
+        private DAWGNode[] pathNodes = DAWGNode.noPathNodes;
+
+        private
+        DAWGNode()
+        {
+        }
+
+        public
+        boolean isWordHere()
+        {
+            return this.wordHere;
+        }
+
+        public
+        DAWGNode getPath(char c)
+        {
+            for (int i = 0; i < this.pathChars.length; i++)
+            {
+                char pathChar = this.pathChars[i];
+
+                if (pathChar == c)
+                {
+                    return this.pathNodes[i];
+                }
+
+                if (pathChar > c)
+                {
+                    return null;
+                }
+            }
+
+            return null;
+        }
+
+        public
+        List<Character> getPaths()
+        {
+            return new AbstractList<>()
+            {
+                @Override
+                public
+                Character get(int index)
+                {
+                    return DAWGNode.this.pathChars[index];
+                }
+
+                @Override
+                public
+                int size()
+                {
+                    return DAWGNode.this.pathChars.length;
+                }
+            };
+        }
+
+        public
+        int getNumPaths()
+        {
+            return this.pathChars.length;
+        }
+
+        public
+        char getPathCharAt(int i)
+        {
+            return this.pathChars[i];
+        }
+
+        public
+        DAWGNode getPathNodeAt(int i)
+        {
+            return this.pathNodes[i];
+        }
+
+        private
+        void appendPath(char c, DAWGNode node)
+        {
+            int numPaths = this.pathChars.length;
+            this.pathChars           = Arrays.copyOf(this.pathChars, numPaths + 1);
+            this.pathNodes           = Arrays.copyOf(this.pathNodes, numPaths + 1);
+            this.pathChars[numPaths] = c;
+            this.pathNodes[numPaths] = node;
+        }
+
+        private
+        void replaceLastPathNode(DAWGNode node)
+        {
+            this.pathNodes[this.pathNodes.length - 1] = node;
+        }
+
+    }
+
+    // equivalent nodes accept the same suffixes, children are compared by identity since they are already minimized
+    private
+    record NodeSignature(boolean wordHere, char[] pathChars, DAWGNode[] pathNodes)
+    {
+
+        private
+        NodeSignature(DAWGNode node)
+        {
+            this(node.wordHere, node.pathChars, node.pathNodes);
+        }
+
+        @Override
+        public
+        boolean equals(Object o)
+        {
+            return o instanceof NodeSignature other && this.wordHere == other.wordHere &&
+                   Arrays.equals(this.pathChars, other.pathChars) && Arrays.equals(this.pathNodes, other.pathNodes);
+        }
+
+        @Override
+        public
+        int hashCode()
+        {
+            return 31 * (31 * Boolean.hashCode(this.wordHere) + Arrays.hashCode(this.pathChars)) +
+                   Arrays.hashCode(this.pathNodes);
+        }
+
+    }
+
+    private
+    record UncheckedPath(DAWGNode parent, DAWGNode node)
+    {
+
+    }
+
+    public static
+    class Builder
+    {
+
+        private final DAWGNode                     root           = new DAWGNode();
+        private final Map<NodeSignature, DAWGNode> register       = new HashMap<>();
+        private final Deque<UncheckedPath>         uncheckedPaths = new ArrayDeque<>();
+        private       String                       previousWord   = "";
+        private       int                          numWords       = 0;
+        private       boolean                      built          = false;
+
+        public
+        void addWord(String word)
+        {
+            if (this.built)
+            {
+                throw new IllegalStateException("Dictionary was already built");
+            }
+
+            int comparison = word.compareTo(this.previousWord);
+
+            if (comparison == 0 && this.numWords > 0)
+            {
+                return;
+            }
+
+            if (comparison < 0)
+            {
+                throw new IllegalStateException("Words must be added in sorted order: " + word);
+            }
+
+            int commonPrefix = 0;
+
+            while (commonPrefix < word.length() && commonPrefix < this.previousWord.length() &&
+                   word.charAt(commonPrefix) == this.previousWord.charAt(commonPrefix))
+            {
+                commonPrefix++;
+            }
+
+            this.minimize(commonPrefix);
+
+            DAWGNode current = this.uncheckedPaths.isEmpty() ? this.root : this.uncheckedPaths.peekLast().node();
+
+            for (int i = commonPrefix; i < word.length(); i++)
+            {
+                DAWGNode next = new DAWGNode();
+
+                current.appendPath(word.charAt(i), next);
+                this.uncheckedPaths.addLast(new UncheckedPath(current, next));
+
+                current = next;
+            }
+
+            current.wordHere  = true;
+            this.previousWord = word;
+            this.numWords++;
+        }
+
+        public
+        DAWGDictionary build()
+        {
+            if (!this.built)
+            {
+                this.minimize(0);
+
+                this.built = true;
+            }
+
+            return new DAWGDictionary(this.numWords == 0 ? null : this.root, this.numWords);
+        }
+
+        // replace or register every node that can no longer be modified by words that are yet to be added
+        private
+        void minimize(int downTo)
+        {
+            while (this.uncheckedPaths.size() > downTo)
+            {
+                UncheckedPath uncheckedPath = this.uncheckedPaths.removeLast();
+                NodeSignature signature     = new NodeSignature(uncheckedPath.node());
+                DAWGNode      equivalent    = this.register.get(signature);
+
+                if (equivalent != null)
+                {
+                    uncheckedPath.parent().replaceLastPathNode(equivalent);
+                }
+                else
+                {
+                    this.register.put(signature, uncheckedPath.node());
+                }
+            }
+        }
+
+    }
+
+    private final DAWGNode   root;
+    private final DAWGNode[] nodesById;
+    private final int        edgeCount;
+    private final int        wordCount;
+
+    private
+    DAWGDictionary(DAWGNode root, int wordCount)
+    {
+        List<DAWGNode> nodes = new ArrayList<>();
+        int            edges = 0;
+
+        if (root != null)
+        {
+            Map<DAWGNode, Boolean> visited = new IdentityHashMap<>();
+            Deque<DAWGNode>        toVisit = new ArrayDeque<>();
+
+            visited.put(root, true);
+            toVisit.add(root);
+
+            while (!toVisit.isEmpty())
+            {
+                DAWGNode node = toVisit.removeFirst();
+                node.id = nodes.size();
+
+                nodes.add(node);
+
+                edges += node.getNumPaths();
+
+                for (DAWGNode pathNode : node.pathNodes)
+                {
+                    if (visited.put(pathNode, true) == null)
+                    {
+                        toVisit.addLast(pathNode);
+                    }
+                }
+            }
+        }
+
+        this.root      = root;
+        this.nodesById = nodes.toArray(DAWGNode[]::new);
+        this.edgeCount = edges;
+        this.wordCount = wordCount;
+    }
+
+    public
+    DAWGNode getRootNode()
+    {
+        return this.root;
+    }
+
+    public
+    int getNodeCount()
+    {
+        return this.nodesById.length;
+    }
+
+    public
+    int getEdgeCount()
+    {
+        return this.edgeCount;
+    }
+
+    public
+    int getWordCount()
+    {
+        return this.wordCount;
+    }
+
+    @Override
+    public
+    int getRoot()
+    {
+        return this.root == null ? IWordGraph.noPath : this.root.id;
+    }
+
+    @Override
+    public
+    int getPath(int node, char c)
+    {
+        DAWGNode path = this.nodesById[node].getPath(c);
+
+        return path == null ? IWordGraph.noPath : path.id;
+    }
+
+    @Override
+    public
+    boolean isWordHere(int node)
+    {
+        return this.nodesById[node].isWordHere();
+    }
+
+    @Override
+    public
+    int getPathMask(int node)
+    {
+        DAWGNode dawgNode = this.nodesById[node];
+        int      pathMask = 0;
+
+        for (int i = 0; i < dawgNode.getNumPaths(); i++)
+        {
+            pathMask |= 1 << ScrabbleUtil.charToInt(dawgNode.getPathCharAt(i));
+        }
+
+        return pathMask;
+    }
+
+}
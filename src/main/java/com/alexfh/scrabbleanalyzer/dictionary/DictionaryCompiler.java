@@ -0,0 +1,104 @@
+package com.alexfh.scrabbleanalyzer.dictionary;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.zip.CRC32;
+
+/*
+Compiles a word list into a packed dictionary file that PackedWordGraph.fromFile can map at startup.
+
+Usage: DictionaryCompiler <word list> <output file>
+ */
+public
+class DictionaryCompiler
+{
+
+    public static
+    void main(String[] args) throws IOException
+    {
+        if (args.length != 2)
+        {
+            System.out.println("Usage: DictionaryCompiler <word list> <output file>");
+
+            return;
+        }
+
+        File            outputFile = new File(args[1]);
+        PackedWordGraph dictionary = DictionaryCompiler.compile(Files.readAllBytes(new File(args[0]).toPath()));
+        File            outputDir  = outputFile.getAbsoluteFile().getParentFile();
+
+        if (outputDir != null)
+        {
+            Files.createDirectories(outputDir.toPath());
+        }
+
+        dictionary.writeToFile(outputFile);
+        System.out.println("Compiled " + dictionary.getEdgeCount() + " edges to " + outputFile);
+    }
+
+    public static
+    int checksum(byte[] wordList)
+    {
+        CRC32 crc = new CRC32();
+
+        crc.update(wordList);
+
+        return (int) crc.getValue();
+    }
+
+    public static
+    PackedWordGraph compile(byte[] wordList)
+    {
+        return PackedWordGraph.fromWordGraph(DAWGDictionary.fromInputStream(new ByteArrayInputStream(wordList)),
+            DictionaryCompiler.checksum(wordList));
+    }
+
+    // maps packedFile if it was compiled from wordList, otherwise compiles wordList and tries to write packedFile
+    public static
+    PackedWordGraph loadOrCompile(File packedFile, byte[] wordList)
+    {
+        int checksum = DictionaryCompiler.checksum(wordList);
+
+        if (packedFile.isFile())
+        {
+            try
+            {
+                PackedWordGraph dictionary = PackedWordGraph.fromFile(packedFile);
+
+                if (dictionary.getSourceChecksum() == checksum)
+                {
+                    return dictionary;
+                }
+
+                System.err.println("Dictionary file is stale, recompiling: " + packedFile);
+            }
+            catch (IOException e)
+            {
+                System.err.println("Failed to load dictionary file, recompiling: " + e.getMessage());
+            }
+        }
+
+        PackedWordGraph dictionary = DictionaryCompiler.compile(wordList);
+
+        try
+        {
+            File packedDir = packedFile.getAbsoluteFile().getParentFile();
+
+            if (packedDir != null)
+            {
+                Files.createDirectories(packedDir.toPath());
+            }
+
+            dictionary.writeToFile(packedFile);
+        }
+        catch (IOException e)
+        {
+            e.printStackTrace();
+        }
+
+        return dictionary;
+    }
+
+}
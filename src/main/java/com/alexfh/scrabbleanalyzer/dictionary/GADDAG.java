@@ -0,0 +1,76 @@
+package com.alexfh.scrabbleanalyzer.dictionary;
+
+import com.alexfh.scrabbleanalyzer.state.IScrabbleGameState;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/*
+GADDAG encoding of a word list. Every word w is stored once per split point i as rev(w[0, i)) + separator + w[i, n),
+with the separator omitted when i == n. A word can then be grown outwards from any of its letters: first leftwards
+through the reversed prefix, then, after the separator, rightwards through the suffix.
+
+The encoded paths are added to a DAWGDictionary.Builder, so the result is minimized like any other dictionary and
+walked through IWordGraph. The separator sorts after every letter and maps to index 26 through ScrabbleUtil.charToInt.
+ */
+public
+class GADDAG
+{
+
+    public static final char separator = (char) ('z' + 1);
+
+    public static
+    PackedWordGraph fromWordGraph(IWordGraph dictionary)
+    {
+        List<String> words = new ArrayList<>();
+
+        dictionary.forEach(words::add);
+
+        return GADDAG.fromWords(words);
+    }
+
+    public static
+    PackedWordGraph fromWords(Collection<String> words)
+    {
+        DAWGDictionary.Builder builder = new DAWGDictionary.Builder();
+
+        // every path starts with the letter before its split point, so building one letter at a time keeps them sorted
+        for (char first : IScrabbleGameState.alphaChars)
+        {
+            List<String> paths = new ArrayList<>();
+
+            for (String word : words)
+            {
+                for (int i = 1; i <= word.length(); i++)
+                {
+                    if (word.charAt(i - 1) == first)
+                    {
+                        paths.add(GADDAG.getPath(word, i));
+                    }
+                }
+            }
+
+            paths.sort(null);
+            paths.forEach(builder::addWord);
+        }
+
+        return PackedWordGraph.fromWordGraph(builder.build());
+    }
+
+    public static
+    String getPath(String word, int splitAt)
+    {
+        StringBuilder path = new StringBuilder(word.length() + 1);
+
+        path.append(word, 0, splitAt).reverse();
+
+        if (splitAt < word.length())
+        {
+            path.append(GADDAG.separator).append(word, splitAt, word.length());
+        }
+
+        return path.toString();
+    }
+
+}
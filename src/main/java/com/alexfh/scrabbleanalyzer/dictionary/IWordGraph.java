@@ -0,0 +1,93 @@
+package com.alexfh.scrabbleanalyzer.dictionary;
+
+import com.alexfh.scrabbleanalyzer.util.ScrabbleUtil;
+
+import java.util.function.Consumer;
+
+/*
+Read-only view of a dictionary automaton. Nodes are opaque int handles so that implementations are free to use a
+flat, primitive encoding instead of one object per node. A handle is only meaningful to the graph that produced it.
+ */
+public
+interface IWordGraph
+{
+
+    int noPath = -1;
+
+    // noPath if the graph holds no words
+    int getRoot();
+
+    // noPath if there is no path for c from node
+    int getPath(int node, char c);
+
+    boolean isWordHere(int node);
+
+    // bit ScrabbleUtil.charToInt(c) is set for every c that has a path from node
+    int getPathMask(int node);
+
+    private
+    int followPath(String path)
+    {
+        int current = this.getRoot();
+
+        for (int i = 0; i < path.length() && current != IWordGraph.noPath; i++)
+        {
+            current = this.getPath(current, path.charAt(i));
+        }
+
+        return current;
+    }
+
+    default
+    boolean hasWord(String word)
+    {
+        int path = this.followPath(word);
+
+        return path != IWordGraph.noPath && this.isWordHere(path);
+    }
+
+    default
+    boolean hasPrefix(String prefix)
+    {
+        return this.followPath(prefix) != IWordGraph.noPath;
+    }
+
+    default
+    void forEach(Consumer<String> consumer)
+    {
+        int root = this.getRoot();
+
+        if (root == IWordGraph.noPath)
+        {
+            return;
+        }
+
+        this.forEach(root, new StringBuilder(), consumer);
+    }
+
+    private
+    void forEach(int node, StringBuilder word, Consumer<String> consumer)
+    {
+        if (this.isWordHere(node))
+        {
+            consumer.accept(word.toString());
+        }
+
+        int pathMask = this.getPathMask(node);
+
+        for (int i = 0; pathMask != 0; i++, pathMask >>>= 1)
+        {
+            if ((pathMask & 1) == 0)
+            {
+                continue;
+            }
+
+            char c = ScrabbleUtil.intToChar(i);
+
+            word.append(c);
+            this.forEach(this.getPath(node, c), word, consumer);
+            word.setLength(word.length() - 1);
+        }
+    }
+
+}
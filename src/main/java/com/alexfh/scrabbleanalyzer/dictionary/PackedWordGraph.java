@@ -0,0 +1,304 @@
+package com.alexfh.scrabbleanalyzer.dictionary;
+
+import com.alexfh.scrabbleanalyzer.util.ScrabbleUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+Word graph flattened into a single buffer of packed int edges so that traversal never chases object pointers.
+
+The outgoing edges of a node are stored contiguously, sorted by letter, with the last one flagged. Each edge packs:
+
+bits 0-4  letter (ScrabbleUtil.charToInt)
+bit  5    a word ends at the node this edge leads to
+bit  6    last edge of its node
+bits 7-31 index of the first outgoing edge of the node this edge leads to, 0 if it has none
+
+A node handle is the index of the edge leading to it, edge 0 being a sentinel leading to the root. Since suffixes are
+shared in the source graph, so are edge lists here.
+
+The same layout is used on disk, preceded by a header of magic, format version, a checksum of the word list the graph
+was compiled from and the edge count, all little-endian ints.
+Loading a file maps it read-only and walks the mapped edges directly, so nothing is parsed or copied at startup and
+every JVM using the file shares the page cache copy of it.
+ */
+public
+class PackedWordGraph implements IWordGraph
+{
+
+    private static final int letterMask   = 0b11111;
+    private static final int wordHereBit  = 1 << 5;
+    private static final int lastEdgeBit  = 1 << 6;
+    private static final int childShift   = 7;
+    private static final int maxEdgeIndex = (1 << (32 - PackedWordGraph.childShift)) - 1;
+    private static final int rootHandle   = 0;
+    private static final int fileMagic    = 0x53414447; // SADG
+    private static final int fileVersion  = 1;
+    private static final int headerInts   = 4;
+
+    private static final ByteOrder fileByteOrder = ByteOrder.LITTLE_ENDIAN;
+
+    public static
+    PackedWordGraph fromWordGraph(IWordGraph wordGraph)
+    {
+        return PackedWordGraph.fromWordGraph(wordGraph, 0);
+    }
+
+    public static
+    PackedWordGraph fromWordGraph(IWordGraph wordGraph, int sourceChecksum)
+    {
+        int root = wordGraph.getRoot();
+
+        if (root == IWordGraph.noPath)
+        {
+            return new PackedWordGraph(IntBuffer.allocate(0), sourceChecksum);
+        }
+
+        Map<Integer, Integer> edgeListStarts = new HashMap<>();
+        Deque<Integer>        toVisit        = new ArrayDeque<>();
+        int                   numEdges       = 1;
+
+        toVisit.add(root);
+
+        while (!toVisit.isEmpty())
+        {
+            int node     = toVisit.removeFirst();
+            int pathMask = wordGraph.getPathMask(node);
+
+            if (pathMask == 0 || edgeListStarts.containsKey(node))
+            {
+                continue;
+            }
+
+            edgeListStarts.put(node, numEdges);
+
+            numEdges += Integer.bitCount(pathMask);
+
+            if (numEdges > PackedWordGraph.maxEdgeIndex)
+            {
+                throw new IllegalStateException("Word graph too large to pack: " + numEdges + " edges");
+            }
+
+            for (int i = 0; pathMask != 0; i++, pathMask >>>= 1)
+            {
+                if ((pathMask & 1) != 0)
+                {
+                    toVisit.addLast(wordGraph.getPath(node, ScrabbleUtil.intToChar(i)));
+                }
+            }
+        }
+
+        int[] edges = new int[numEdges];
+        edges[PackedWordGraph.rootHandle] = PackedWordGraph.encodeEdge(0, wordGraph.isWordHere(root), true,
+            edgeListStarts.getOrDefault(root, 0));
+
+        for (Map.Entry<Integer, Integer> edgeListStart : edgeListStarts.entrySet())
+        {
+            int node     = edgeListStart.getKey();
+            int edge     = edgeListStart.getValue();
+            int pathMask = wordGraph.getPathMask(node);
+
+            for (int i = 0; pathMask != 0; i++, pathMask >>>= 1)
+            {
+                if ((pathMask & 1) == 0)
+                {
+                    continue;
+                }
+
+                int path = wordGraph.getPath(node, ScrabbleUtil.intToChar(i));
+                edges[edge++] = PackedWordGraph.encodeEdge(i, wordGraph.isWordHere(path), pathMask == 1,
+                    edgeListStarts.getOrDefault(path, 0));
+            }
+        }
+
+        return new PackedWordGraph(IntBuffer.wrap(edges), sourceChecksum);
+    }
+
+    public static
+    PackedWordGraph fromFile(File packedFile) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(packedFile.toPath(), StandardOpenOption.READ))
+        {
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                .order(PackedWordGraph.fileByteOrder);
+
+            if (mapped.remaining() < PackedWordGraph.headerInts * Integer.BYTES)
+            {
+                throw new IOException("Truncated dictionary file: " + packedFile);
+            }
+
+            int magic          = mapped.getInt();
+            int version        = mapped.getInt();
+            int sourceChecksum = mapped.getInt();
+            int numEdges       = mapped.getInt();
+
+            if (magic != PackedWordGraph.fileMagic)
+            {
+                throw new IOException("Not a packed dictionary file: " + packedFile);
+            }
+
+            if (version != PackedWordGraph.fileVersion)
+            {
+                throw new IOException("Unsupported packed dictionary version: " + version + " in " + packedFile);
+            }
+
+            if (numEdges < 0 || mapped.remaining() != (long) numEdges * Integer.BYTES)
+            {
+                throw new IOException("Corrupt dictionary file: " + packedFile);
+            }
+
+            // the mapping stays valid after the channel is closed
+            return new PackedWordGraph(mapped.slice().order(PackedWordGraph.fileByteOrder).asIntBuffer(),
+                sourceChecksum);
+        }
+    }
+
+    private static
+    int encodeEdge(int letter, boolean wordHere, boolean isLast, int childEdgeIndex)
+    {
+        return letter | (wordHere ? PackedWordGraph.wordHereBit : 0) | (isLast ? PackedWordGraph.lastEdgeBit : 0) |
+               (childEdgeIndex << PackedWordGraph.childShift);
+    }
+
+    private final IntBuffer edges;
+    private final int       sourceChecksum;
+
+    private
+    PackedWordGraph(IntBuffer edges, int sourceChecksum)
+    {
+        this.edges          = edges;
+        this.sourceChecksum = sourceChecksum;
+    }
+
+    public
+    int getSourceChecksum()
+    {
+        return this.sourceChecksum;
+    }
+
+    public
+    void writeToFile(File packedFile) throws IOException
+    {
+        int        numEdges = this.edges.limit();
+        ByteBuffer data     = ByteBuffer.allocate((PackedWordGraph.headerInts + numEdges) * Integer.BYTES)
+            .order(PackedWordGraph.fileByteOrder);
+
+        data.putInt(PackedWordGraph.fileMagic);
+        data.putInt(PackedWordGraph.fileVersion);
+        data.putInt(this.sourceChecksum);
+        data.putInt(numEdges);
+        data.asIntBuffer().put(this.edges.duplicate().rewind());
+        data.rewind();
+
+        File tempFile = new File(packedFile.getPath() + ".tmp");
+
+        // write then move, so a concurrently starting JVM never maps a partially written file
+        try (FileChannel channel = FileChannel.open(tempFile.toPath(), StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))
+        {
+            while (data.hasRemaining())
+            {
+                channel.write(data);
+            }
+        }
+
+        Files.move(tempFile.toPath(), packedFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public
+    int getEdgeCount()
+    {
+        return Math.max(0, this.edges.limit() - 1);
+    }
+
+    public
+    long getSizeInBytes()
+    {
+        return (long) this.edges.limit() * Integer.BYTES;
+    }
+
+    @Override
+    public
+    int getRoot()
+    {
+        return this.edges.limit() == 0 ? IWordGraph.noPath : PackedWordGraph.rootHandle;
+    }
+
+    @Override
+    public
+    int getPath(int node, char c)
+    {
+        int edge   = this.edges.get(node) >>> PackedWordGraph.childShift;
+        int letter = ScrabbleUtil.charToInt(c);
+
+        if (edge == 0)
+        {
+            return IWordGraph.noPath;
+        }
+
+        while (true)
+        {
+            int packed     = this.edges.get(edge);
+            int edgeLetter = packed & PackedWordGraph.letterMask;
+
+            if (edgeLetter == letter)
+            {
+                return edge;
+            }
+
+            if (edgeLetter > letter || (packed & PackedWordGraph.lastEdgeBit) != 0)
+            {
+                return IWordGraph.noPath;
+            }
+
+            edge++;
+        }
+    }
+
+    @Override
+    public
+    boolean isWordHere(int node)
+    {
+        return (this.edges.get(node) & PackedWordGraph.wordHereBit) != 0;
+    }
+
+    @Override
+    public
+    int getPathMask(int node)
+    {
+        int edge     = this.edges.get(node) >>> PackedWordGraph.childShift;
+        int pathMask = 0;
+
+        if (edge == 0)
+        {
+            return 0;
+        }
+
+        while (true)
+        {
+            int packed = this.edges.get(edge);
+            pathMask |= 1 << (packed & PackedWordGraph.letterMask);
+
+            if ((packed & PackedWordGraph.lastEdgeBit) != 0)
+            {
+                return pathMask;
+            }
+
+            edge++;
+        }
+    }
+
+}
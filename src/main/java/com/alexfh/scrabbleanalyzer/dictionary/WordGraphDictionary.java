@@ -241,6 +241,25 @@ class WordGraphDictionary
         }
     }
 
+    public
+    int getNodeCount()
+    {
+        return this.root == null ? 0 : this.getNodeCount(this.root);
+    }
+
+    private
+    int getNodeCount(WGNode node)
+    {
+        int count = 1;
+
+        for (char c : node.paths)
+        {
+            count += this.getNodeCount(node.getPath(c));
+        }
+
+        return count;
+    }
+
     public
     void forEach(Consumer<String> consumer)
     {
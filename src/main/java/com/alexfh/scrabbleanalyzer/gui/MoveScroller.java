@@ -1,17 +1,15 @@
 package com.alexfh.scrabbleanalyzer.gui;
 
 import com.alexfh.scrabbleanalyzer.ScrabbleGame;
+import com.alexfh.scrabbleanalyzer.ai.MoveBuffer;
 import com.alexfh.scrabbleanalyzer.gui.font.ScrabbleFonts;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
-import javax.swing.table.TableModel;
 import java.awt.*;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.util.List;
 import java.util.function.Consumer;
 
 public
@@ -19,17 +17,19 @@ class MoveScroller extends JScrollPane
 {
 
     private final JTable                      table;
-    private       List<ScrabbleGame.Move>     currentMoves;
+    private final MoveTableModel              model;
     private final Consumer<ScrabbleGame.Move> onMoveSelected;
     private final Consumer<ScrabbleGame.Move> onPlayMove;
-    private final String[]                    colNames = new String[]{ "Number", "Score", "Word" };
+    // the list being built from batches, null until the model's current moves have been copied into it
+    private       MoveBuffer                  partialMoves;
 
     public
     MoveScroller(Consumer<ScrabbleGame.Move> onMoveSelected, Consumer<ScrabbleGame.Move> onPlayMove)
     {
         this.onMoveSelected = onMoveSelected;
         this.onPlayMove     = onPlayMove;
-        this.table          = new JTable(this.getModelFromData(new String[0][0]));
+        this.model          = new MoveTableModel();
+        this.table          = new JTable(this.model);
         Font font = ScrabbleFonts.courierNewBold.deriveFont(16F);
 
         this.setPreferredSize(
@@ -50,7 +50,7 @@ class MoveScroller extends JScrollPane
 
                     if (index >= 0)
                     {
-                        MoveScroller.this.onPlayMove.accept(MoveScroller.this.currentMoves.get(index));
+                        MoveScroller.this.onPlayMove.accept(MoveScroller.this.model.getMoves().getMove(index));
                     }
                 }
             }
@@ -63,7 +63,7 @@ class MoveScroller extends JScrollPane
 
                 if (index >= 0)
                 {
-                    this.onMoveSelected.accept(this.currentMoves.get(index));
+                    this.onMoveSelected.accept(this.model.getMoves().getMove(index));
                 }
             }
         });
@@ -95,33 +95,30 @@ class MoveScroller extends JScrollPane
         });
     }
 
+    // rows are formatted as they come into view, and Move objects are only created for the rows that get selected
     public
-    void createListForMoves(List<ScrabbleGame.Move> moves)
+    void createListForMoves(MoveBuffer moves)
     {
-        this.currentMoves = moves;
-        String[][] tableData = new String[this.currentMoves.size()][];
+        this.partialMoves = null;
 
-        for (int i = 0; i < this.currentMoves.size(); i++)
-        {
-            ScrabbleGame.Move move = this.currentMoves.get(i);
-            tableData[i] = new String[]{ String.valueOf(i + 1), String.valueOf(move.score()), move.playedWord() };
-        }
-
-        this.table.setModel(this.getModelFromData(tableData));
+        this.model.setMoves(moves);
     }
 
-    private
-    TableModel getModelFromData(String[][] data)
+    // merges a sorted batch into the list, which must also be sorted, as moves are still being generated
+    public
+    void addMoves(MoveBuffer sortedMoves)
     {
-        return new DefaultTableModel(data, this.colNames)
+        // the list given to createListForMoves may be a cached buffer, which can't be modified, so it is copied once
+        if (this.partialMoves == null)
         {
-            @Override
-            public
-            boolean isCellEditable(int row, int col)
-            {
-                return false;
-            }
-        };
+            MoveBuffer currentMoves = this.model.getMoves();
+            this.partialMoves = new MoveBuffer(currentMoves.size() + sortedMoves.size());
+
+            this.partialMoves.addAll(currentMoves);
+        }
+
+        this.partialMoves.addAllSorted(sortedMoves);
+        this.model.setMoves(this.partialMoves);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+package com.alexfh.scrabbleanalyzer.gui;
+
+import com.alexfh.scrabbleanalyzer.ai.MoveBuffer;
+
+import javax.swing.table.AbstractTableModel;
+
+/*
+Read-only table over a MoveBuffer. Cells are formatted when the table asks for them, which it only does for the rows
+in view, so showing a list costs the same for fifty moves as for fifty thousand, and the moves are never duplicated
+as strings. Moves sorted by equity get an Equity column after their score.
+ */
+public
+class MoveTableModel extends AbstractTableModel
+{
+
+    private static final String[] colNames       = new String[]{ "Number", "Score", "Word" };
+    private static final String[] equityColNames = new String[]{ "Number", "Score", "Equity", "Word" };
+
+    private MoveBuffer moves = new MoveBuffer(0);
+
+    public
+    MoveBuffer getMoves()
+    {
+        return this.moves;
+    }
+
+    public
+    void setMoves(MoveBuffer moves)
+    {
+        boolean columnsChanged = moves.hasEquities() != this.moves.hasEquities();
+        this.moves = moves;
+
+        if (columnsChanged)
+        {
+            this.fireTableStructureChanged();
+        }
+        else
+        {
+            this.fireTableDataChanged();
+        }
+    }
+
+    @Override
+    public
+    int getRowCount()
+    {
+        return this.moves.size();
+    }
+
+    @Override
+    public
+    int getColumnCount()
+    {
+        return this.getColNames().length;
+    }
+
+    @Override
+    public
+    String getColumnName(int col)
+    {
+        return this.getColNames()[col];
+    }
+
+    @Override
+    public
+    Object getValueAt(int row, int col)
+    {
+        if (this.moves.hasEquities() && col == 2)
+        {
+            return String.format("%.1f", this.moves.getEquity(row));
+        }
+
+        return switch (col)
+        {
+            case 0 -> String.valueOf(row + 1);
+            case 1 -> String.valueOf(this.moves.getScore(row));
+            default -> this.moves.getWord(row);
+        };
+    }
+
+    private
+    String[] getColNames()
+    {
+        return this.moves.hasEquities() ? MoveTableModel.equityColNames : MoveTableModel.colNames;
+    }
+
+}
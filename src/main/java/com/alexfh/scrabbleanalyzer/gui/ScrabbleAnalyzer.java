@@ -1,5 +1,6 @@
 package com.alexfh.scrabbleanalyzer.gui;
 
+import com.alexfh.scrabbleanalyzer.Main;
 import com.alexfh.scrabbleanalyzer.ScrabbleGame;
 import com.alexfh.scrabbleanalyzer.gui.action.RevertibleAction;
 import com.alexfh.scrabbleanalyzer.gui.file.ScrabbleAnalyzerFileFilter;
@@ -67,7 +68,7 @@ class ScrabbleAnalyzer extends JFrame
             {
                 if (ScrabbleAnalyzer.this.confirmationIfNotSaved("Are you sure you want to close without saving?"))
                 {
-                    ScrabbleGame.threadPool.shutdownNow();
+                    ScrabbleGame.forkJoinPool.shutdownNow();
                     System.exit(0);
                 }
             }
@@ -89,6 +90,7 @@ class ScrabbleAnalyzer extends JFrame
         JRadioButtonMenuItem iso            = new JRadioButtonMenuItem("Isometric");
         JRadioButtonMenuItem flat           = new JRadioButtonMenuItem("Flat");
         ButtonGroup          tileStyleGroup = new ButtonGroup();
+        JCheckBoxMenuItem    sortByEquity   = new JCheckBoxMenuItem("Sort by Equity");
 
         fileMenu.setFont(menuFont);
         editMenu.setFont(menuFont);
@@ -101,10 +103,12 @@ class ScrabbleAnalyzer extends JFrame
         clearBoard.setFont(menuFont);
         iso.setFont(menuFont);
         flat.setFont(menuFont);
+        sortByEquity.setFont(menuFont);
         this.undo.setFont(menuFont);
         this.redo.setFont(menuFont);
         iso.setSelected(TileStyle.INSTANCE.getIso());
         flat.setSelected(!TileStyle.INSTANCE.getIso());
+        sortByEquity.setEnabled(Main.leaves != null);
         tileStyle.add(iso);
         tileStyleGroup.add(iso);
         tileStyle.add(flat);
@@ -120,6 +124,7 @@ class ScrabbleAnalyzer extends JFrame
         redo.addActionListener(e -> this.redo());
         iso.addActionListener(e -> this.setTileStyleAndRepaint(true));
         flat.addActionListener(e -> this.setTileStyleAndRepaint(false));
+        sortByEquity.addActionListener(e -> this.scrabbleAnalyzerPanel.setSortByEquity(sortByEquity.isSelected()));
         fileMenu.add(newFile);
         fileMenu.add(open);
         fileMenu.add(save);
@@ -128,6 +133,7 @@ class ScrabbleAnalyzer extends JFrame
         editMenu.add(undo);
         editMenu.add(redo);
         viewMenu.add(tileStyle);
+        viewMenu.add(sortByEquity);
         menuBar.add(fileMenu);
         menuBar.add(editMenu);
         menuBar.add(viewMenu);
@@ -373,7 +379,7 @@ class ScrabbleAnalyzer extends JFrame
     private
     void setLastSaveState()
     {
-        this.lastSaveState = this.gameState.copyScrabbleGame();
+        this.lastSaveState = this.gameState.snapshot();
     }
 
     private
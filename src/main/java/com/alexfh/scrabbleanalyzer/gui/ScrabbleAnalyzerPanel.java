@@ -109,4 +109,10 @@ class ScrabbleAnalyzerPanel extends JPanel
         this.scrabblePanel.clearBoard();
     }
 
+    public
+    void setSortByEquity(boolean sortByEquity)
+    {
+        this.scrabblePanel.setSortByEquity(sortByEquity);
+    }
+
 }
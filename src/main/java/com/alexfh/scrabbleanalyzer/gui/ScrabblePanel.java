@@ -1,40 +1,53 @@
 package com.alexfh.scrabbleanalyzer.gui;
 
+import com.alexfh.scrabbleanalyzer.BoardAnalyzer;
 import com.alexfh.scrabbleanalyzer.Main;
 import com.alexfh.scrabbleanalyzer.ScrabbleGame;
+import com.alexfh.scrabbleanalyzer.ai.MoveBatcher;
+import com.alexfh.scrabbleanalyzer.ai.MoveBuffer;
+import com.alexfh.scrabbleanalyzer.ai.MoveCache;
 import com.alexfh.scrabbleanalyzer.gui.action.RevertibleAction;
 import com.alexfh.scrabbleanalyzer.gui.layout.ScrabbleLayout;
 import com.alexfh.scrabbleanalyzer.gui.tile.TileProvider;
 import com.alexfh.scrabbleanalyzer.rule.impl.LetterScoreMapImpl;
 import com.alexfh.scrabbleanalyzer.state.IScrabbleGameState;
+import com.alexfh.scrabbleanalyzer.util.CoalescingScheduler;
 import com.alexfh.scrabbleanalyzer.util.ScrabbleUtil;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.util.Collections;
-import java.util.List;
-import java.util.concurrent.Future;
 import java.util.function.Consumer;
 
 public
 class ScrabblePanel extends JPanel
 {
 
-    public static final char backspaceChar = '}';
+    public static final char backspaceChar              = '}';
+    public static final long moveCacheBytes             = 32L << 20;
+    // how often the best moves so far are shown while a slow position is generated
+    public static final long partialMovesIntervalMillis = 50;
+    // -Dscrabbleanalyzer.recomputeWindow=<ms> sets how long a burst of edits is coalesced for before moves are updated
+    public static final long recomputeWindowMillis      = Long.getLong("scrabbleanalyzer.recomputeWindow", 50);
+    // keeps the equity sorted moves of a position apart from its score sorted ones in moveCache
+    private static final long equityCacheKey             = 0x5DEECE66DL;
 
     private final Consumer<RevertibleAction> onAction;
     private       IScrabbleGameState         gameState;
     private final ScrabbleGrid               grid;
     private final PlayerTileGrid             playerTileGrid;
     private final MoveScroller               moveScroller;
-    private       boolean                    isVerticalLayout   = false;
-    private       int                        currentTileSize    = ScrabbleAnalyzer.defaultTileSize;
-    private       int                        updateNum          = 0;
-    private       int                        lastUpdateReceived = 0;
-    private       Future<?>                  pendingUpdate;
+    private       boolean                    isVerticalLayout    = false;
+    private       boolean                    sortByEquity        = false;
+    private       int                        currentTileSize     = ScrabbleAnalyzer.defaultTileSize;
+    private       int                        updateNum           = 0;
+    private       int                        lastUpdateReceived  = 0;
+    private       int                        lastPartialReceived = 0;
     private final ScrabbleLayout             layout;
+    private final BoardAnalyzer              boardAnalyzer;
+    private final MoveCache                  moveCache;
+    private final CoalescingScheduler        moveUpdater;
 
     public
     ScrabblePanel(Consumer<RevertibleAction> onAction, IScrabbleGameState gameState)
@@ -45,6 +58,9 @@ class ScrabblePanel extends JPanel
         this.playerTileGrid = new PlayerTileGrid(this.onAction, this.gameState, this::playerTilesInvalidated);
         this.moveScroller   = new MoveScroller(this::showMove, this::playMove);
         this.layout         = new ScrabbleLayout();
+        this.boardAnalyzer  = new BoardAnalyzer(LetterScoreMapImpl.defaultScoreMap, Main.dictionary);
+        this.moveCache      = new MoveCache(ScrabblePanel.moveCacheBytes);
+        this.moveUpdater    = new CoalescingScheduler("ScrabblePanel moves", ScrabblePanel.recomputeWindowMillis);
 
         this.addMouseListener(new MouseAdapter()
         {
@@ -88,6 +104,15 @@ class ScrabblePanel extends JPanel
                 .then(this::updateMoves).withDescription("Clear board"));
     }
 
+    // Main.leaves must be loaded to sort by equity
+    public
+    void setSortByEquity(boolean sortByEquity)
+    {
+        this.sortByEquity = sortByEquity;
+
+        this.updateMoves();
+    }
+
     private
     void playMove(ScrabbleGame.Move move)
     {
@@ -125,47 +150,83 @@ class ScrabblePanel extends JPanel
     {
         this.grid.clearSelectedMove();
 
-        if (this.pendingUpdate != null)
-        {
-            this.pendingUpdate.cancel(true);
-        }
-
         this.updateNum++;
-        final IScrabbleGameState gameStateCopy = this.gameState.copyScrabbleGame();
-        final int                updateNumCopy = this.updateNum;
-        this.pendingUpdate = ScrabbleGame.threadPool.submit(() ->
+        final IScrabbleGameState gameStateCopy    = this.gameState.snapshot();
+        final int                updateNumCopy    = this.updateNum;
+        final boolean            sortByEquityCopy = this.sortByEquity;
+
+        this.moveUpdater.schedule(() -> this.getMoves(gameStateCopy, updateNumCopy, sortByEquityCopy));
+    }
+
+    private
+    void getMoves(IScrabbleGameState gameStateCopy, int updateNumCopy, boolean sortByEquityCopy)
+        throws InterruptedException
+    {
+        long       cacheKey = gameStateCopy.getPositionHash() ^ (sortByEquityCopy ? ScrabblePanel.equityCacheKey : 0);
+        MoveBuffer moves    = this.moveCache.get(cacheKey);
+
+        if (moves == null)
         {
-            try
+            // moveUpdater runs one update at a time, so updates can share the analyzer
+            ScrabbleGame game    = new ScrabbleGame(LetterScoreMapImpl.defaultScoreMap, Main.dictionary,
+                gameStateCopy, this.boardAnalyzer);
+            // batches are sorted by score, so they would jump around once the equity sorted list replaced them
+            MoveBatcher  batcher = sortByEquityCopy ? null : new MoveBatcher(ScrabblePanel.partialMovesIntervalMillis,
+                batch -> SwingUtilities.invokeLater(() -> this.showPartialMoves(batch, updateNumCopy)));
+            moves = new MoveBuffer();
+
+            game.findMovesParallel(ScrabbleGame.forkJoinPool, moves, batcher);
+
+            if (sortByEquityCopy)
             {
-                this.getMoves(gameStateCopy, updateNumCopy);
+                moves.sortByEquity(Main.leaves, gameStateCopy.getTilesInRack());
             }
-            catch (InterruptedException ignored)
+            else
             {
+                moves.sort();
             }
-        });
-    }
 
-    private
-    void getMoves(IScrabbleGameState gameStateCopy, int updateNumCopy) throws InterruptedException
-    {
-        ScrabbleGame game = new ScrabbleGame(LetterScoreMapImpl.defaultScoreMap, Main.dictionary, gameStateCopy);
-        List<ScrabbleGame.Move> moves = game.findMoves();
+            moves.trimToSize();
+            this.moveCache.put(cacheKey, moves);
+        }
+
+        final MoveBuffer finalMoves = moves;
 
-        Collections.sort(moves);
         ScrabbleUtil.checkInterrupted();
         SwingUtilities.invokeLater(() ->
         {
-            if (this.lastUpdateReceived > updateNumCopy)
+            if (this.lastUpdateReceived > updateNumCopy || this.lastPartialReceived > updateNumCopy)
             {
                 return;
             }
 
             this.lastUpdateReceived = updateNumCopy;
 
-            this.moveScroller.createListForMoves(moves);
+            this.moveScroller.createListForMoves(finalMoves);
         });
     }
 
+    // batches only arrive before their update's complete list, and only count while their update is the latest
+    private
+    void showPartialMoves(MoveBuffer batch, int updateNumCopy)
+    {
+        if (updateNumCopy != this.updateNum || this.lastUpdateReceived == updateNumCopy)
+        {
+            return;
+        }
+
+        if (this.lastPartialReceived == updateNumCopy)
+        {
+            this.moveScroller.addMoves(batch);
+        }
+        else
+        {
+            this.lastPartialReceived = updateNumCopy;
+
+            this.moveScroller.createListForMoves(batch);
+        }
+    }
+
     public
     void onResize(int width, int height)
     {
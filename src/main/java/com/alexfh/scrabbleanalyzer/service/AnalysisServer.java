@@ -0,0 +1,380 @@
+package com.alexfh.scrabbleanalyzer.service;
+
+import com.alexfh.scrabbleanalyzer.Main;
+import com.alexfh.scrabbleanalyzer.ScrabbleGame;
+import com.alexfh.scrabbleanalyzer.dictionary.IWordGraph;
+import com.alexfh.scrabbleanalyzer.rule.ILetterScoreMap;
+import com.alexfh.scrabbleanalyzer.rule.impl.LetterScoreMapImpl;
+import com.alexfh.scrabbleanalyzer.state.IScrabbleBoard;
+import com.alexfh.scrabbleanalyzer.state.IScrabbleGameState;
+import com.alexfh.scrabbleanalyzer.state.impl.PlayerTileRackImpl;
+import com.alexfh.scrabbleanalyzer.state.impl.ScrabbleBoardImpl;
+import com.alexfh.scrabbleanalyzer.state.impl.ScrabbleGameStateImpl;
+import com.alexfh.scrabbleanalyzer.util.CommandLineOptions;
+import com.alexfh.scrabbleanalyzer.util.MoveJson;
+import com.alexfh.scrabbleanalyzer.util.ScrabbleUtil;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/*
+Local HTTP front end for move generation, run with "serve" as the first program argument:
+
+serve [--port <n>] [--threads <n>] [--timeout <ms>]
+
+The dictionary is loaded once and shared by every request. Requests are handled on virtual threads when the JVM has
+them, and on a fixed pool otherwise. At most --threads positions are analyzed at once either way.
+
+POST /moves?rack=<tiles>[&top=<n>][&timeout=<ms>]
+
+The body is a board in the board.txt format, optionally followed by a blank line and a multipliers board, without which
+the default 15x15 multipliers are used. The rack is typed as in currentletters.txt, with '0' for wildcards. The
+response holds the best moves, best first, and the time spent generating them:
+
+{"nanos":1520301,"moves":[{"word":"jagra","score":38,"row":7,"col":3,"vertical":false,"tiles":"jgra",...}]}
+
+Each request has a deadline, the smaller of its timeout and --timeout, counted from when its handler starts, and
+including any wait for a free analysis slot. When the deadline passes the handler thread is interrupted, generation
+stops at its next ScrabbleUtil.checkInterrupted, and the request fails with a 503. Bad requests fail with a 400. Errors
+are returned as {"error":"..."}.
+
+GET /health answers 200 once the server is listening.
+ */
+public
+class AnalysisServer
+{
+
+    private static final String usage                = "Usage: serve [--port <n>] [--threads <n>] [--timeout <ms>]";
+    private static final int    defaultPort          = 8080;
+    private static final long   defaultTimeoutMillis = 5000;
+    private static final int    defaultTopMoves      = 20;
+    private static final int    maxTopMoves          = 1000;
+    private static final int    maxRequestBytes      = 1 << 16;
+
+    public static
+    void main(String[] args) throws IOException
+    {
+        int  port;
+        int  threads;
+        long timeoutMillis;
+
+        try
+        {
+            CommandLineOptions options = CommandLineOptions.parse(args, 0, "--port", "--threads", "--timeout");
+
+            port          = options.getInt("--port", AnalysisServer.defaultPort, 0, 65535);
+            threads       = options.getInt("--threads", Runtime.getRuntime().availableProcessors(), 1,
+                Integer.MAX_VALUE);
+            timeoutMillis = options.getLong("--timeout", AnalysisServer.defaultTimeoutMillis, 1, Long.MAX_VALUE);
+        }
+        catch (IllegalArgumentException e)
+        {
+            System.err.println(e.getMessage());
+            System.err.println(AnalysisServer.usage);
+
+            return;
+        }
+
+        // timings of every request would flood the console
+        ScrabbleUtil.setPrintTimings(false);
+
+        AnalysisServer server = new AnalysisServer(LetterScoreMapImpl.defaultScoreMap, Main.loadDictionary(),
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), port), threads, timeoutMillis);
+
+        server.start();
+        System.out.println("Listening on http://" + server.getAddress().getHostString() + ":" +
+                           server.getAddress().getPort());
+    }
+
+    // virtual threads if the running JVM has them, the project itself only requires 17
+    private static
+    ExecutorService newRequestExecutor(int threads)
+    {
+        try
+        {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (ReflectiveOperationException e)
+        {
+            return Executors.newFixedThreadPool(threads);
+        }
+    }
+
+    private static final
+    class Deadline
+    {
+
+        private final Thread  thread;
+        private       boolean finished = false;
+
+        private
+        Deadline(Thread thread)
+        {
+            this.thread = thread;
+        }
+
+        private synchronized
+        void expire()
+        {
+            if (!this.finished)
+            {
+                this.thread.interrupt();
+            }
+        }
+
+        // must be called by the request's thread, so that a late interrupt can't leak into its next request
+        private synchronized
+        void finish()
+        {
+            this.finished = true;
+
+            Thread.interrupted();
+        }
+
+    }
+
+    private final ILetterScoreMap          scoreMap;
+    private final IWordGraph               dictionary;
+    private final long                     timeoutMillis;
+    private final Semaphore                analysisPermits;
+    private final HttpServer               httpServer;
+    private final ExecutorService          requestExecutor;
+    private final ScheduledExecutorService deadlineTimer;
+
+    public
+    AnalysisServer(ILetterScoreMap scoreMap, IWordGraph dictionary, InetSocketAddress address, int threads,
+                   long timeoutMillis) throws IOException
+    {
+        this.scoreMap        = scoreMap;
+        this.dictionary      = dictionary;
+        this.timeoutMillis   = timeoutMillis;
+        this.analysisPermits = new Semaphore(threads);
+        this.httpServer      = HttpServer.create(address, 0);
+        this.requestExecutor = AnalysisServer.newRequestExecutor(threads);
+        this.deadlineTimer   = Executors.newSingleThreadScheduledExecutor(runnable ->
+        {
+            Thread thread = new Thread(runnable, "AnalysisServer deadlines");
+
+            thread.setDaemon(true);
+
+            return thread;
+        });
+
+        this.httpServer.setExecutor(this.requestExecutor);
+        this.httpServer.createContext("/moves", this::handleMoves);
+        this.httpServer.createContext("/health", this::handleHealth);
+    }
+
+    public
+    void start()
+    {
+        this.httpServer.start();
+    }
+
+    public
+    void stop()
+    {
+        this.httpServer.stop(0);
+        this.requestExecutor.shutdownNow();
+        this.deadlineTimer.shutdownNow();
+    }
+
+    public
+    InetSocketAddress getAddress()
+    {
+        return this.httpServer.getAddress();
+    }
+
+    private
+    void handleHealth(HttpExchange exchange) throws IOException
+    {
+        AnalysisServer.respond(exchange, 200, "{\"status\":\"ok\"}");
+    }
+
+    private
+    void handleMoves(HttpExchange exchange) throws IOException
+    {
+        if (!exchange.getRequestMethod().equals("POST"))
+        {
+            AnalysisServer.respond(exchange, 405, AnalysisServer.error("Use POST"));
+
+            return;
+        }
+
+        IScrabbleGameState gameState;
+        int                topMoves;
+        long               timeoutMillis;
+
+        try
+        {
+            Map<String, String> parameters = AnalysisServer.parseQuery(exchange.getRequestURI().getRawQuery());
+            String              rack       = parameters.get("rack");
+
+            if (rack == null)
+            {
+                throw new IllegalArgumentException("Missing rack");
+            }
+
+            gameState     = AnalysisServer.parseGameState(AnalysisServer.readBody(exchange), rack);
+            topMoves      = Integer.parseInt(parameters.getOrDefault("top", "" + AnalysisServer.defaultTopMoves));
+            timeoutMillis = Math.min(Long.parseLong(parameters.getOrDefault("timeout", "" + this.timeoutMillis)),
+                this.timeoutMillis);
+
+            if (topMoves < 1 || topMoves > AnalysisServer.maxTopMoves)
+            {
+                throw new IllegalArgumentException("top must be between 1 and " + AnalysisServer.maxTopMoves);
+            }
+
+            if (timeoutMillis < 1)
+            {
+                throw new IllegalArgumentException("timeout must be positive");
+            }
+        }
+        catch (RuntimeException e)
+        {
+            AnalysisServer.respond(exchange, 400, AnalysisServer.error(String.valueOf(e.getMessage())));
+
+            return;
+        }
+
+        Deadline           deadline = new Deadline(Thread.currentThread());
+        ScheduledFuture<?> timer    = this.deadlineTimer.schedule(deadline::expire, timeoutMillis,
+            TimeUnit.MILLISECONDS);
+        int                status;
+        String             response;
+
+        try
+        {
+            if (this.analysisPermits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS))
+            {
+                try
+                {
+                    long                    start = System.nanoTime();
+                    List<ScrabbleGame.Move> moves = new ScrabbleGame(this.scoreMap, this.dictionary,
+                        gameState).findTopMoves(topMoves);
+                    long                    nanos = System.nanoTime() - start;
+                    StringBuilder           json  = new StringBuilder();
+
+                    json.append("{\"nanos\":").append(nanos).append(",\"moves\":");
+                    MoveJson.appendMoves(json, moves);
+
+                    status   = 200;
+                    response = json.append('}').toString();
+                }
+                finally
+                {
+                    this.analysisPermits.release();
+                }
+            }
+            else
+            {
+                status   = 503;
+                response = AnalysisServer.error("Deadline exceeded");
+            }
+        }
+        catch (InterruptedException e)
+        {
+            status   = 503;
+            response = AnalysisServer.error("Deadline exceeded");
+        }
+        catch (RuntimeException e)
+        {
+            status   = 500;
+            response = AnalysisServer.error(String.valueOf(e.getMessage()));
+        }
+        finally
+        {
+            timer.cancel(false);
+            deadline.finish();
+        }
+
+        AnalysisServer.respond(exchange, status, response);
+    }
+
+    private static
+    IScrabbleGameState parseGameState(String body, String rack)
+    {
+        String[]       sections = body.strip().split("\\R\\s*\\R", 2);
+        IScrabbleBoard board    = (sections.length == 1) ? ScrabbleBoardImpl.fromText(sections[0])
+                                                         : ScrabbleBoardImpl.fromText(sections[0], sections[1]);
+
+        return new ScrabbleGameStateImpl(board, PlayerTileRackImpl.fromText(rack));
+    }
+
+    private static
+    Map<String, String> parseQuery(String rawQuery)
+    {
+        Map<String, String> parameters = new HashMap<>();
+
+        if (rawQuery == null)
+        {
+            return parameters;
+        }
+
+        for (String parameter : rawQuery.split("&"))
+        {
+            int separator = parameter.indexOf('=');
+
+            if (separator > 0)
+            {
+                parameters.put(URLDecoder.decode(parameter.substring(0, separator), StandardCharsets.UTF_8),
+                    URLDecoder.decode(parameter.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+
+        return parameters;
+    }
+
+    private static
+    String readBody(HttpExchange exchange) throws IOException
+    {
+        try (InputStream inputStream = exchange.getRequestBody())
+        {
+            byte[] body = inputStream.readNBytes(AnalysisServer.maxRequestBytes + 1);
+
+            if (body.length > AnalysisServer.maxRequestBytes)
+            {
+                throw new IllegalArgumentException("Request body is over " + AnalysisServer.maxRequestBytes + " bytes");
+            }
+
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static
+    String error(String message)
+    {
+        return MoveJson.appendString(new StringBuilder("{\"error\":"), message).append('}').toString();
+    }
+
+    private static
+    void respond(HttpExchange exchange, int status, String json) throws IOException
+    {
+        byte[] response = json.getBytes(StandardCharsets.UTF_8);
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, response.length);
+
+        try (OutputStream outputStream = exchange.getResponseBody())
+        {
+            outputStream.write(response);
+        }
+    }
+
+}
@@ -0,0 +1,609 @@
+package com.alexfh.scrabbleanalyzer.sim;
+
+import com.alexfh.scrabbleanalyzer.BoardAnalyzer;
+import com.alexfh.scrabbleanalyzer.Main;
+import com.alexfh.scrabbleanalyzer.ScrabbleGame;
+import com.alexfh.scrabbleanalyzer.ai.IMoveSink;
+import com.alexfh.scrabbleanalyzer.ai.MoveBuffer;
+import com.alexfh.scrabbleanalyzer.ai.MoveCache;
+import com.alexfh.scrabbleanalyzer.batch.PositionReader;
+import com.alexfh.scrabbleanalyzer.dictionary.IWordGraph;
+import com.alexfh.scrabbleanalyzer.gui.action.RevertibleAction;
+import com.alexfh.scrabbleanalyzer.rule.ILetterScoreMap;
+import com.alexfh.scrabbleanalyzer.rule.impl.LetterScoreMapImpl;
+import com.alexfh.scrabbleanalyzer.state.IScrabbleGameState;
+import com.alexfh.scrabbleanalyzer.state.impl.PlayerTileRackImpl;
+import com.alexfh.scrabbleanalyzer.state.impl.ScrabbleGameStateImpl;
+import com.alexfh.scrabbleanalyzer.util.CommandLineOptions;
+import com.alexfh.scrabbleanalyzer.util.ScrabbleUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+Exact solver for positions where the bag is empty, run with "endgame" as the first program argument:
+
+endgame <input> [--depth <n>] [--time <ms>] [--table-bits <n>] [--multipliers <file>]
+
+With the bag empty the unseen tiles are the opponent's rack, so the game is one of perfect information. The solver runs
+a negamax alpha-beta search over the spread from the side to move, the points it will score minus those of the
+opponent. A player going out wins twice the value of the other rack, as in Simulator, and two passes in a row end the
+game with both players losing the value of their own rack. Moves going out end the game, so they are valued without
+being made and tried first, then the best transposition table move, then the rest by score, then passing.
+
+Searches are iteratively deepened one ply at a time. Positions past the depth of an iteration count as 0, and the
+solver stops once an iteration finishes without reaching its depth anywhere, its result then being exact, or once the
+depth or time limit is hit, returning the last finished iteration.
+
+The last ply of an iteration only needs the best score, so below the root it is searched like findTopMoves, through a
+move sink that stops generating moves that can't beat alpha or the best so far. The reply to a move two plies from the
+depth is worth at least the 0 of passing, so such a move is only made when its score beats alpha. Other positions keep
+their moves sorted by score in a MoveCache keyed by position hash, which later iterations and transpositions reuse.
+
+The transposition table is a fixed array of entries indexed by the low bits of a Zobrist key of the board, the racks of
+the side to move and of the other side, and whether the last move was a pass. Each entry holds a bound on the value and
+the best move, as its index in the position's sorted moves. Values that did not depend on the depth of their iteration
+are stored as exact to the end of the game and are reused by every later iteration. An entry is replaced by a search of
+at least its depth, or by any search once it is from an earlier iteration.
+
+Moves are made and unmade on one board shared by both racks through MovePlayer and RevertibleAction, which keep the
+Zobrist hashes up to date, and one BoardAnalyzer follows the board through the search, only reanalyzing the lines the
+last make or unmake changed.
+ */
+public
+class EndgameSolver
+{
+
+    // the move of a player passing, which MovePlayer.play leaves the position unchanged for
+    public static final ScrabbleGame.Move pass = new ScrabbleGame.Move("", new char[0], new int[0], false, 0, 0, 0);
+
+    private static final String usage            =
+        "Usage: endgame <input> [--depth <n>] [--time <ms>] [--table-bits <n>] [--multipliers <file>]";
+    private static final int    defaultMaxDepth  = 32;
+    private static final long   defaultTimeLimit = 10000;
+    private static final int    defaultTableBits = 20;
+    private static final long   moveCacheBytes   = 256L << 20;
+    private static final int    infinity         = 1000000;
+    private static final byte   exactToEnd       = Byte.MAX_VALUE;
+    private static final long   passedKey        = 0x6A09E667F3BCC908L;
+    private static final byte   lowerBound       = 1;
+    private static final byte   upperBound       = 2;
+    private static final byte   exactBound       = 3;
+
+    public
+    record Result(List<ScrabbleGame.Move> line, int spread, int depth, boolean isExact, long nodes, long nanos)
+    {
+
+        public
+        double nodesPerSecond()
+        {
+            return this.nodes * 1000000000D / Math.max(1, this.nanos);
+        }
+
+    }
+
+    public static
+    void main(String[] args) throws IOException, InterruptedException
+    {
+        Path input;
+        int  maxDepth;
+        long timeLimit;
+        int  tableBits;
+        File multipliersFile;
+
+        try
+        {
+            CommandLineOptions options = CommandLineOptions.parse(args, 1, "--depth", "--time", "--table-bits",
+                "--multipliers");
+
+            input           = Path.of(options.getArgument(0, "input"));
+            maxDepth        = options.getInt("--depth", EndgameSolver.defaultMaxDepth, 1, EndgameSolver.exactToEnd - 1);
+            timeLimit       = options.getLong("--time", EndgameSolver.defaultTimeLimit, 1, Long.MAX_VALUE);
+            tableBits       = options.getInt("--table-bits", EndgameSolver.defaultTableBits, 1, 30);
+            multipliersFile = options.getFile("--multipliers", null);
+        }
+        catch (IllegalArgumentException e)
+        {
+            System.err.println(e.getMessage());
+            System.err.println(EndgameSolver.usage);
+
+            return;
+        }
+
+        ScrabbleUtil.setPrintTimings(false);
+
+        EndgameSolver solver         = new EndgameSolver(LetterScoreMapImpl.defaultScoreMap, Main.loadDictionary(),
+            tableBits);
+        int           finalMaxDepth  = maxDepth;
+        long          finalTimeLimit = timeLimit;
+
+        new PositionReader(multipliersFile).read(input, new PositionReader.PositionConsumer()
+        {
+            @Override
+            public
+            void accept(String name, IScrabbleGameState gameState) throws InterruptedException
+            {
+                Result result;
+
+                try
+                {
+                    result = solver.solve(gameState, finalMaxDepth, finalTimeLimit);
+                }
+                catch (IllegalArgumentException e)
+                {
+                    this.reject(name, e);
+
+                    return;
+                }
+
+                System.out.printf("%s: spread %+d, %s after %d plies%n", name, result.spread(),
+                    result.isExact() ? "exact" : "estimated", result.depth());
+
+                for (int i = 0; i < result.line().size(); i++)
+                {
+                    ScrabbleGame.Move move = result.line().get(i);
+
+                    if (move == EndgameSolver.pass)
+                    {
+                        System.out.printf("%3d. %-8s pass%n", i + 1, (i % 2 == 0) ? "player" : "opponent");
+                    }
+                    else
+                    {
+                        System.out.printf("%3d. %-8s %-15s %4d  %2d,%-2d %s%n", i + 1,
+                            (i % 2 == 0) ? "player" : "opponent", move.playedWord(), move.score(), move.row(),
+                            move.col(), move.isVertical() ? "down" : "across");
+                    }
+                }
+
+                System.err.printf("Searched %d nodes in %.3fs, %.0f nodes/s%n", result.nodes(),
+                    result.nanos() / 1000000000D, result.nodesPerSecond());
+            }
+
+            @Override
+            public
+            void reject(String name, Exception exception)
+            {
+                System.err.println(name + ": " + exception.getMessage());
+            }
+        });
+    }
+
+    // the best value of the moves given to it, see searchHorizon
+    private static
+    class HorizonSink implements IMoveSink
+    {
+
+        private int rackTiles;
+        private int goOutBonus;
+        private int alpha;
+        private int beta;
+        private int best;
+
+        @Override
+        public
+        void add(int row, int col, boolean isVertical, int score, char[] placedTiles, int[] tileSpotsInWord,
+                 int numPlacedTiles, char[] word, int wordLength)
+        {
+            this.best = Math.max(this.best, score + ((numPlacedTiles == this.rackTiles) ? this.goOutBonus : 0));
+        }
+
+        // a move that doesn't go out has to score more than the larger of alpha and the best value, one that does
+        // can score the bonus less
+        @Override
+        public
+        int getMinimumScore()
+        {
+            return (this.best >= this.beta) ? Integer.MAX_VALUE : Math.max(this.alpha, this.best) + 1 - this.goOutBonus;
+        }
+
+    }
+
+    private final ILetterScoreMap  scoreMap;
+    private final IWordGraph       dictionary;
+    private final BoardAnalyzer    analyzer;
+    private final MoveCache        moveCache   = new MoveCache(EndgameSolver.moveCacheBytes);
+    private final HorizonSink      horizonSink = new HorizonSink();
+    private final int              tableMask;
+    private final long[]           keys;
+    private final int[]            values;
+    private final int[]            bestChoices;
+    private final byte[]           depths;
+    private final byte[]           bounds;
+    private final byte[]           ages;
+    private       byte             age;
+    private       long             nodes;
+    private       long             deadline;
+    private       boolean          timedOut;
+    private       boolean          reachedHorizon;
+
+    // the transposition table has 2 ^ tableBits entries of 19 bytes
+    public
+    EndgameSolver(ILetterScoreMap scoreMap, IWordGraph dictionary, int tableBits)
+    {
+        this.scoreMap    = scoreMap;
+        this.dictionary  = dictionary;
+        this.analyzer    = new BoardAnalyzer(scoreMap, dictionary);
+        this.tableMask   = (1 << tableBits) - 1;
+        this.keys        = new long[1 << tableBits];
+        this.values      = new int[1 << tableBits];
+        this.bestChoices = new int[1 << tableBits];
+        this.depths      = new byte[1 << tableBits];
+        this.bounds      = new byte[1 << tableBits];
+        this.ages        = new byte[1 << tableBits];
+    }
+
+    // the best line for the player to move in position, whose unseen tiles must fit on the opponent's rack
+    public
+    Result solve(IScrabbleGameState position, int maxDepth, long timeLimitMillis) throws InterruptedException
+    {
+        IScrabbleGameState player   = position.copyScrabbleGame();
+        TileBag            unseen   = TileBag.unseen(player.getBoard(), player);
+        IScrabbleGameState opponent = new ScrabbleGameStateImpl(player.getBoard(),
+            new PlayerTileRackImpl(EndgameSolver.rackOf(unseen, player.getRackSize())));
+        long               start    = System.nanoTime();
+        Result             result   = new Result(List.of(), 0, 0, false, 0, 0);
+
+        this.nodes    = 0;
+        this.deadline = start + timeLimitMillis * 1000000;
+        this.timedOut = false;
+
+        for (int depth = 1; depth <= Math.min(maxDepth, EndgameSolver.exactToEnd - 1); depth++)
+        {
+            this.age++;
+            this.reachedHorizon = false;
+
+            int spread = this.search(player, opponent, depth, 0, -EndgameSolver.infinity, EndgameSolver.infinity,
+                false);
+
+            if (this.timedOut)
+            {
+                break;
+            }
+
+            result = new Result(this.principalVariation(player, opponent, depth), spread, depth, !this.reachedHorizon,
+                this.nodes, System.nanoTime() - start);
+
+            if (result.isExact())
+            {
+                break;
+            }
+        }
+
+        return new Result(result.line(), result.spread(), result.depth(), result.isExact(), this.nodes,
+            System.nanoTime() - start);
+    }
+
+    private
+    int search(IScrabbleGameState mover, IScrabbleGameState other, int depth, int ply, int alpha, int beta,
+               boolean lastPassed) throws InterruptedException
+    {
+        if (depth == 0)
+        {
+            this.reachedHorizon = true;
+
+            return 0;
+        }
+
+        this.nodes++;
+        ScrabbleUtil.checkInterrupted();
+
+        this.timedOut |= System.nanoTime() > this.deadline;
+
+        if (this.timedOut)
+        {
+            return 0;
+        }
+
+        long key        = this.getKey(mover, other, lastPassed);
+        int  slot       = (int) key & this.tableMask;
+        int  hashChoice = -1;
+
+        if (this.keys[slot] == key)
+        {
+            hashChoice = this.bestChoices[slot];
+
+            if (this.depths[slot] >= depth)
+            {
+                int  value = this.values[slot];
+                byte bound = this.bounds[slot];
+
+                if (bound == EndgameSolver.exactBound || (bound == EndgameSolver.lowerBound && value >= beta) ||
+                    (bound == EndgameSolver.upperBound && value <= alpha))
+                {
+                    this.reachedHorizon |= this.depths[slot] != EndgameSolver.exactToEnd;
+
+                    return value;
+                }
+            }
+        }
+
+        int moverRackValue = MovePlayer.getRackValue(mover, this.scoreMap);
+        int otherRackValue = MovePlayer.getRackValue(other, this.scoreMap);
+
+        // the root needs its best move, which the horizon search doesn't keep
+        if (depth == 1 && ply > 0)
+        {
+            int value = this.searchHorizon(mover, alpha, beta, lastPassed, moverRackValue, otherRackValue);
+
+            this.reachedHorizon = true;
+
+            this.store(key, slot, value, -1, (byte) depth,
+                (value <= alpha) ? EndgameSolver.upperBound
+                                 : (value >= beta) ? EndgameSolver.lowerBound : EndgameSolver.exactBound, false);
+
+            return value;
+        }
+
+        MoveBuffer moves         = this.getMoves(mover);
+        int        numChoices    = moves.size() + 1; // the last choice is passing
+        int        rackTiles     = mover.getNumTilesInRack();
+        int        originalAlpha = alpha;
+        int        best          = -EndgameSolver.infinity;
+        int        bestChoice    = -1;
+        boolean    outerHorizon  = this.reachedHorizon;
+
+        this.reachedHorizon = false;
+
+        if (hashChoice >= numChoices)
+        {
+            hashChoice = -1;
+        }
+
+        // going out ends the game, so those moves are valued without being made and are tried first to raise alpha
+        for (int choice = 0; choice < moves.size() && alpha < beta; choice++)
+        {
+            int value = moves.getScore(choice) + 2 * otherRackValue;
+
+            if (moves.getNumPlacedTiles(choice) == rackTiles && value > best)
+            {
+                best       = value;
+                bestChoice = choice;
+                alpha      = Math.max(alpha, value);
+            }
+        }
+
+        for (int n = (hashChoice >= 0) ? -1 : 0; n < numChoices && alpha < beta; n++)
+        {
+            int choice = (n < 0) ? hashChoice : n;
+            int value;
+
+            if (n == hashChoice || (choice < moves.size() && moves.getNumPlacedTiles(choice) == rackTiles))
+            {
+                continue;
+            }
+
+            if (choice == moves.size())
+            {
+                value = lastPassed ? otherRackValue - moverRackValue
+                                   : -this.search(other, mover, depth - 1, ply + 1, -beta, -alpha, true);
+            }
+            else if (depth == 1 || (depth == 2 && moves.getScore(choice) <= alpha))
+            {
+                // the reply at depth 1 is worth at least the 0 of passing, so the score is a bound on the move that
+                // is only searched when it could raise alpha
+                value = moves.getScore(choice);
+
+                this.reachedHorizon = true;
+            }
+            else
+            {
+                int              score  = moves.getScore(choice);
+                RevertibleAction action = MovePlayer.play(mover, moves.getMove(choice));
+
+                value = score - this.search(other, mover, depth - 1, ply + 1, score - beta, score - alpha, false);
+
+                action.undo();
+            }
+
+            if (this.timedOut)
+            {
+                return 0;
+            }
+
+            if (value > best)
+            {
+                best       = value;
+                bestChoice = choice;
+                alpha      = Math.max(alpha, value);
+            }
+        }
+
+        boolean dependsOnDepth = this.reachedHorizon;
+
+        this.reachedHorizon = outerHorizon || dependsOnDepth;
+
+        // the root always replaces its entry, for principalVariation to start from
+        this.store(key, slot, best, bestChoice, dependsOnDepth ? (byte) depth : EndgameSolver.exactToEnd,
+            (best <= originalAlpha) ? EndgameSolver.upperBound
+                                    : (best >= beta) ? EndgameSolver.lowerBound : EndgameSolver.exactBound, ply == 0);
+
+        return best;
+    }
+
+    private
+    void store(long key, int slot, int value, int bestChoice, byte depth, byte bound, boolean always)
+    {
+        if (!always && this.keys[slot] != key && this.ages[slot] == this.age && this.depths[slot] > depth)
+        {
+            return;
+        }
+
+        if (bestChoice < 0 && this.keys[slot] == key)
+        {
+            bestChoice = this.bestChoices[slot];
+        }
+
+        this.keys[slot]        = key;
+        this.values[slot]      = value;
+        this.bestChoices[slot] = bestChoice;
+        this.depths[slot]      = depth;
+        this.bounds[slot]      = bound;
+        this.ages[slot]        = this.age;
+    }
+
+    // the racks hash alike, so the other rack is rotated to tell it apart from the rack to move
+    private
+    long getKey(IScrabbleGameState mover, IScrabbleGameState other, boolean lastPassed)
+    {
+        return mover.getPositionHash() ^ Long.rotateLeft(other.getRackHash(), 1) ^
+               (lastPassed ? EndgameSolver.passedKey : 0);
+    }
+
+    /*
+    The value of a position at depth 1, the best of the scores of its moves, plus the going out bonus for the moves that
+    use the whole rack, and of passing. Moves are only generated as far as they could still raise alpha or the best
+    value found so far, and not at all once a value reaches beta, so a value of at most alpha is only an upper bound,
+    returned as alpha.
+     */
+    private
+    int searchHorizon(IScrabbleGameState mover, int alpha, int beta, boolean lastPassed, int moverRackValue,
+                      int otherRackValue) throws InterruptedException
+    {
+        HorizonSink sink = this.horizonSink;
+
+        sink.rackTiles  = mover.getNumTilesInRack();
+        sink.goOutBonus = 2 * otherRackValue;
+        sink.alpha      = alpha;
+        sink.beta       = beta;
+        sink.best       = lastPassed ? otherRackValue - moverRackValue : 0;
+
+        new ScrabbleGame(this.scoreMap, this.dictionary, mover, this.analyzer).findMoves(sink);
+
+        return Math.max(alpha, sink.best);
+    }
+
+    // the moves of mover sorted by score, shared through the move cache so they are only generated once per position
+    private
+    MoveBuffer getMoves(IScrabbleGameState mover) throws InterruptedException
+    {
+        long       positionHash = mover.getPositionHash();
+        MoveBuffer moves        = this.moveCache.get(positionHash);
+
+        if (moves == null)
+        {
+            moves = new MoveBuffer();
+
+            new ScrabbleGame(this.scoreMap, this.dictionary, mover, this.analyzer).findMoves(moves);
+            moves.sort();
+            moves.trimToSize();
+            this.moveCache.put(positionHash, moves);
+        }
+
+        return moves;
+    }
+
+    // follows the best moves of the transposition table from the root, leaving the position as it was
+    private
+    List<ScrabbleGame.Move> principalVariation(IScrabbleGameState player, IScrabbleGameState opponent, int maxPlies)
+        throws InterruptedException
+    {
+        List<ScrabbleGame.Move> line       = new ArrayList<>();
+        List<RevertibleAction>  actions    = new ArrayList<>();
+        IScrabbleGameState      mover      = player;
+        IScrabbleGameState      other      = opponent;
+        boolean                 lastPassed = false;
+
+        while (line.size() < maxPlies)
+        {
+            long       key    = this.getKey(mover, other, lastPassed);
+            int        slot   = (int) key & this.tableMask;
+            MoveBuffer moves  = this.getMoves(mover);
+            int        choice;
+
+            if (this.keys[slot] == key && this.bestChoices[slot] >= 0)
+            {
+                choice = this.bestChoices[slot];
+            }
+            else if (line.size() == maxPlies - 1)
+            {
+                // positions at depth 1 keep no best move, so the last one is picked the way searchHorizon values it
+                choice = this.getHorizonChoice(moves, mover, other, lastPassed);
+            }
+            else
+            {
+                break;
+            }
+
+            if (choice > moves.size())
+            {
+                break;
+            }
+
+            ScrabbleGame.Move move = (choice == moves.size()) ? EndgameSolver.pass : moves.getMove(choice);
+
+            line.add(move);
+            actions.add(MovePlayer.play(mover, move));
+
+            if (mover.getNumTilesInRack() == 0 || (lastPassed && move == EndgameSolver.pass))
+            {
+                break;
+            }
+
+            lastPassed = move == EndgameSolver.pass;
+            mover      = (mover == player) ? opponent : player;
+            other      = (other == player) ? opponent : player;
+        }
+
+        for (int i = actions.size() - 1; i >= 0; i--)
+        {
+            actions.get(i).undo();
+        }
+
+        return line;
+    }
+
+    // the best choice by the value searchHorizon gives it, moves.size() for passing
+    private
+    int getHorizonChoice(MoveBuffer moves, IScrabbleGameState mover, IScrabbleGameState other, boolean lastPassed)
+    {
+        int moverRackValue = MovePlayer.getRackValue(mover, this.scoreMap);
+        int otherRackValue = MovePlayer.getRackValue(other, this.scoreMap);
+        int best           = lastPassed ? otherRackValue - moverRackValue : 0;
+        int bestChoice     = moves.size();
+
+        for (int i = 0; i < moves.size(); i++)
+        {
+            int value = moves.getScore(i) +
+                        ((moves.getNumPlacedTiles(i) == mover.getNumTilesInRack()) ? 2 * otherRackValue : 0);
+
+            if (value > best)
+            {
+                best       = value;
+                bestChoice = i;
+            }
+        }
+
+        return bestChoice;
+    }
+
+    private static
+    char[] rackOf(TileBag tiles, int rackSize)
+    {
+        if (tiles.size() > rackSize)
+        {
+            throw new IllegalArgumentException("The bag is not empty, " + tiles.size() + " tiles are unseen");
+        }
+
+        char[] rack = new char[rackSize];
+        int    i    = 0;
+
+        Arrays.fill(rack, IScrabbleGameState.emptyMarker);
+
+        for (int t = 0; t < TileBag.numTileTypes; t++)
+        {
+            char tile = ScrabbleUtil.intToChar(t);
+
+            for (int n = 0; n < tiles.getCount(tile); n++)
+            {
+                rack[i++] = tile;
+            }
+        }
+
+        return rack;
+    }
+
+}
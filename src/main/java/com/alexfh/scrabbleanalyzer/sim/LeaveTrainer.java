@@ -0,0 +1,208 @@
+package com.alexfh.scrabbleanalyzer.sim;
+
+import com.alexfh.scrabbleanalyzer.Main;
+import com.alexfh.scrabbleanalyzer.ai.LeaveTable;
+import com.alexfh.scrabbleanalyzer.dictionary.IWordGraph;
+import com.alexfh.scrabbleanalyzer.rule.ILetterScoreMap;
+import com.alexfh.scrabbleanalyzer.rule.impl.LetterScoreMapImpl;
+import com.alexfh.scrabbleanalyzer.util.CommandLineOptions;
+import com.alexfh.scrabbleanalyzer.util.ScrabbleUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/*
+Fits a LeaveTable to self-play games, run with "train-leaves" as the first program argument:
+
+train-leaves [--games <n>] [--threads <n>] [--seed <n>] [--prior <n>] [--leaves <file>] [--output <file>]
+
+Games are played by SelfPlay, by score alone or by equity with the table given by --leaves, so a table can be refined by
+training again with it. Every turn observes the leave the player kept and the score of that player's next turn, which is
+what the leave was drawn to. A leave's value is the mean of its observed next scores less the mean over all leaves,
+shrunk towards 0 as if it had also been observed prior times at the mean, so that rarely seen leaves don't get extreme
+values from a handful of games. Leaves never observed are worth 0. The table is written to --output, by default the
+leaves file the UI loads.
+
+Games are split between a fixed pool of workers, each with its own SelfPlay and its own sums and counts per leave, which
+are only added together once every game is over, so workers never share a write. Each game gets its own
+SplittableRandom, split off the seed in a fixed order before any of them run, and scores are summed as integers, so the
+table depends only on the seed and not on the number of threads.
+ */
+public
+class LeaveTrainer
+{
+
+    private static final String usage        =
+        "Usage: train-leaves [--games <n>] [--threads <n>] [--seed <n>] [--prior <n>] [--leaves <file>] " +
+        "[--output <file>]";
+    private static final int    defaultGames = 1000;
+    private static final double defaultPrior = 20;
+
+    public
+    record Result(LeaveTable leaves, int games, long turns, long observations, long nanos)
+    {
+
+        public
+        double gamesPerSecond()
+        {
+            return this.games * 1000000000D / Math.max(1, this.nanos);
+        }
+
+        public
+        double turnsPerSecond()
+        {
+            return this.turns * 1000000000D / Math.max(1, this.nanos);
+        }
+
+    }
+
+    public static
+    void main(String[] args) throws IOException, InterruptedException
+    {
+        int    games;
+        int    threads;
+        long   seed;
+        double prior;
+        File   leavesFile;
+        File   outputFile;
+
+        try
+        {
+            CommandLineOptions options = CommandLineOptions.parse(args, 0, "--games", "--threads", "--seed", "--prior",
+                "--leaves", "--output");
+
+            games      = options.getInt("--games", LeaveTrainer.defaultGames, 1, Integer.MAX_VALUE);
+            threads    = options.getInt("--threads", Runtime.getRuntime().availableProcessors(), 1, Integer.MAX_VALUE);
+            seed       = options.getLong("--seed", System.nanoTime(), Long.MIN_VALUE, Long.MAX_VALUE);
+            prior      = options.getDouble("--prior", LeaveTrainer.defaultPrior, 0, Double.MAX_VALUE);
+            leavesFile = options.getFile("--leaves", null);
+            outputFile = options.getFile("--output", Main.getLeavesFile());
+        }
+        catch (IllegalArgumentException e)
+        {
+            System.err.println(e.getMessage());
+            System.err.println(LeaveTrainer.usage);
+
+            return;
+        }
+
+        ScrabbleUtil.setPrintTimings(false);
+
+        LeaveTrainer trainer = new LeaveTrainer(LetterScoreMapImpl.defaultScoreMap, Main.loadDictionary(),
+            (leavesFile == null) ? null : LeaveTable.fromFile(leavesFile), threads, prior);
+        Result       result  = trainer.train(games, seed);
+
+        Files.createDirectories(outputFile.getAbsoluteFile().getParentFile().toPath());
+        result.leaves().writeToFile(outputFile);
+        System.err.printf("Played %d games in %.3fs, %.2f games/s, %.0f turns/s, %d leave observations%n",
+            result.games(), result.nanos() / 1000000000D, result.gamesPerSecond(), result.turnsPerSecond(),
+            result.observations());
+        System.err.println("Wrote " + outputFile);
+    }
+
+    // one worker's totals, only read once its games are done
+    private static
+    class Accumulator
+    {
+
+        private final long[] sums       = new long[LeaveTable.numLeaves];
+        private final int[]  counts     = new int[LeaveTable.numLeaves];
+        // index of the leave each player kept on their last turn, -1 if none or too long to value
+        private final int[]  lastLeaves = new int[2];
+        private       long   turns      = 0;
+
+    }
+
+    private final ILetterScoreMap scoreMap;
+    private final IWordGraph      dictionary;
+    private final LeaveTable      playerLeaves;
+    private final int             threads;
+    private final double          prior;
+
+    // playerLeaves may be null for players that only go by score
+    public
+    LeaveTrainer(ILetterScoreMap scoreMap, IWordGraph dictionary, LeaveTable playerLeaves, int threads, double prior)
+    {
+        this.scoreMap     = scoreMap;
+        this.dictionary   = dictionary;
+        this.playerLeaves = playerLeaves;
+        this.threads      = threads;
+        this.prior        = prior;
+    }
+
+    public
+    Result train(int numGames, long seed) throws InterruptedException
+    {
+        long              start  = System.nanoTime();
+        List<Accumulator> totals = SelfPlay.playGames(this.scoreMap, this.dictionary, this.playerLeaves, numGames,
+            seed, this.threads, Accumulator::new, LeaveTrainer::playGame);
+
+        return this.fit(totals, numGames, System.nanoTime() - start);
+    }
+
+    private static
+    void playGame(SelfPlay selfPlay, SplittableRandom random, Accumulator accumulator) throws InterruptedException
+    {
+        int[] lastLeaves = accumulator.lastLeaves;
+
+        lastLeaves[0] = -1;
+        lastLeaves[1] = -1;
+
+        SelfPlay.GameResult game = selfPlay.play(random, (player, score, leave, leaveSize) ->
+        {
+            if (lastLeaves[player] >= 0)
+            {
+                accumulator.sums[lastLeaves[player]] += score;
+                accumulator.counts[lastLeaves[player]]++;
+            }
+
+            lastLeaves[player] = (leaveSize <= LeaveTable.maxLeaveSize) ? LeaveTable.getIndex(leave, leaveSize) : -1;
+        });
+
+        accumulator.turns += game.turns();
+    }
+
+    private
+    Result fit(List<Accumulator> totals, int numGames, long nanos)
+    {
+        long[] sums         = new long[LeaveTable.numLeaves];
+        long[] counts       = new long[LeaveTable.numLeaves];
+        long   sum          = 0;
+        long   observations = 0;
+        long   turns        = 0;
+
+        for (Accumulator accumulator : totals)
+        {
+            for (int i = 0; i < LeaveTable.numLeaves; i++)
+            {
+                sums[i] += accumulator.sums[i];
+                counts[i] += accumulator.counts[i];
+            }
+
+            turns += accumulator.turns;
+        }
+
+        for (int i = 0; i < LeaveTable.numLeaves; i++)
+        {
+            sum += sums[i];
+            observations += counts[i];
+        }
+
+        double  mean   = (observations == 0) ? 0 : 1.0D * sum / observations;
+        float[] values = new float[LeaveTable.numLeaves];
+
+        for (int i = 0; i < LeaveTable.numLeaves; i++)
+        {
+            if (counts[i] > 0)
+            {
+                values[i] = (float) ((sums[i] - counts[i] * mean) / (counts[i] + this.prior));
+            }
+        }
+
+        return new Result(new LeaveTable(values), numGames, turns, observations, nanos);
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.alexfh.scrabbleanalyzer.sim;
+
+import com.alexfh.scrabbleanalyzer.ScrabbleGame;
+import com.alexfh.scrabbleanalyzer.gui.action.RevertibleAction;
+import com.alexfh.scrabbleanalyzer.gui.action.RevertibleActionBuilder;
+import com.alexfh.scrabbleanalyzer.rule.ILetterScoreMap;
+import com.alexfh.scrabbleanalyzer.state.IPlayerTileRack;
+import com.alexfh.scrabbleanalyzer.state.IScrabbleGameState;
+
+/*
+Playing moves on a game state outside the UI, the same way ScrabbleGrid and PlayerTileGrid do: the placed tiles go on
+the board, wildcards as the letter they stand for, and are taken off the rack, which is left for the caller to refill.
+ */
+public
+class MovePlayer
+{
+
+    public static
+    RevertibleAction play(IScrabbleGameState gameState, ScrabbleGame.Move move)
+    {
+        RevertibleActionBuilder actionBuilder = new RevertibleActionBuilder();
+        ScrabbleGame.Offset     offset        = move.isVertical() ? ScrabbleGame.vertOffset : ScrabbleGame.horiOffset;
+
+        for (int i = 0; i < move.playedTiles().length; i++)
+        {
+            char placedChar = move.playedTiles()[i];
+            int  spotInWord = move.tileSpotsInWord()[i];
+            int  row        = offset.newRow(move.row(), spotInWord);
+            int  col        = offset.newCol(move.col(), spotInWord);
+
+            if (placedChar == IScrabbleGameState.wildCardTile)
+            {
+                actionBuilder.add(gameState.setCharAt(row, col, move.playedWord().charAt(spotInWord)));
+                actionBuilder.add(gameState.setWildcardAt(row, col, true));
+            }
+            else
+            {
+                actionBuilder.add(gameState.setCharAt(row, col, placedChar));
+            }
+
+            actionBuilder.add(gameState.removeTileInRackAt(MovePlayer.findTileInRack(gameState, placedChar)));
+        }
+
+        return actionBuilder.build();
+    }
+
+    // sum of the scores of the tiles left on the rack, wildcards being worth nothing
+    public static
+    int getRackValue(IPlayerTileRack rack, ILetterScoreMap scoreMap)
+    {
+        int value = 0;
+
+        for (int i = 0; i < rack.getRackSize(); i++)
+        {
+            if (!rack.isTileInRackEmptyAt(i) && !rack.isTileInRackWildcardAt(i))
+            {
+                value += scoreMap.getScore(rack.getTileInRackAt(i));
+            }
+        }
+
+        return value;
+    }
+
+    private static
+    int findTileInRack(IPlayerTileRack rack, char tile)
+    {
+        for (int i = 0; i < rack.getRackSize(); i++)
+        {
+            if (rack.getTileInRackAt(i) == tile)
+            {
+                return i;
+            }
+        }
+
+        throw new IllegalStateException("Move plays a '" + tile + "' that is not on the rack");
+    }
+
+}
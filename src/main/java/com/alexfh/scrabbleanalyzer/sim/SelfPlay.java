@@ -0,0 +1,292 @@
+package com.alexfh.scrabbleanalyzer.sim;
+
+import com.alexfh.scrabbleanalyzer.BoardAnalyzer;
+import com.alexfh.scrabbleanalyzer.ScrabbleGame;
+import com.alexfh.scrabbleanalyzer.ai.LeaveTable;
+import com.alexfh.scrabbleanalyzer.ai.MoveBuffer;
+import com.alexfh.scrabbleanalyzer.dictionary.IWordGraph;
+import com.alexfh.scrabbleanalyzer.rule.ILetterScoreMap;
+import com.alexfh.scrabbleanalyzer.state.IScrabbleGameState;
+import com.alexfh.scrabbleanalyzer.state.impl.PlayerTileRackImpl;
+import com.alexfh.scrabbleanalyzer.state.impl.ScrabbleGameStateImpl;
+import com.alexfh.scrabbleanalyzer.util.ScrabbleUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/*
+Complete games between two copies of one player, from an empty board and a full bag until a player goes out with the
+bag empty, both players pass in a row, or six turns in a row score nothing. On each turn the player to move plays its
+best move by score, or by equity when given a LeaveTable. Without a move it exchanges its whole rack while the bag
+holds at least a rack of tiles, and passes otherwise. Going out wins the value of the other rack, which the other player
+loses, and when the game ends any other way each player loses the value of their own rack.
+
+A game depends only on the SplittableRandom its tiles are drawn with. An instance plays one game at a time, keeping one
+BoardAnalyzer and one MoveBuffer for all of its games, so each thread playing games needs its own.
+
+playGames plays many games on a fixed pool of workers, each with its own SelfPlay and its own accumulator that the
+caller adds each game's results to, so workers never share a write. Each game gets its own SplittableRandom, split off
+the seed in a fixed order before any of them run, so the games played depend only on the seed and not on the number of
+threads.
+ */
+public
+class SelfPlay
+{
+
+    public
+    interface TurnObserver
+    {
+
+        // leave is the tiles player kept by ScrabbleUtil.charToInt in ascending order, only valid during the call
+        void onTurn(int player, int score, int[] leave, int leaveSize);
+
+    }
+
+    public
+    record GameResult(int[] scores, int turns)
+    {
+    }
+
+    // plays one game with a worker's SelfPlay and adds its results to that worker's accumulator
+    public
+    interface GamePlayer<T>
+    {
+
+        void playGame(SelfPlay selfPlay, SplittableRandom random, T accumulator) throws InterruptedException;
+
+    }
+
+    private static final int maxScorelessTurns = 6;
+
+    private final ILetterScoreMap scoreMap;
+    private final IWordGraph      dictionary;
+    private final LeaveTable      leaves;
+    private final BoardAnalyzer   analyzer;
+    private final MoveBuffer      moves = new MoveBuffer();
+
+    // leaves may be null for a player that only goes by score
+    public
+    SelfPlay(ILetterScoreMap scoreMap, IWordGraph dictionary, LeaveTable leaves)
+    {
+        this.scoreMap   = scoreMap;
+        this.dictionary = dictionary;
+        this.leaves     = leaves;
+        this.analyzer   = new BoardAnalyzer(scoreMap, dictionary);
+    }
+
+    public
+    GameResult play(SplittableRandom random, TurnObserver observer) throws InterruptedException
+    {
+        IScrabbleGameState   first     = ScrabbleGameStateImpl.defaultBlankScrabbleGameState();
+        IScrabbleGameState   second    = new ScrabbleGameStateImpl(first.getBoard(),
+            PlayerTileRackImpl.defaultBlankRack());
+        IScrabbleGameState[] players   = new IScrabbleGameState[]{ first, second };
+        int[]                scores    = new int[players.length];
+        TileBag              bag       = TileBag.standard();
+        int[]                leave     = new int[first.getRackSize()];
+        int                  turns     = 0;
+        int                  passes    = 0;
+        int                  scoreless = 0; // turns in a row scoring nothing
+
+        bag.fillRack(players[0], random);
+        bag.fillRack(players[1], random);
+
+        for (int player = 0; ; player = 1 - player)
+        {
+            IScrabbleGameState mover = players[player];
+            IScrabbleGameState other = players[1 - player];
+            ScrabbleGame.Move  move  = this.chooseMove(mover);
+
+            turns++;
+
+            if (move == null)
+            {
+                if (bag.size() >= mover.getRackSize())
+                {
+                    passes = 0;
+
+                    SelfPlay.exchange(mover, bag, random);
+                    observer.onTurn(player, 0, leave, 0);
+                }
+                else
+                {
+                    passes++;
+
+                    observer.onTurn(player, 0, leave, SelfPlay.getLeave(mover, leave));
+                }
+
+                if (passes == 2 || ++scoreless == SelfPlay.maxScorelessTurns)
+                {
+                    scores[player] -= MovePlayer.getRackValue(mover, this.scoreMap);
+                    scores[1 - player] -= MovePlayer.getRackValue(other, this.scoreMap);
+
+                    break;
+                }
+
+                continue;
+            }
+
+            passes = 0;
+            scoreless = (move.score() == 0) ? scoreless + 1 : 0;
+
+            MovePlayer.play(mover, move);
+
+            scores[player] += move.score();
+
+            observer.onTurn(player, move.score(), leave, SelfPlay.getLeave(mover, leave));
+            bag.fillRack(mover, random);
+
+            if (mover.getNumTilesInRack() == 0)
+            {
+                int otherRackValue = MovePlayer.getRackValue(other, this.scoreMap);
+
+                scores[player] += otherRackValue;
+                scores[1 - player] -= otherRackValue;
+
+                break;
+            }
+
+            if (scoreless == SelfPlay.maxScorelessTurns)
+            {
+                scores[player] -= MovePlayer.getRackValue(mover, this.scoreMap);
+                scores[1 - player] -= MovePlayer.getRackValue(other, this.scoreMap);
+
+                break;
+            }
+        }
+
+        return new GameResult(scores, turns);
+    }
+
+    // returns the accumulator of each worker, made on the worker's thread by newAccumulator, once all games are over
+    public static
+    <T> List<T> playGames(ILetterScoreMap scoreMap, IWordGraph dictionary, LeaveTable leaves, int numGames, long seed,
+                          int threads, Supplier<T> newAccumulator, GamePlayer<T> gamePlayer)
+        throws InterruptedException
+    {
+        SplittableRandom   random       = new SplittableRandom(seed);
+        SplittableRandom[] randoms      = new SplittableRandom[numGames];
+        List<Callable<T>>  workers      = new ArrayList<>();
+        List<T>            accumulators = new ArrayList<>();
+
+        for (int g = 0; g < numGames; g++)
+        {
+            randoms[g] = random.split();
+        }
+
+        for (int w = 0; w < threads; w++)
+        {
+            int workerNum = w;
+
+            // plays games workerNum, workerNum + threads, ...
+            workers.add(() ->
+            {
+                SelfPlay selfPlay    = new SelfPlay(scoreMap, dictionary, leaves);
+                T        accumulator = newAccumulator.get();
+
+                for (int g = workerNum; g < numGames; g += threads)
+                {
+                    gamePlayer.playGame(selfPlay, randoms[g], accumulator);
+                }
+
+                return accumulator;
+            });
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+        try
+        {
+            for (Future<T> worker : pool.invokeAll(workers))
+            {
+                accumulators.add(worker.get());
+            }
+        }
+        catch (ExecutionException e)
+        {
+            throw new IllegalStateException("Self-play failed", e.getCause());
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+
+        return accumulators;
+    }
+
+    // null to pass
+    private
+    ScrabbleGame.Move chooseMove(IScrabbleGameState mover) throws InterruptedException
+    {
+        ScrabbleGame game = new ScrabbleGame(this.scoreMap, this.dictionary, mover, this.analyzer);
+
+        if (this.leaves == null)
+        {
+            List<ScrabbleGame.Move> best = game.findTopMoves(1);
+
+            return best.isEmpty() ? null : best.get(0);
+        }
+
+        this.moves.clear();
+        game.findMoves(this.moves);
+
+        if (this.moves.size() == 0)
+        {
+            return null;
+        }
+
+        this.moves.sortByEquity(this.leaves, mover.getTilesInRack());
+
+        return this.moves.getMove(0);
+    }
+
+    // draws a new rack before putting the old tiles back, so none of them can be drawn again straight away
+    private static
+    void exchange(IScrabbleGameState mover, TileBag bag, SplittableRandom random)
+    {
+        char[] oldTiles    = new char[mover.getRackSize()];
+        int    numOldTiles = 0;
+
+        for (int i = 0; i < mover.getRackSize(); i++)
+        {
+            if (!mover.isTileInRackEmptyAt(i))
+            {
+                oldTiles[numOldTiles++] = mover.getTileInRackAt(i);
+
+                mover.removeTileInRackAt(i);
+            }
+        }
+
+        bag.fillRack(mover, random);
+
+        for (int i = 0; i < numOldTiles; i++)
+        {
+            bag.add(oldTiles[i]);
+        }
+    }
+
+    // sorts the tiles left on the rack into leave, returning how many there are
+    private static
+    int getLeave(IScrabbleGameState mover, int[] leave)
+    {
+        List<Character> tiles = mover.getTilesInRack();
+
+        for (int i = 0; i < tiles.size(); i++)
+        {
+            leave[i] = ScrabbleUtil.charToInt(tiles.get(i));
+        }
+
+        Arrays.sort(leave, 0, tiles.size());
+
+        return tiles.size();
+    }
+
+}
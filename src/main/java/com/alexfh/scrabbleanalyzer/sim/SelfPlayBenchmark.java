@@ -0,0 +1,187 @@
+package com.alexfh.scrabbleanalyzer.sim;
+
+import com.alexfh.scrabbleanalyzer.Main;
+import com.alexfh.scrabbleanalyzer.ai.LeaveTable;
+import com.alexfh.scrabbleanalyzer.dictionary.IWordGraph;
+import com.alexfh.scrabbleanalyzer.rule.ILetterScoreMap;
+import com.alexfh.scrabbleanalyzer.rule.impl.LetterScoreMapImpl;
+import com.alexfh.scrabbleanalyzer.util.CommandLineOptions;
+import com.alexfh.scrabbleanalyzer.util.ScrabbleUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/*
+End to end engine throughput over complete self-play games, run with "selfplay" as the first program argument:
+
+selfplay [--games <n>] [--warmup <n>] [--threads <n>] [--seed <n>] [--leaves <file>]
+
+Games are played by SelfPlay.playGames, by score or by equity with the table given by --leaves. After the warmup games,
+which let the JIT compile the move generator and are not counted, it reports games and positions, the turns played, per
+second, and the bytes allocated per position by the games, as counted by the JVM for each thread.
+
+The seed is fixed unless given, so every run plays the same games whatever the number of threads. The sum of the final
+scores is printed as a checksum to tell runs of the same games apart from runs where the engine plays differently.
+ */
+public
+class SelfPlayBenchmark
+{
+
+    private static final String usage         =
+        "Usage: selfplay [--games <n>] [--warmup <n>] [--threads <n>] [--seed <n>] [--leaves <file>]";
+    private static final int    defaultGames  = 100;
+    private static final int    defaultWarmup = 10;
+    private static final long   defaultSeed   = 0;
+
+    // allocatedBytes is -1 if the JVM doesn't count allocations per thread
+    public
+    record Result(int games, long positions, long allocatedBytes, long scoreSum, long nanos)
+    {
+
+        public
+        double gamesPerSecond()
+        {
+            return this.games * 1000000000D / Math.max(1, this.nanos);
+        }
+
+        public
+        double positionsPerSecond()
+        {
+            return this.positions * 1000000000D / Math.max(1, this.nanos);
+        }
+
+        public
+        double bytesPerPosition()
+        {
+            return (this.allocatedBytes < 0) ? -1 : 1.0D * this.allocatedBytes / Math.max(1, this.positions);
+        }
+
+    }
+
+    public static
+    void main(String[] args) throws IOException, InterruptedException
+    {
+        int  games;
+        int  warmup;
+        int  threads;
+        long seed;
+        File leavesFile;
+
+        try
+        {
+            CommandLineOptions options = CommandLineOptions.parse(args, 0, "--games", "--warmup", "--threads",
+                "--seed", "--leaves");
+
+            games      = options.getInt("--games", SelfPlayBenchmark.defaultGames, 1, Integer.MAX_VALUE);
+            warmup     = options.getInt("--warmup", SelfPlayBenchmark.defaultWarmup, 0, Integer.MAX_VALUE);
+            threads    = options.getInt("--threads", Runtime.getRuntime().availableProcessors(), 1, Integer.MAX_VALUE);
+            seed       = options.getLong("--seed", SelfPlayBenchmark.defaultSeed, Long.MIN_VALUE, Long.MAX_VALUE);
+            leavesFile = options.getFile("--leaves", null);
+        }
+        catch (IllegalArgumentException e)
+        {
+            System.err.println(e.getMessage());
+            System.err.println(SelfPlayBenchmark.usage);
+
+            return;
+        }
+
+        ScrabbleUtil.setPrintTimings(false);
+
+        SelfPlayBenchmark benchmark = new SelfPlayBenchmark(LetterScoreMapImpl.defaultScoreMap, Main.loadDictionary(),
+            (leavesFile == null) ? null : LeaveTable.fromFile(leavesFile), threads);
+
+        if (warmup > 0)
+        {
+            benchmark.run(warmup, ~seed);
+        }
+
+        Result result = benchmark.run(games, seed);
+
+        System.out.printf("%d games, %d positions on %d threads in %.3fs%n", result.games(), result.positions(),
+            threads, result.nanos() / 1000000000D);
+        System.out.printf("%.2f games/s, %.0f positions/s%n", result.gamesPerSecond(), result.positionsPerSecond());
+        System.out.println((result.allocatedBytes() < 0) ? "allocation per position not available" :
+                           String.format("%.0f bytes allocated per position", result.bytesPerPosition()));
+        System.out.println("score checksum " + result.scoreSum());
+    }
+
+    // one worker's totals, only read once its games are done
+    private static
+    class WorkerTotals
+    {
+
+        private long positions      = 0;
+        private long allocatedBytes = 0;
+        private long scoreSum       = 0;
+
+    }
+
+    private final ILetterScoreMap scoreMap;
+    private final IWordGraph      dictionary;
+    private final LeaveTable      leaves;
+    private final int             threads;
+
+    // leaves may be null for players that only go by score
+    public
+    SelfPlayBenchmark(ILetterScoreMap scoreMap, IWordGraph dictionary, LeaveTable leaves, int threads)
+    {
+        this.scoreMap   = scoreMap;
+        this.dictionary = dictionary;
+        this.leaves     = leaves;
+        this.threads    = threads;
+    }
+
+    public
+    Result run(int numGames, long seed) throws InterruptedException
+    {
+        long               start          = System.nanoTime();
+        List<WorkerTotals> workers        = SelfPlay.playGames(this.scoreMap, this.dictionary, this.leaves, numGames,
+            seed, this.threads, WorkerTotals::new, SelfPlayBenchmark::playGame);
+        long               nanos          = System.nanoTime() - start;
+        long               positions      = 0;
+        long               allocatedBytes = 0;
+        long               scoreSum       = 0;
+
+        for (WorkerTotals totals : workers)
+        {
+            positions += totals.positions;
+            allocatedBytes = (allocatedBytes < 0 || totals.allocatedBytes < 0)
+                             ? -1 : allocatedBytes + totals.allocatedBytes;
+            scoreSum += totals.scoreSum;
+        }
+
+        return new Result(numGames, positions, allocatedBytes, scoreSum, nanos);
+    }
+
+    // counts what the game allocates on the worker's thread, leaving out the worker's setup
+    private static
+    void playGame(SelfPlay selfPlay, SplittableRandom random, WorkerTotals totals) throws InterruptedException
+    {
+        long                startAllocated = SelfPlayBenchmark.getAllocatedBytes();
+        SelfPlay.GameResult game           = selfPlay.play(random, (player, score, leave, leaveSize) -> { });
+        long                endAllocated   = SelfPlayBenchmark.getAllocatedBytes();
+
+        totals.positions += game.turns();
+        totals.allocatedBytes = (startAllocated < 0 || totals.allocatedBytes < 0)
+                                ? -1 : totals.allocatedBytes + endAllocated - startAllocated;
+        totals.scoreSum += game.scores()[0] + game.scores()[1];
+    }
+
+    // bytes allocated by the current thread so far, or -1 if the JVM doesn't count them
+    private static
+    long getAllocatedBytes()
+    {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadBean &&
+            threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled())
+        {
+            return threadBean.getCurrentThreadAllocatedBytes();
+        }
+
+        return -1;
+    }
+
+}
@@ -0,0 +1,321 @@
+package com.alexfh.scrabbleanalyzer.sim;
+
+import com.alexfh.scrabbleanalyzer.BoardAnalyzer;
+import com.alexfh.scrabbleanalyzer.Main;
+import com.alexfh.scrabbleanalyzer.ScrabbleGame;
+import com.alexfh.scrabbleanalyzer.batch.PositionReader;
+import com.alexfh.scrabbleanalyzer.dictionary.IWordGraph;
+import com.alexfh.scrabbleanalyzer.rule.ILetterScoreMap;
+import com.alexfh.scrabbleanalyzer.rule.impl.LetterScoreMapImpl;
+import com.alexfh.scrabbleanalyzer.state.IScrabbleGameState;
+import com.alexfh.scrabbleanalyzer.state.impl.PlayerTileRackImpl;
+import com.alexfh.scrabbleanalyzer.state.impl.ScrabbleGameStateImpl;
+import com.alexfh.scrabbleanalyzer.util.CommandLineOptions;
+import com.alexfh.scrabbleanalyzer.util.ScrabbleUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/*
+Monte Carlo ranking of candidate moves, run with "simulate" as the first program argument:
+
+simulate <input> [--candidates <n>] [--iterations <n>] [--plies <n>] [--threads <n>] [--seed <n>]
+         [--multipliers <file>]
+
+The input is read by PositionReader, as for batch. The best candidates by score are each played out a number of times.
+A rollout plays the candidate, gives the opponent a random rack from the unseen tiles, refills the player's rack from
+the rest, and then has the opponent and the player take turns playing their best scoring move for the given number of
+plies, passing when they have none. The result of a rollout is its spread, the points of the player minus those of the
+opponent from the candidate on, where going out also wins twice the value of the tiles left on the other rack.
+Candidates are ranked by their mean spread, with a 95% confidence interval from the normal approximation.
+
+Rollouts run on a fixed pool of workers sharing the dictionary. Each worker keeps one BoardAnalyzer for all of its
+rollouts, which only reanalyzes the lines changed since the board of its previous generation, so the cross-checks of a
+candidate's board are mostly computed once per worker rather than once per rollout. Every rollout gets its own
+SplittableRandom, split off the seed in a fixed order before any of them run, so results depend only on the seed and
+not on the number of threads.
+ */
+public
+class Simulator
+{
+
+    private static final String usage             =
+        "Usage: simulate <input> [--candidates <n>] [--iterations <n>] [--plies <n>] [--threads <n>] [--seed <n>] " +
+        "[--multipliers <file>]";
+    private static final int    defaultCandidates = 10;
+    private static final int    defaultIterations = 100;
+    private static final int    defaultPlies      = 2;
+    private static final double confidenceZ       = 1.96;
+
+    public
+    record Result(ScrabbleGame.Move move, int iterations, double meanSpread, double standardDeviation)
+    {
+
+        // half width of the 95% confidence interval of meanSpread
+        public
+        double confidenceInterval()
+        {
+            return Simulator.confidenceZ * this.standardDeviation / Math.sqrt(this.iterations);
+        }
+
+    }
+
+    public static
+    void main(String[] args) throws IOException, InterruptedException
+    {
+        Path input;
+        int  candidates;
+        int  iterations;
+        int  plies;
+        int  threads;
+        long seed;
+        File multipliersFile;
+
+        try
+        {
+            CommandLineOptions options = CommandLineOptions.parse(args, 1, "--candidates", "--iterations", "--plies",
+                "--threads", "--seed", "--multipliers");
+
+            input           = Path.of(options.getArgument(0, "input"));
+            candidates      = options.getInt("--candidates", Simulator.defaultCandidates, 1, Integer.MAX_VALUE);
+            iterations      = options.getInt("--iterations", Simulator.defaultIterations, 1, Integer.MAX_VALUE);
+            plies           = options.getInt("--plies", Simulator.defaultPlies, 0, Integer.MAX_VALUE);
+            threads         = options.getInt("--threads", Runtime.getRuntime().availableProcessors(), 1,
+                Integer.MAX_VALUE);
+            seed            = options.getLong("--seed", System.nanoTime(), Long.MIN_VALUE, Long.MAX_VALUE);
+            multipliersFile = options.getFile("--multipliers", null);
+        }
+        catch (IllegalArgumentException e)
+        {
+            System.err.println(e.getMessage());
+            System.err.println(Simulator.usage);
+
+            return;
+        }
+
+        ScrabbleUtil.setPrintTimings(false);
+
+        Simulator simulator       = new Simulator(LetterScoreMapImpl.defaultScoreMap, Main.loadDictionary(), plies,
+            threads);
+        int       finalCandidates = candidates;
+        int       finalIterations = iterations;
+        long      finalSeed       = seed;
+
+        new PositionReader(multipliersFile).read(input, new PositionReader.PositionConsumer()
+        {
+            @Override
+            public
+            void accept(String name, IScrabbleGameState gameState) throws InterruptedException
+            {
+                long         start   = System.nanoTime();
+                List<Result> results = simulator.simulate(gameState, finalCandidates, finalIterations, finalSeed);
+
+                System.out.println(name);
+
+                for (int i = 0; i < results.size(); i++)
+                {
+                    Result            result = results.get(i);
+                    ScrabbleGame.Move move   = result.move();
+
+                    System.out.printf("%3d. %-15s %4d  %2d,%-2d %-6s spread %+8.2f +/- %.2f%n", i + 1,
+                        move.playedWord(), move.score(), move.row(), move.col(), move.isVertical() ? "down" : "across",
+                        result.meanSpread(), result.confidenceInterval());
+                }
+
+                System.err.println("Simulated " + results.size() * finalIterations + " rollouts in " +
+                                   1.0D * (System.nanoTime() - start) / 1000000000 + "s");
+            }
+
+            @Override
+            public
+            void reject(String name, Exception exception)
+            {
+                System.err.println(name + ": " + exception.getMessage());
+            }
+        });
+    }
+
+    private final ILetterScoreMap scoreMap;
+    private final IWordGraph      dictionary;
+    private final int             plies;
+    private final int             threads;
+
+    public
+    Simulator(ILetterScoreMap scoreMap, IWordGraph dictionary, int plies, int threads)
+    {
+        this.scoreMap   = scoreMap;
+        this.dictionary = dictionary;
+        this.plies      = plies;
+        this.threads    = threads;
+    }
+
+    // the best numCandidates moves by score, ranked by simulation
+    public
+    List<Result> simulate(IScrabbleGameState position, int numCandidates, int iterations, long seed)
+        throws InterruptedException
+    {
+        List<ScrabbleGame.Move> candidates = new ScrabbleGame(this.scoreMap, this.dictionary,
+            position.snapshot()).findTopMoves(numCandidates);
+
+        return this.simulate(position, candidates, iterations, seed);
+    }
+
+    public
+    List<Result> simulate(IScrabbleGameState position, List<ScrabbleGame.Move> candidates, int iterations, long seed)
+        throws InterruptedException
+    {
+        IScrabbleGameState         start     = position.snapshot();
+        TileBag                    unseen    = TileBag.unseen(start.getBoard(), start);
+        SplittableRandom           random    = new SplittableRandom(seed);
+        int[][]                    spreads   = new int[candidates.size()][iterations];
+        List<Callable<Void>>       rollouts  = new ArrayList<>();
+        ThreadLocal<BoardAnalyzer> analyzers = ThreadLocal.withInitial(
+            () -> new BoardAnalyzer(this.scoreMap, this.dictionary));
+
+        for (int c = 0; c < candidates.size(); c++)
+        {
+            for (int i = 0; i < iterations; i++)
+            {
+                int               candidateNum  = c;
+                int               iterationNum  = i;
+                SplittableRandom  rolloutRandom = random.split();
+                ScrabbleGame.Move candidate     = candidates.get(c);
+
+                rollouts.add(() ->
+                {
+                    spreads[candidateNum][iterationNum] = this.rollout(start, candidate, unseen, rolloutRandom,
+                        analyzers.get());
+
+                    return null;
+                });
+            }
+        }
+
+        ExecutorService workers = Executors.newFixedThreadPool(this.threads);
+
+        try
+        {
+            for (Future<Void> rollout : workers.invokeAll(rollouts))
+            {
+                rollout.get();
+            }
+        }
+        catch (ExecutionException e)
+        {
+            throw new IllegalStateException("Rollout failed", e.getCause());
+        }
+        finally
+        {
+            workers.shutdownNow();
+        }
+
+        List<Result> results = new ArrayList<>();
+
+        for (int c = 0; c < candidates.size(); c++)
+        {
+            results.add(Simulator.summarize(candidates.get(c), spreads[c]));
+        }
+
+        results.sort(Comparator.comparingDouble(Result::meanSpread).reversed());
+
+        return results;
+    }
+
+    private
+    int rollout(IScrabbleGameState start, ScrabbleGame.Move candidate, TileBag unseen, SplittableRandom random,
+                BoardAnalyzer analyzer) throws InterruptedException
+    {
+        IScrabbleGameState player   = start.copyScrabbleGame();
+        IScrabbleGameState opponent = new ScrabbleGameStateImpl(player.getBoard(),
+            new PlayerTileRackImpl(Simulator.emptyRack(player.getRackSize())));
+        TileBag            bag      = unseen.copy();
+
+        bag.fillRack(opponent, random);
+        MovePlayer.play(player, candidate);
+        bag.fillRack(player, random);
+
+        int spread = candidate.score();
+
+        if (player.getNumTilesInRack() == 0)
+        {
+            return spread + 2 * MovePlayer.getRackValue(opponent, this.scoreMap);
+        }
+
+        boolean lastPassed = false;
+
+        for (int ply = 0; ply < this.plies; ply++)
+        {
+            boolean                 isOpponent = ply % 2 == 0;
+            IScrabbleGameState      mover      = isOpponent ? opponent : player;
+            int                     sign       = isOpponent ? -1 : 1;
+            List<ScrabbleGame.Move> best       = new ScrabbleGame(this.scoreMap, this.dictionary, mover,
+                analyzer).findTopMoves(1);
+
+            if (best.isEmpty())
+            {
+                if (lastPassed)
+                {
+                    break;
+                }
+
+                lastPassed = true;
+
+                continue;
+            }
+
+            lastPassed = false;
+
+            MovePlayer.play(mover, best.get(0));
+            bag.fillRack(mover, random);
+
+            spread += sign * best.get(0).score();
+
+            if (mover.getNumTilesInRack() == 0)
+            {
+                spread += sign * 2 * MovePlayer.getRackValue(isOpponent ? player : opponent, this.scoreMap);
+
+                break;
+            }
+        }
+
+        return spread;
+    }
+
+    private static
+    char[] emptyRack(int rackSize)
+    {
+        char[] rack = new char[rackSize];
+
+        Arrays.fill(rack, IScrabbleGameState.emptyMarker);
+
+        return rack;
+    }
+
+    private static
+    Result summarize(ScrabbleGame.Move move, int[] spreads)
+    {
+        double mean     = Arrays.stream(spreads).average().orElse(0);
+        double variance = 0;
+
+        for (int spread : spreads)
+        {
+            variance += (spread - mean) * (spread - mean);
+        }
+
+        variance = (spreads.length > 1) ? variance / (spreads.length - 1) : 0;
+
+        return new Result(move, spreads.length, mean, Math.sqrt(variance));
+    }
+
+}
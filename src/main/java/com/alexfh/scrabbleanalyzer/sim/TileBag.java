@@ -0,0 +1,168 @@
+package com.alexfh.scrabbleanalyzer.sim;
+
+import com.alexfh.scrabbleanalyzer.state.IPlayerTileRack;
+import com.alexfh.scrabbleanalyzer.state.IScrabbleBoard;
+import com.alexfh.scrabbleanalyzer.state.IScrabbleGameState;
+import com.alexfh.scrabbleanalyzer.util.ScrabbleUtil;
+
+import java.util.SplittableRandom;
+
+/*
+Multiset of tiles to draw from, counted by ScrabbleUtil.charToInt with wildcards at index 26. standard is the full set
+of tiles the default layout is played with, and unseen is what is left of it once the tiles a player can see, those on
+the board and on their own rack, are taken out. The unseen tiles are the opponent's rack and the bag together.
+ */
+public
+class TileBag
+{
+
+    public static final int numTileTypes = IScrabbleGameState.alphaChars.length + 1;
+
+    // a to z, then wildcards
+    private static final int[] standardCounts = new int[]{ 9, 2, 2, 5, 13, 2, 3, 4, 8, 1, 1, 4, 2, 5, 8, 2, 1, 6, 5, 7,
+                                                           4, 2, 2, 1, 2, 1, 2 };
+
+    public static
+    TileBag standard()
+    {
+        return new TileBag(TileBag.standardCounts.clone());
+    }
+
+    // tiles a player can't see, counting any that would take a count below zero as already gone
+    public static
+    TileBag unseen(IScrabbleBoard board, IPlayerTileRack rack)
+    {
+        TileBag bag = TileBag.standard();
+
+        for (int r = 0; r < board.getRows(); r++)
+        {
+            for (int c = 0; c < board.getCols(); c++)
+            {
+                if (!board.isEmptyAt(r, c))
+                {
+                    bag.removeIfPresent(board.isWildcardAt(r, c) ? IScrabbleGameState.wildCardTile
+                                                                 : board.getCharAt(r, c));
+                }
+            }
+        }
+
+        for (int i = 0; i < rack.getRackSize(); i++)
+        {
+            if (!rack.isTileInRackEmptyAt(i))
+            {
+                bag.removeIfPresent(rack.getTileInRackAt(i));
+            }
+        }
+
+        return bag;
+    }
+
+    private final int[] counts;
+    private       int   size;
+
+    private
+    TileBag(int[] counts)
+    {
+        this.counts = counts;
+
+        for (int count : counts)
+        {
+            this.size += count;
+        }
+    }
+
+    public
+    TileBag copy()
+    {
+        return new TileBag(this.counts.clone());
+    }
+
+    public
+    int size()
+    {
+        return this.size;
+    }
+
+    public
+    boolean isEmpty()
+    {
+        return this.size == 0;
+    }
+
+    public
+    int getCount(char tile)
+    {
+        return this.counts[ScrabbleUtil.charToInt(tile)];
+    }
+
+    public
+    void add(char tile)
+    {
+        this.counts[ScrabbleUtil.charToInt(tile)]++;
+        this.size++;
+    }
+
+    public
+    void remove(char tile)
+    {
+        if (!this.removeIfPresent(tile))
+        {
+            throw new IllegalStateException("No '" + tile + "' left in the bag");
+        }
+    }
+
+    public
+    boolean removeIfPresent(char tile)
+    {
+        int index = ScrabbleUtil.charToInt(tile);
+
+        if (this.counts[index] == 0)
+        {
+            return false;
+        }
+
+        this.counts[index]--;
+        this.size--;
+
+        return true;
+    }
+
+    // a uniformly random tile, taken out of the bag
+    public
+    char draw(SplittableRandom random)
+    {
+        if (this.size == 0)
+        {
+            throw new IllegalStateException("The bag is empty");
+        }
+
+        int pick = random.nextInt(this.size);
+
+        for (int i = 0; ; i++)
+        {
+            pick -= this.counts[i];
+
+            if (pick < 0)
+            {
+                this.counts[i]--;
+                this.size--;
+
+                return ScrabbleUtil.intToChar(i);
+            }
+        }
+    }
+
+    // fills the empty slots of the rack for as long as there are tiles left
+    public
+    void fillRack(IPlayerTileRack rack, SplittableRandom random)
+    {
+        for (int i = 0; i < rack.getRackSize() && this.size > 0; i++)
+        {
+            if (rack.isTileInRackEmptyAt(i))
+            {
+                rack.setTileInRackAt(i, this.draw(random));
+            }
+        }
+    }
+
+}
@@ -43,11 +43,22 @@ interface IPlayerTileRack
 
     List<Character> getTilesInRack();
 
+    // ZobristHash.hashRack of the rack, kept up to date as it changes
+    long getRackHash();
+
     IPlayerTileRack copyRack();
 
+    // an unmodifiable view of the rack as it is now, unaffected by later changes to it
+    IPlayerTileRack snapshotRack();
+
     default
     boolean isEqualTo(IPlayerTileRack otherRack)
     {
+        if (this.getRackHash() != otherRack.getRackHash())
+        {
+            return false;
+        }
+
         return this.getRackSize() == otherRack.getRackSize() && IntStream.range(0, this.getRackSize())
             .allMatch(i -> this.getTileInRackAt(i) == otherRack.getTileInRackAt(i)) &&
                this.getTilesInRack().equals(otherRack.getTilesInRack());
@@ -1,6 +1,7 @@
 package com.alexfh.scrabbleanalyzer.state;
 
 import com.alexfh.scrabbleanalyzer.gui.action.RevertibleAction;
+import com.alexfh.scrabbleanalyzer.util.ScrabbleUtil;
 
 import java.util.function.BiPredicate;
 import java.util.stream.IntStream;
@@ -9,6 +10,41 @@ public
 interface IScrabbleBoard
 {
 
+    /*
+    A square packed into a byte: bits 0-4 hold 1 + the index of its tile, or 0 if it is empty, and squareWildcardBit is
+    set if the tile is a wildcard.
+     */
+    int squareTileMask    = 0x1F;
+    int squareWildcardBit = 0x20;
+
+    static
+    byte toSquare(char tile, boolean isWildcard)
+    {
+        int tileBits = (tile == IScrabbleGameState.emptyMarker) ? 0 : ScrabbleUtil.charToInt(tile) + 1;
+
+        return (byte) (tileBits | (isWildcard ? IScrabbleBoard.squareWildcardBit : 0));
+    }
+
+    static
+    boolean isSquareEmpty(byte square)
+    {
+        return (square & IScrabbleBoard.squareTileMask) == 0;
+    }
+
+    static
+    char getSquareTile(byte square)
+    {
+        int tileBits = square & IScrabbleBoard.squareTileMask;
+
+        return (tileBits == 0) ? IScrabbleGameState.emptyMarker : ScrabbleUtil.intToChar(tileBits - 1);
+    }
+
+    static
+    boolean isSquareWildcard(byte square)
+    {
+        return (square & IScrabbleBoard.squareWildcardBit) != 0;
+    }
+
     int getRows();
 
     int getCols();
@@ -19,6 +55,13 @@ interface IScrabbleBoard
 
     char getCharAt(int r, int c);
 
+    // tile and wildcard flag of a square in one read
+    default
+    byte getSquareAt(int r, int c)
+    {
+        return IScrabbleBoard.toSquare(this.getCharAt(r, c), this.isWildcardAt(r, c));
+    }
+
     RevertibleAction setCharAt(int r, int c, char newChar);
 
     RevertibleAction removeCharAt(int r, int c);
@@ -37,11 +80,22 @@ interface IScrabbleBoard
 
     int getAnchorCol();
 
+    // ZobristHash.hashBoard of the board, kept up to date as it changes
+    long getBoardHash();
+
     IScrabbleBoard copyBoard();
 
+    // an unmodifiable view of the board as it is now, unaffected by later changes to it
+    IScrabbleBoard snapshotBoard();
+
     default
     boolean isEqualTo(IScrabbleBoard otherBoard)
     {
+        if (this.getBoardHash() != otherBoard.getBoardHash())
+        {
+            return false;
+        }
+
         return this.getRows() == otherBoard.getRows() && this.getCols() == otherBoard.getCols() && this.trueForAllTiles(
             (r, c) -> this.getLetterMultiplierAt(r, c) == otherBoard.getLetterMultiplierAt(r, c)) &&
                this.trueForAllTiles((r, c) -> this.getWordMultiplierAt(r, c) == otherBoard.getWordMultiplierAt(r, c)) &&
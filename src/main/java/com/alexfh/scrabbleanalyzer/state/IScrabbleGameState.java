@@ -12,6 +12,19 @@ interface IScrabbleGameState extends IScrabbleBoard, IPlayerTileRack
 
     IScrabbleGameState copyScrabbleGame();
 
+    // an unmodifiable view of the game as it is now, for reading on another thread while this one keeps changing
+    IScrabbleGameState snapshot();
+
+    // the board on its own, for reading it without going through this game state
+    IScrabbleBoard getBoard();
+
+    // ZobristHash.hash of the position, without rehashing the board
+    default
+    long getPositionHash()
+    {
+        return this.getBoardHash() ^ this.getRackHash();
+    }
+
     default
     boolean isEqualTo(IScrabbleGameState otherGameState)
     {
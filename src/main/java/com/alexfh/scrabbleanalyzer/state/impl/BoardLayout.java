@@ -0,0 +1,170 @@
+package com.alexfh.scrabbleanalyzer.state.impl;
+
+import java.util.Arrays;
+
+/*
+The immutable part of a board: its dimensions, its anchor, and the letter and word multiplier of each square, kept in
+flat row-major arrays indexed like ScrabbleBoardImpl's squares. Copies of a board share its layout, and boards read
+with the standard multipliers all share defaultLayout.
+ */
+public final
+class BoardLayout
+{
+
+    private static final int[][] defaultLetterMultipliers = new int[][]{
+        new int[]{ 1, 1, 1, 1, 1, 1, 3, 1, 3, 1, 1, 1, 1, 1, 1 },
+        new int[]{ 1, 1, 2, 1, 1, 1, 1, 1, 1, 1, 1, 1, 2, 1, 1 },
+        new int[]{ 1, 2, 1, 1, 2, 1, 1, 1, 1, 1, 2, 1, 1, 2, 1 },
+        new int[]{ 1, 1, 1, 3, 1, 1, 1, 1, 1, 1, 1, 3, 1, 1, 1 },
+        new int[]{ 1, 1, 2, 1, 1, 1, 2, 1, 2, 1, 1, 1, 2, 1, 1 },
+        new int[]{ 1, 1, 1, 1, 1, 3, 1, 1, 1, 3, 1, 1, 1, 1, 1 },
+        new int[]{ 3, 1, 1, 1, 2, 1, 1, 1, 1, 1, 2, 1, 1, 1, 3 },
+        new int[]{ 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1 },
+        new int[]{ 3, 1, 1, 1, 2, 1, 1, 1, 1, 1, 2, 1, 1, 1, 3 },
+        new int[]{ 1, 1, 1, 1, 1, 3, 1, 1, 1, 3, 1, 1, 1, 1, 1 },
+        new int[]{ 1, 1, 2, 1, 1, 1, 2, 1, 2, 1, 1, 1, 2, 1, 1 },
+        new int[]{ 1, 1, 1, 3, 1, 1, 1, 1, 1, 1, 1, 3, 1, 1, 1 },
+        new int[]{ 1, 2, 1, 1, 2, 1, 1, 1, 1, 1, 2, 1, 1, 2, 1 },
+        new int[]{ 1, 1, 2, 1, 1, 1, 1, 1, 1, 1, 1, 1, 2, 1, 1 },
+        new int[]{ 1, 1, 1, 1, 1, 1, 3, 1, 3, 1, 1, 1, 1, 1, 1 }, };
+
+    private static final int[][] defaultWordMultipliers = new int[][]{
+        new int[]{ 1, 1, 1, 3, 1, 1, 1, 1, 1, 1, 1, 3, 1, 1, 1 },
+        new int[]{ 1, 1, 1, 1, 1, 2, 1, 1, 1, 2, 1, 1, 1, 1, 1 },
+        new int[]{ 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1 },
+        new int[]{ 3, 1, 1, 1, 1, 1, 1, 2, 1, 1, 1, 1, 1, 1, 3 },
+        new int[]{ 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1 },
+        new int[]{ 1, 2, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 2, 1 },
+        new int[]{ 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1 },
+        new int[]{ 1, 1, 1, 2, 1, 1, 1, 1, 1, 1, 1, 2, 1, 1, 1 },
+        new int[]{ 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1 },
+        new int[]{ 1, 2, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 2, 1 },
+        new int[]{ 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1 },
+        new int[]{ 3, 1, 1, 1, 1, 1, 1, 2, 1, 1, 1, 1, 1, 1, 3 },
+        new int[]{ 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1 },
+        new int[]{ 1, 1, 1, 1, 1, 2, 1, 1, 1, 2, 1, 1, 1, 1, 1 },
+        new int[]{ 1, 1, 1, 3, 1, 1, 1, 1, 1, 1, 1, 3, 1, 1, 1 }, };
+
+    public static final BoardLayout defaultLayout = new BoardLayout(BoardLayout.defaultLetterMultipliers,
+        BoardLayout.defaultWordMultipliers, 7, 7);
+
+    // defaultLayout if the arguments describe it, so that it is shared instead of duplicated
+    public static
+    BoardLayout of(int[][] letterMultipliers, int[][] wordMultipliers, int anchorRow, int anchorCol)
+    {
+        BoardLayout layout = new BoardLayout(letterMultipliers, wordMultipliers, anchorRow, anchorCol);
+
+        return layout.equals(BoardLayout.defaultLayout) ? BoardLayout.defaultLayout : layout;
+    }
+
+    private final int    rows;
+    private final int    cols;
+    private final int    anchorRow;
+    private final int    anchorCol;
+    private final byte[] letterMultipliers;
+    private final byte[] wordMultipliers;
+
+    private
+    BoardLayout(int[][] letterMultipliers, int[][] wordMultipliers, int anchorRow, int anchorCol)
+    {
+        this.rows              = letterMultipliers.length;
+        this.cols              = letterMultipliers[0].length;
+        this.anchorRow         = anchorRow;
+        this.anchorCol         = anchorCol;
+        this.letterMultipliers = BoardLayout.flatten(letterMultipliers, this.rows, this.cols);
+        this.wordMultipliers   = BoardLayout.flatten(wordMultipliers, this.rows, this.cols);
+    }
+
+    private static
+    byte[] flatten(int[][] multipliers, int rows, int cols)
+    {
+        if (multipliers.length != rows)
+        {
+            throw new IllegalStateException("Multiplier rows are not equal: " + multipliers.length + "!=" + rows);
+        }
+
+        byte[] flat = new byte[rows * cols];
+
+        for (int r = 0; r < rows; r++)
+        {
+            if (multipliers[r].length != cols)
+            {
+                throw new IllegalStateException("Non-rectangular multipliers");
+            }
+
+            for (int c = 0; c < cols; c++)
+            {
+                int multiplier = multipliers[r][c];
+
+                if (multiplier < 0 || multiplier > Byte.MAX_VALUE)
+                {
+                    throw new IllegalStateException("Invalid multiplier: " + multiplier);
+                }
+
+                flat[r * cols + c] = (byte) multiplier;
+            }
+        }
+
+        return flat;
+    }
+
+    public
+    int getRows()
+    {
+        return this.rows;
+    }
+
+    public
+    int getCols()
+    {
+        return this.cols;
+    }
+
+    public
+    int getAnchorRow()
+    {
+        return this.anchorRow;
+    }
+
+    public
+    int getAnchorCol()
+    {
+        return this.anchorCol;
+    }
+
+    public
+    int getIndex(int r, int c)
+    {
+        return r * this.cols + c;
+    }
+
+    public
+    int getLetterMultiplier(int index)
+    {
+        return this.letterMultipliers[index];
+    }
+
+    public
+    int getWordMultiplier(int index)
+    {
+        return this.wordMultipliers[index];
+    }
+
+    @Override
+    public
+    boolean equals(Object o)
+    {
+        return o instanceof BoardLayout other && this.rows == other.rows && this.cols == other.cols &&
+               this.anchorRow == other.anchorRow && this.anchorCol == other.anchorCol &&
+               Arrays.equals(this.letterMultipliers, other.letterMultipliers) &&
+               Arrays.equals(this.wordMultipliers, other.wordMultipliers);
+    }
+
+    @Override
+    public
+    int hashCode()
+    {
+        return 31 * Arrays.hashCode(this.letterMultipliers) + Arrays.hashCode(this.wordMultipliers);
+    }
+
+}
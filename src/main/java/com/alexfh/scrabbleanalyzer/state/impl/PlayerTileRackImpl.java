@@ -1,18 +1,23 @@
 package com.alexfh.scrabbleanalyzer.state.impl;
 
 import com.alexfh.scrabbleanalyzer.gui.action.RevertibleAction;
-import com.alexfh.scrabbleanalyzer.gui.action.RevertibleActionBuilder;
 import com.alexfh.scrabbleanalyzer.state.IPlayerTileRack;
 import com.alexfh.scrabbleanalyzer.state.IScrabbleGameState;
 import com.alexfh.scrabbleanalyzer.util.ScrabbleUtil;
+import com.alexfh.scrabbleanalyzer.util.ZobristHash;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+/*
+Copies and snapshots share the tiles of the rack they were taken from until either is written to, the same way as
+ScrabbleBoardImpl's squares.
+ */
 public
 class PlayerTileRackImpl implements IPlayerTileRack
 {
@@ -26,7 +31,13 @@ class PlayerTileRackImpl implements IPlayerTileRack
     public static
     IPlayerTileRack fromFile(File rackFile) throws IOException
     {
-        String playerTiles = Files.readString(rackFile.toPath(), StandardCharsets.UTF_8).strip().toLowerCase()
+        return PlayerTileRackImpl.fromText(Files.readString(rackFile.toPath(), StandardCharsets.UTF_8));
+    }
+
+    public static
+    IPlayerTileRack fromText(String rackText)
+    {
+        String playerTiles = rackText.strip().toLowerCase()
             .replaceAll(String.valueOf(IScrabbleGameState.wildCardMarker),
                 String.valueOf(IScrabbleGameState.wildCardTile));
 
@@ -39,21 +50,29 @@ class PlayerTileRackImpl implements IPlayerTileRack
     }
 
     private final int             rackSize;
-    private final char[]          placedTiles;
-    private final List<Character> playerTiles;
+    private final boolean         isSnapshot;
+    private       char[]          placedTiles;
+    private       List<Character> playerTiles;
+    private       boolean         sharesTiles = false; // placedTiles and playerTiles are cloned before writing
+    private       int[]           tileCounts  = new int[27]; // occurrences of each tile, as numbered by the hash
+    private       long            hash        = 0;
 
     public
     PlayerTileRackImpl(int rackSize, char[] placedTiles, List<Character> playerTiles)
     {
         this.rackSize    = rackSize;
+        this.isSnapshot  = false;
         this.placedTiles = placedTiles;
         this.playerTiles = playerTiles;
+
+        this.initializeHash();
     }
 
     public
     PlayerTileRackImpl(char[] placedTiles)
     {
         this.rackSize    = placedTiles.length;
+        this.isSnapshot  = false;
         this.placedTiles = placedTiles;
         this.playerTiles = new ArrayList<>(this.rackSize);
 
@@ -66,14 +85,44 @@ class PlayerTileRackImpl implements IPlayerTileRack
                 this.playerTiles.add(currentChar);
             }
         }
+
+        this.initializeHash();
     }
 
+    // shares the tiles of source, which must be marked as shared by the caller
     private
-    PlayerTileRackImpl(char[] placedTiles, List<Character> playerTiles)
+    PlayerTileRackImpl(PlayerTileRackImpl source, boolean isSnapshot)
     {
-        this.rackSize    = placedTiles.length;
-        this.placedTiles = placedTiles;
-        this.playerTiles = playerTiles;
+        this.rackSize    = source.rackSize;
+        this.isSnapshot  = isSnapshot;
+        this.placedTiles = source.placedTiles;
+        this.playerTiles = source.playerTiles;
+        this.sharesTiles = true;
+        this.tileCounts  = source.tileCounts.clone();
+        this.hash        = source.hash;
+    }
+
+    private
+    void initializeHash()
+    {
+        for (char tile : this.placedTiles)
+        {
+            this.replaceInHash(IScrabbleGameState.emptyMarker, tile);
+        }
+    }
+
+    private
+    void replaceInHash(char oldTile, char newTile)
+    {
+        if (oldTile != IScrabbleGameState.emptyMarker)
+        {
+            this.hash ^= ZobristHash.rackTileKey(oldTile, --this.tileCounts[ScrabbleUtil.charToInt(oldTile)]);
+        }
+
+        if (newTile != IScrabbleGameState.emptyMarker)
+        {
+            this.hash ^= ZobristHash.rackTileKey(newTile, this.tileCounts[ScrabbleUtil.charToInt(newTile)]++);
+        }
     }
 
     @Override
@@ -101,6 +150,11 @@ class PlayerTileRackImpl implements IPlayerTileRack
     public
     RevertibleAction setTileInRackAt(final int i, final char c)
     {
+        if (this.isSnapshot)
+        {
+            throw new UnsupportedOperationException("Rack snapshots can not be modified");
+        }
+
         final char oldChar = this.placedTiles[i];
 
         if (oldChar == c)
@@ -108,35 +162,98 @@ class PlayerTileRackImpl implements IPlayerTileRack
             return RevertibleAction.NULL_REVERTIBLE_ACTION;
         }
 
-        RevertibleActionBuilder actionBuilder = new RevertibleActionBuilder();
+        // the actions go through this rather than capturing placedTiles and playerTiles, which are replaced when cloned
+        final int removeIndex = this.playerTiles.indexOf(oldChar);
+
+        return RevertibleAction.of(() -> this.replaceTile(i, oldChar, c, removeIndex),
+            () -> this.restoreTile(i, oldChar, c, removeIndex));
+    }
+
+    private
+    void replaceTile(int i, char oldChar, char newChar, int removeIndex)
+    {
+        this.ownTiles();
+
+        if (removeIndex >= 0)
+        {
+            this.playerTiles.remove(removeIndex);
+        }
 
-        if (!this.isTileInRackEmptyAt(i))
+        if (newChar != IScrabbleGameState.emptyMarker)
         {
-            actionBuilder.add(RevertibleAction.removeElementFromListByEquality(this.playerTiles, oldChar));
+            this.playerTiles.add(newChar);
         }
 
-        if (c != IScrabbleGameState.emptyMarker)
+        this.placedTiles[i] = newChar;
+
+        this.replaceInHash(oldChar, newChar);
+    }
+
+    private
+    void restoreTile(int i, char oldChar, char newChar, int removeIndex)
+    {
+        this.ownTiles();
+        this.replaceInHash(newChar, oldChar);
+
+        this.placedTiles[i] = oldChar;
+
+        if (newChar != IScrabbleGameState.emptyMarker)
         {
-            actionBuilder.add(RevertibleAction.addToList(this.playerTiles, c));
+            this.playerTiles.remove(this.playerTiles.size() - 1);
         }
 
-        actionBuilder.add(RevertibleAction.setCharAt(this.placedTiles, i, c));
+        if (removeIndex >= 0)
+        {
+            this.playerTiles.add(removeIndex, oldChar);
+        }
+    }
 
-        return actionBuilder.build();
+    private
+    void ownTiles()
+    {
+        if (this.sharesTiles)
+        {
+            this.placedTiles = this.placedTiles.clone();
+            this.playerTiles = new ArrayList<>(this.playerTiles);
+            this.sharesTiles = false;
+        }
     }
 
     @Override
     public
     List<Character> getTilesInRack()
     {
-        return this.playerTiles;
+        return this.sharesTiles ? Collections.unmodifiableList(this.playerTiles) : this.playerTiles;
+    }
+
+    @Override
+    public
+    long getRackHash()
+    {
+        return this.hash;
     }
 
     @Override
     public
     IPlayerTileRack copyRack()
     {
-        return new PlayerTileRackImpl(this.placedTiles.clone(), new ArrayList<>(this.playerTiles));
+        this.sharesTiles = true;
+
+        return new PlayerTileRackImpl(this, false);
+    }
+
+    @Override
+    public
+    IPlayerTileRack snapshotRack()
+    {
+        if (this.isSnapshot)
+        {
+            return this;
+        }
+
+        this.sharesTiles = true;
+
+        return new PlayerTileRackImpl(this, true);
     }
 
 }
@@ -4,51 +4,25 @@ import com.alexfh.scrabbleanalyzer.gui.action.RevertibleAction;
 import com.alexfh.scrabbleanalyzer.state.IScrabbleBoard;
 import com.alexfh.scrabbleanalyzer.state.IScrabbleGameState;
 import com.alexfh.scrabbleanalyzer.util.ScrabbleUtil;
+import com.alexfh.scrabbleanalyzer.util.ZobristHash;
 import com.alexfh.scrabbleanalyzer.util.structure.ImmutablePair;
 import com.alexfh.scrabbleanalyzer.util.structure.Pair;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.Arrays;
-
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/*
+Copies and snapshots share the squares of the board they were taken from, and whichever board is written to first
+clones them, so taking either costs the same regardless of the board size. Snapshots can not be modified, and since the
+board they were taken from never writes to squares it shares, they can be read from another thread while the original
+keeps changing. Copies and snapshots must be taken on the thread that modifies the original.
+ */
 public
 class ScrabbleBoardImpl implements IScrabbleBoard
 {
 
-    private static final int[][] defaultLetterMultipliers = new int[][]{
-        new int[]{ 1, 1, 1, 1, 1, 1, 3, 1, 3, 1, 1, 1, 1, 1, 1 },
-        new int[]{ 1, 1, 2, 1, 1, 1, 1, 1, 1, 1, 1, 1, 2, 1, 1 },
-        new int[]{ 1, 2, 1, 1, 2, 1, 1, 1, 1, 1, 2, 1, 1, 2, 1 },
-        new int[]{ 1, 1, 1, 3, 1, 1, 1, 1, 1, 1, 1, 3, 1, 1, 1 },
-        new int[]{ 1, 1, 2, 1, 1, 1, 2, 1, 2, 1, 1, 1, 2, 1, 1 },
-        new int[]{ 1, 1, 1, 1, 1, 3, 1, 1, 1, 3, 1, 1, 1, 1, 1 },
-        new int[]{ 3, 1, 1, 1, 2, 1, 1, 1, 1, 1, 2, 1, 1, 1, 3 },
-        new int[]{ 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1 },
-        new int[]{ 3, 1, 1, 1, 2, 1, 1, 1, 1, 1, 2, 1, 1, 1, 3 },
-        new int[]{ 1, 1, 1, 1, 1, 3, 1, 1, 1, 3, 1, 1, 1, 1, 1 },
-        new int[]{ 1, 1, 2, 1, 1, 1, 2, 1, 2, 1, 1, 1, 2, 1, 1 },
-        new int[]{ 1, 1, 1, 3, 1, 1, 1, 1, 1, 1, 1, 3, 1, 1, 1 },
-        new int[]{ 1, 2, 1, 1, 2, 1, 1, 1, 1, 1, 2, 1, 1, 2, 1 },
-        new int[]{ 1, 1, 2, 1, 1, 1, 1, 1, 1, 1, 1, 1, 2, 1, 1 },
-        new int[]{ 1, 1, 1, 1, 1, 1, 3, 1, 3, 1, 1, 1, 1, 1, 1 }, };
-
-    private static final int[][] defaultWordMultipliers = new int[][]{
-        new int[]{ 1, 1, 1, 3, 1, 1, 1, 1, 1, 1, 1, 3, 1, 1, 1 },
-        new int[]{ 1, 1, 1, 1, 1, 2, 1, 1, 1, 2, 1, 1, 1, 1, 1 },
-        new int[]{ 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1 },
-        new int[]{ 3, 1, 1, 1, 1, 1, 1, 2, 1, 1, 1, 1, 1, 1, 3 },
-        new int[]{ 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1 },
-        new int[]{ 1, 2, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 2, 1 },
-        new int[]{ 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1 },
-        new int[]{ 1, 1, 1, 2, 1, 1, 1, 1, 1, 1, 1, 2, 1, 1, 1 },
-        new int[]{ 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1 },
-        new int[]{ 1, 2, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 2, 1 },
-        new int[]{ 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1 },
-        new int[]{ 3, 1, 1, 1, 1, 1, 1, 2, 1, 1, 1, 1, 1, 1, 3 },
-        new int[]{ 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1 },
-        new int[]{ 1, 1, 1, 1, 1, 2, 1, 1, 1, 2, 1, 1, 1, 1, 1 },
-        new int[]{ 1, 1, 1, 3, 1, 1, 1, 1, 1, 1, 1, 3, 1, 1, 1 }, };
-
     public static
     char[][] getNewEmptyBoard(int row, int col)
     {
@@ -68,15 +42,38 @@ class ScrabbleBoardImpl implements IScrabbleBoard
     public static
     IScrabbleBoard defaultBlankBoard()
     {
-        return new ScrabbleBoardImpl(15, 15, ScrabbleBoardImpl.defaultLetterMultipliers,
-            ScrabbleBoardImpl.defaultWordMultipliers, ScrabbleBoardImpl.getNewEmptyBoard(15, 15), new boolean[15][15]);
+        return new ScrabbleBoardImpl(BoardLayout.defaultLayout, new byte[15 * 15]);
     }
 
     public static
     ScrabbleBoardImpl fromFiles(File gameFile, File multipliersFile) throws IOException
     {
-        Pair<char[][], boolean[][]> gameData          = ScrabbleBoardImpl.readGameFile(gameFile);
-        Pair<int[][], int[][]>      multipliersData   = ScrabbleBoardImpl.readMultipliersFile(multipliersFile);
+        return ScrabbleBoardImpl.fromText(Files.readString(gameFile.toPath(), StandardCharsets.UTF_8),
+            Files.readString(multipliersFile.toPath(), StandardCharsets.UTF_8));
+    }
+
+    // a board in the game file format on the default 15x15 multipliers
+    public static
+    ScrabbleBoardImpl fromText(String gameText)
+    {
+        Pair<char[][], boolean[][]> gameData    = ScrabbleBoardImpl.parseGameText(gameText);
+        char[][]                    playedTiles = gameData.getLeft();
+
+        if (playedTiles.length != 15 || playedTiles[0].length != 15)
+        {
+            throw new IllegalStateException(
+                "Game board is not 15x15: " + playedTiles.length + "x" + playedTiles[0].length);
+        }
+
+        return new ScrabbleBoardImpl(BoardLayout.defaultLayout,
+            ScrabbleBoardImpl.toSquares(playedTiles, gameData.getRight(), 15, 15));
+    }
+
+    public static
+    ScrabbleBoardImpl fromText(String gameText, String multipliersText)
+    {
+        Pair<char[][], boolean[][]> gameData          = ScrabbleBoardImpl.parseGameText(gameText);
+        Pair<int[][], int[][]>      multipliersData   = ScrabbleBoardImpl.parseMultipliersText(multipliersText);
         char[][]                    playedTiles       = gameData.getLeft();
         boolean[][]                 wildcardTiles     = gameData.getRight();
         int[][]                     letterMultipliers = multipliersData.getLeft();
@@ -102,13 +99,13 @@ class ScrabbleBoardImpl implements IScrabbleBoard
     }
 
     private static
-    Pair<int[][], int[][]> readMultipliersFile(File multipliersFile) throws IOException
+    Pair<int[][], int[][]> parseMultipliersText(String multipliersText)
     {
         char[][] boardText;
 
         try
         {
-            boardText = ScrabbleUtil.readRectangularBoardText(multipliersFile);
+            boardText = ScrabbleUtil.parseRectangularBoardText(multipliersText);
         }
         catch (IllegalStateException e)
         {
@@ -166,13 +163,13 @@ class ScrabbleBoardImpl implements IScrabbleBoard
     }
 
     private static
-    Pair<char[][], boolean[][]> readGameFile(File gameFile) throws IOException
+    Pair<char[][], boolean[][]> parseGameText(String gameText)
     {
         char[][] boardText;
 
         try
         {
-            boardText = ScrabbleUtil.readRectangularBoardText(gameFile);
+            boardText = ScrabbleUtil.parseRectangularBoardText(gameText);
         }
         catch (IllegalStateException e)
         {
@@ -206,14 +203,35 @@ class ScrabbleBoardImpl implements IScrabbleBoard
         return new ImmutablePair<>(playedTiles, wildcardTiles);
     }
 
-    private final int         rows;
-    private final int         cols;
-    private final int[][]     letterMultipliers;
-    private final int[][]     wordMultipliers;
-    private final char[][]    playedTiles;
-    private final boolean[][] wildcardTiles;
-    private final int         anchorRow;
-    private final int         anchorCol;
+    private static
+    byte[] toSquares(char[][] playedTiles, boolean[][] wildcardTiles, int rows, int cols)
+    {
+        byte[] squares = new byte[rows * cols];
+
+        for (int r = 0; r < rows; r++)
+        {
+            for (int c = 0; c < cols; c++)
+            {
+                char tile = playedTiles[r][c];
+
+                if (tile != IScrabbleGameState.emptyMarker && (tile < 'a' || tile > 'z'))
+                {
+                    throw new IllegalStateException("Invalid tile: '" + tile + "'");
+                }
+
+                squares[r * cols + c] = IScrabbleBoard.toSquare(tile, wildcardTiles[r][c]);
+            }
+        }
+
+        return squares;
+    }
+
+    // one IScrabbleBoard square byte per square, row-major
+    private final BoardLayout layout;
+    private final boolean     isSnapshot;
+    private       byte[]      squares;
+    private       boolean     sharesSquares; // squares is shared with a copy or snapshot, and is cloned before writing
+    private       long        hash;
 
     public
     ScrabbleBoardImpl(int rows, int cols, int[][] letterMultipliers, int[][] wordMultipliers, char[][] playedTiles,
@@ -226,49 +244,89 @@ class ScrabbleBoardImpl implements IScrabbleBoard
     ScrabbleBoardImpl(int rows, int cols, int[][] letterMultipliers, int[][] wordMultipliers, char[][] playedTiles,
                       boolean[][] wildcardTiles, int anchorRow, int anchorCol)
     {
-        this.rows              = rows;
-        this.cols              = cols;
-        this.letterMultipliers = letterMultipliers;
-        this.wordMultipliers   = wordMultipliers;
-        this.playedTiles       = playedTiles;
-        this.wildcardTiles     = wildcardTiles;
-        this.anchorRow         = anchorRow;
-        this.anchorCol         = anchorCol;
+        this(BoardLayout.of(letterMultipliers, wordMultipliers, anchorRow, anchorCol),
+            ScrabbleBoardImpl.toSquares(playedTiles, wildcardTiles, rows, cols));
+    }
+
+    public
+    ScrabbleBoardImpl(BoardLayout layout, byte[] squares)
+    {
+        if (squares.length != layout.getRows() * layout.getCols())
+        {
+            throw new IllegalStateException("Squares do not match the board layout");
+        }
+
+        this.layout        = layout;
+        this.isSnapshot    = false;
+        this.squares       = squares;
+        this.sharesSquares = false;
+        this.hash          = ZobristHash.hashBoard(this);
+    }
+
+    // shares the squares of source, which must be marked as shared by the caller
+    private
+    ScrabbleBoardImpl(ScrabbleBoardImpl source, boolean isSnapshot)
+    {
+        this.layout        = source.layout;
+        this.isSnapshot    = isSnapshot;
+        this.squares       = source.squares;
+        this.sharesSquares = true;
+        this.hash          = source.hash;
+    }
+
+    public
+    BoardLayout getLayout()
+    {
+        return this.layout;
     }
 
     @Override
     public
     int getRows()
     {
-        return this.rows;
+        return this.layout.getRows();
     }
 
     @Override
     public
     int getCols()
     {
-        return this.cols;
+        return this.layout.getCols();
     }
 
     @Override
     public
     int getLetterMultiplierAt(int r, int c)
     {
-        return this.letterMultipliers[r][c];
+        return this.layout.getLetterMultiplier(this.layout.getIndex(r, c));
     }
 
     @Override
     public
     int getWordMultiplierAt(int r, int c)
     {
-        return this.wordMultipliers[r][c];
+        return this.layout.getWordMultiplier(this.layout.getIndex(r, c));
+    }
+
+    @Override
+    public
+    byte getSquareAt(int r, int c)
+    {
+        return this.squares[this.layout.getIndex(r, c)];
     }
 
     @Override
     public
     char getCharAt(int r, int c)
     {
-        return this.playedTiles[r][c];
+        return IScrabbleBoard.getSquareTile(this.getSquareAt(r, c));
+    }
+
+    @Override
+    public
+    boolean isEmptyAt(int r, int c)
+    {
+        return IScrabbleBoard.isSquareEmpty(this.getSquareAt(r, c));
     }
 
     @Override
@@ -281,7 +339,7 @@ class ScrabbleBoardImpl implements IScrabbleBoard
         }
         else
         {
-            return RevertibleAction.setCharAt(this.playedTiles, r, c, newChar);
+            return this.setSquare(r, c, newChar, this.isWildcardAt(r, c));
         }
     }
 
@@ -289,49 +347,112 @@ class ScrabbleBoardImpl implements IScrabbleBoard
     public
     RevertibleAction removeCharAt(int r, int c)
     {
-        return RevertibleAction.compoundActionOf(
-            RevertibleAction.setCharAt(this.playedTiles, r, c, IScrabbleGameState.emptyMarker),
-            this.setWildcardAt(r, c, false));
+        return this.setSquare(r, c, IScrabbleGameState.emptyMarker, false);
     }
 
     @Override
     public
     boolean isWildcardAt(int r, int c)
     {
-        return this.wildcardTiles[r][c];
+        return IScrabbleBoard.isSquareWildcard(this.getSquareAt(r, c));
     }
 
     @Override
     public
     RevertibleAction setWildcardAt(int r, int c, boolean isWild)
     {
-        return RevertibleAction.setBooleanAt(this.wildcardTiles, r, c, isWild);
+        return this.setSquare(r, c, this.getCharAt(r, c), isWild);
+    }
+
+    private
+    RevertibleAction setSquare(int r, int c, char newChar, boolean newIsWild)
+    {
+        if (this.isSnapshot)
+        {
+            throw new UnsupportedOperationException("Board snapshots can not be modified");
+        }
+
+        if (newChar != IScrabbleGameState.emptyMarker && (newChar < 'a' || newChar > 'z'))
+        {
+            throw new IllegalArgumentException("Invalid tile: '" + newChar + "'");
+        }
+
+        final int  index     = this.layout.getIndex(r, c);
+        final byte oldSquare = this.squares[index];
+        final byte newSquare = IScrabbleBoard.toSquare(newChar, newIsWild);
+
+        if (oldSquare == newSquare)
+        {
+            return RevertibleAction.NULL_REVERTIBLE_ACTION;
+        }
+
+        return RevertibleAction.of(() -> this.setSquareAndHash(r, c, newSquare),
+            () -> this.setSquareAndHash(r, c, oldSquare));
+    }
+
+    // every change to a square goes through here, so the hash is always that of the current board
+    private
+    void setSquareAndHash(int r, int c, byte newSquare)
+    {
+        if (this.sharesSquares)
+        {
+            this.squares       = this.squares.clone();
+            this.sharesSquares = false;
+        }
+
+        this.hash ^= this.getSquareKey(r, c);
+        this.squares[this.layout.getIndex(r, c)] = newSquare;
+        this.hash ^= this.getSquareKey(r, c);
+    }
+
+    private
+    long getSquareKey(int r, int c)
+    {
+        return this.isEmptyAt(r, c) ? 0 : ZobristHash.tileKey(r, c, this.getCharAt(r, c), this.isWildcardAt(r, c));
     }
 
     @Override
     public
     int getAnchorRow()
     {
-        return this.anchorRow;
+        return this.layout.getAnchorRow();
     }
 
     @Override
     public
     int getAnchorCol()
     {
-        return this.anchorCol;
+        return this.layout.getAnchorCol();
+    }
+
+    @Override
+    public
+    long getBoardHash()
+    {
+        return this.hash;
     }
 
     @Override
     public
     IScrabbleBoard copyBoard()
     {
-        return new ScrabbleBoardImpl(this.rows, this.cols,
-            Arrays.stream(this.letterMultipliers).map(int[]::clone).toArray($ -> this.letterMultipliers.clone()),
-            Arrays.stream(this.wordMultipliers).map(int[]::clone).toArray($ -> this.wordMultipliers.clone()),
-            Arrays.stream(this.playedTiles).map(char[]::clone).toArray($ -> this.playedTiles.clone()),
-            Arrays.stream(this.wildcardTiles).map(boolean[]::clone).toArray($ -> this.wildcardTiles.clone()),
-            this.anchorRow, this.anchorCol);
+        this.sharesSquares = true;
+
+        return new ScrabbleBoardImpl(this, false);
+    }
+
+    @Override
+    public
+    IScrabbleBoard snapshotBoard()
+    {
+        if (this.isSnapshot)
+        {
+            return this;
+        }
+
+        this.sharesSquares = true;
+
+        return new ScrabbleBoardImpl(this, true);
     }
 
 }
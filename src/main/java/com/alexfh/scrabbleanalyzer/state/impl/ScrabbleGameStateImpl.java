@@ -72,6 +72,13 @@ class ScrabbleGameStateImpl implements IScrabbleGameState
         return this.rack.getTilesInRack();
     }
 
+    @Override
+    public
+    long getRackHash()
+    {
+        return this.rack.getRackHash();
+    }
+
     @Override
     public
     IPlayerTileRack copyRack()
@@ -79,6 +86,13 @@ class ScrabbleGameStateImpl implements IScrabbleGameState
         return this.rack.copyRack();
     }
 
+    @Override
+    public
+    IPlayerTileRack snapshotRack()
+    {
+        return this.rack.snapshotRack();
+    }
+
     @Override
     public
     int getRows()
@@ -114,6 +128,13 @@ class ScrabbleGameStateImpl implements IScrabbleGameState
         return this.board.getCharAt(r, c);
     }
 
+    @Override
+    public
+    byte getSquareAt(int r, int c)
+    {
+        return this.board.getSquareAt(r, c);
+    }
+
     @Override
     public
     RevertibleAction setCharAt(int r, int c, char newChar)
@@ -156,6 +177,13 @@ class ScrabbleGameStateImpl implements IScrabbleGameState
         return this.board.getAnchorCol();
     }
 
+    @Override
+    public
+    long getBoardHash()
+    {
+        return this.board.getBoardHash();
+    }
+
     @Override
     public
     IScrabbleBoard copyBoard()
@@ -163,6 +191,20 @@ class ScrabbleGameStateImpl implements IScrabbleGameState
         return this.board.copyBoard();
     }
 
+    @Override
+    public
+    IScrabbleBoard snapshotBoard()
+    {
+        return this.board.snapshotBoard();
+    }
+
+    @Override
+    public
+    IScrabbleBoard getBoard()
+    {
+        return this.board;
+    }
+
     @Override
     public
     IScrabbleGameState copyScrabbleGame()
@@ -170,4 +212,11 @@ class ScrabbleGameStateImpl implements IScrabbleGameState
         return new ScrabbleGameStateImpl(this.copyBoard(), this.copyRack());
     }
 
+    @Override
+    public
+    IScrabbleGameState snapshot()
+    {
+        return new ScrabbleGameStateImpl(this.snapshotBoard(), this.snapshotRack());
+    }
+
 }
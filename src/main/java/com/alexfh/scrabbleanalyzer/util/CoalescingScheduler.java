@@ -0,0 +1,189 @@
+package com.alexfh.scrabbleanalyzer.util;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+Runs the latest of a stream of tasks on a single worker thread, for recomputing something after every edit without
+recomputing it for every edit.
+
+A task scheduled while another is waiting replaces it, and the replaced task is counted as skipped. A task scheduled
+within the window of the previous one waits until no task has been scheduled for the whole window, so that a burst of
+edits, like typing a word, runs only its last task. A task scheduled after a quiet window runs right away. A task
+scheduled while another is running interrupts it, and the interrupted task is counted as cancelled. Only one task runs
+at a time, so an interrupted task always finishes before the next one starts.
+
+Tasks are expected to stop early by throwing InterruptedException once interrupted. Any other exception a task throws
+goes to the worker's uncaught exception handler, and the worker keeps running.
+ */
+public
+class CoalescingScheduler
+{
+
+    @FunctionalInterface
+    public
+    interface Task
+    {
+
+        void run() throws InterruptedException;
+
+    }
+
+    private final long    windowNanos;
+    private final Thread  worker;
+    private       Task    pending       = null;
+    private       long    runAt         = 0;
+    private       long    lastScheduled = 0;
+    private       boolean hasScheduled  = false;
+    private       boolean isRunning     = false;
+    private       boolean isShutdown    = false;
+    private       long    scheduled     = 0;
+    private       long    skipped       = 0;
+    private       long    cancelled     = 0;
+
+    public
+    CoalescingScheduler(String name, long windowMillis)
+    {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.worker      = new Thread(this::work, name);
+
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    public synchronized
+    void schedule(Task task)
+    {
+        if (this.isShutdown)
+        {
+            throw new IllegalStateException("Scheduler is shut down");
+        }
+
+        long now = System.nanoTime();
+
+        this.scheduled++;
+
+        if (this.pending != null)
+        {
+            this.skipped++;
+        }
+
+        if (this.isRunning && this.pending == null)
+        {
+            this.cancelled++;
+
+            this.worker.interrupt();
+        }
+
+        boolean isQuiet = !this.hasScheduled || now - this.lastScheduled >= this.windowNanos;
+        this.pending       = task;
+        this.runAt         = isQuiet ? now : now + this.windowNanos;
+        this.lastScheduled = now;
+        this.hasScheduled  = true;
+
+        this.notifyAll();
+    }
+
+    public synchronized
+    void shutdown()
+    {
+        this.isShutdown = true;
+        this.pending    = null;
+
+        this.worker.interrupt();
+        this.notifyAll();
+    }
+
+    public synchronized
+    long getScheduled()
+    {
+        return this.scheduled;
+    }
+
+    public synchronized
+    long getSkipped()
+    {
+        return this.skipped;
+    }
+
+    public synchronized
+    long getCancelled()
+    {
+        return this.cancelled;
+    }
+
+    private
+    void work()
+    {
+        while (true)
+        {
+            Task task = this.takeTask();
+
+            if (task == null)
+            {
+                return;
+            }
+
+            try
+            {
+                task.run();
+            }
+            catch (InterruptedException ignored)
+            {
+            }
+            catch (RuntimeException e)
+            {
+                this.worker.getUncaughtExceptionHandler().uncaughtException(this.worker, e);
+            }
+            finally
+            {
+                synchronized (this)
+                {
+                    this.isRunning = false;
+
+                    // interrupts only happen while running, so none can arrive after this
+                    Thread.interrupted();
+                }
+            }
+        }
+    }
+
+    // null once shut down
+    private synchronized
+    Task takeTask()
+    {
+        while (!this.isShutdown)
+        {
+            try
+            {
+                if (this.pending == null)
+                {
+                    this.wait();
+
+                    continue;
+                }
+
+                long remaining = this.runAt - System.nanoTime();
+
+                if (remaining > 0)
+                {
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+
+                    continue;
+                }
+            }
+            catch (InterruptedException e)
+            {
+                continue;
+            }
+
+            Task task = this.pending;
+            this.pending   = null;
+            this.isRunning = true;
+
+            return task;
+        }
+
+        return null;
+    }
+
+}
@@ -0,0 +1,164 @@
+package com.alexfh.scrabbleanalyzer.util;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+The arguments of a command line tool, as "--name value" options and plain arguments in any order. Every option takes
+exactly one value, and an option given twice keeps its last value.
+
+Parsing and the typed getters throw IllegalArgumentException with a message naming the argument that was wrong, an
+unknown option, an option without its value, a value that doesn't parse or is out of range, or a missing or extra
+plain argument, so a tool can print the message above its usage.
+ */
+public
+class CommandLineOptions
+{
+
+    private final Map<String, String> values    = new HashMap<>();
+    private final List<String>        arguments = new ArrayList<>();
+
+    private
+    CommandLineOptions()
+    {
+    }
+
+    // at most maxArguments arguments that aren't options are accepted
+    public static
+    CommandLineOptions parse(String[] args, int maxArguments, String... options)
+    {
+        CommandLineOptions parsed = new CommandLineOptions();
+        Set<String>        known  = Set.of(options);
+
+        for (int i = 0; i < args.length; i++)
+        {
+            String arg = args[i];
+
+            if (!arg.startsWith("--"))
+            {
+                if (parsed.arguments.size() == maxArguments)
+                {
+                    throw new IllegalArgumentException("Unexpected argument " + arg);
+                }
+
+                parsed.arguments.add(arg);
+
+                continue;
+            }
+
+            if (!known.contains(arg))
+            {
+                throw new IllegalArgumentException("Unknown option " + arg);
+            }
+
+            if (++i == args.length)
+            {
+                throw new IllegalArgumentException("Missing value for " + arg);
+            }
+
+            parsed.values.put(arg, args[i]);
+        }
+
+        return parsed;
+    }
+
+    public
+    String getArgument(int index, String name)
+    {
+        if (index >= this.arguments.size())
+        {
+            throw new IllegalArgumentException("Missing " + name);
+        }
+
+        return this.arguments.get(index);
+    }
+
+    public
+    int getInt(String option, int defaultValue, int min, int max)
+    {
+        return (int) this.getLong(option, defaultValue, min, max);
+    }
+
+    public
+    long getLong(String option, long defaultValue, long min, long max)
+    {
+        String value = this.values.get(option);
+
+        if (value == null)
+        {
+            return defaultValue;
+        }
+
+        long parsed;
+
+        try
+        {
+            parsed = Long.parseLong(value);
+        }
+        catch (NumberFormatException e)
+        {
+            throw new IllegalArgumentException("Invalid value for " + option + ": " + value);
+        }
+
+        if (parsed < min || parsed > max)
+        {
+            throw CommandLineOptions.outOfRange(option, value, min, max);
+        }
+
+        return parsed;
+    }
+
+    public
+    double getDouble(String option, double defaultValue, double min, double max)
+    {
+        String value = this.values.get(option);
+
+        if (value == null)
+        {
+            return defaultValue;
+        }
+
+        double parsed;
+
+        try
+        {
+            parsed = Double.parseDouble(value);
+        }
+        catch (NumberFormatException e)
+        {
+            throw new IllegalArgumentException("Invalid value for " + option + ": " + value);
+        }
+
+        // also refuses NaN
+        if (!(parsed >= min && parsed <= max))
+        {
+            throw CommandLineOptions.outOfRange(option, value, min, max);
+        }
+
+        return parsed;
+    }
+
+    public
+    File getFile(String option, File defaultValue)
+    {
+        String value = this.values.get(option);
+
+        return (value == null) ? defaultValue : new File(value);
+    }
+
+    private static
+    IllegalArgumentException outOfRange(String option, String value, Number min, Number max)
+    {
+        // a maximum of Integer.MAX_VALUE or more only stands for no maximum
+        boolean unbounded = max.doubleValue() >= Integer.MAX_VALUE;
+
+        return new IllegalArgumentException(
+            "Invalid value for " + option + ": " + value + ", must be " +
+            (unbounded ? "at least " + min : "between " + min + " and " + max));
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.alexfh.scrabbleanalyzer.util;
+
+import com.alexfh.scrabbleanalyzer.ScrabbleGame;
+import com.alexfh.scrabbleanalyzer.state.IScrabbleGameState;
+
+import java.util.List;
+
+/*
+Minimal JSON writer for moves, used by the headless front ends. Wildcard tiles are written with the same '0' marker
+that racks are typed with.
+ */
+public
+class MoveJson
+{
+
+    public static
+    StringBuilder appendMoves(StringBuilder builder, List<ScrabbleGame.Move> moves)
+    {
+        builder.append('[');
+
+        for (int i = 0; i < moves.size(); i++)
+        {
+            if (i > 0)
+            {
+                builder.append(',');
+            }
+
+            MoveJson.appendMove(builder, moves.get(i));
+        }
+
+        return builder.append(']');
+    }
+
+    public static
+    StringBuilder appendMove(StringBuilder builder, ScrabbleGame.Move move)
+    {
+        builder.append("{\"word\":");
+        MoveJson.appendString(builder, move.playedWord());
+        builder.append(",\"score\":").append(move.score());
+        builder.append(",\"row\":").append(move.row());
+        builder.append(",\"col\":").append(move.col());
+        builder.append(",\"vertical\":").append(move.isVertical());
+        builder.append(",\"tiles\":");
+        MoveJson.appendString(builder,
+            new String(move.playedTiles()).replace(IScrabbleGameState.wildCardTile, IScrabbleGameState.wildCardMarker));
+        builder.append(",\"spots\":[");
+
+        for (int i = 0; i < move.tileSpotsInWord().length; i++)
+        {
+            if (i > 0)
+            {
+                builder.append(',');
+            }
+
+            builder.append(move.tileSpotsInWord()[i]);
+        }
+
+        return builder.append("]}");
+    }
+
+    public static
+    StringBuilder appendString(StringBuilder builder, String string)
+    {
+        builder.append('"');
+
+        for (int i = 0; i < string.length(); i++)
+        {
+            char c = string.charAt(i);
+
+            switch (c)
+            {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default ->
+                {
+                    if (c < 0x20)
+                    {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    }
+                    else
+                    {
+                        builder.append(c);
+                    }
+                }
+            }
+        }
+
+        return builder.append('"');
+    }
+
+}
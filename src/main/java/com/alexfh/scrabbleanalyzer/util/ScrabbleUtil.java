@@ -16,6 +16,25 @@ class ScrabbleUtil
 
     public static final String newLineRegex = "\\R";
 
+    // -Dscrabbleanalyzer.printTimings=false silences the timings, e.g. while benchmarking
+    private static volatile boolean printTimings = Boolean.parseBoolean(
+        System.getProperty("scrabbleanalyzer.printTimings", "true"));
+
+    public static
+    void setPrintTimings(boolean printTimings)
+    {
+        ScrabbleUtil.printTimings = printTimings;
+    }
+
+    public static
+    void printTiming(String message, long nanos)
+    {
+        if (ScrabbleUtil.printTimings)
+        {
+            System.out.println(message + " " + 1.0D * nanos / 1000000000 + "s");
+        }
+    }
+
     public static
     void checkInterrupted() throws InterruptedException
     {
@@ -65,7 +84,7 @@ class ScrabbleUtil
 
         long finish = System.nanoTime();
 
-        System.out.println(message + " " + 1.0D * (finish - start) / 1000000000 + "s");
+        ScrabbleUtil.printTiming(message, finish - start);
 
         return t;
     }
@@ -79,7 +98,7 @@ class ScrabbleUtil
 
         long finish = System.nanoTime();
 
-        System.out.println(message + " " + 1.0D * (finish - start) / 1000000000 + "s");
+        ScrabbleUtil.printTiming(message, finish - start);
 
         return t;
     }
@@ -93,7 +112,7 @@ class ScrabbleUtil
 
         long finish = System.nanoTime();
 
-        System.out.println(message + " " + 1.0D * (finish - start) / 1000000000 + "s");
+        ScrabbleUtil.printTiming(message, finish - start);
     }
 
     public static
@@ -105,7 +124,7 @@ class ScrabbleUtil
 
         long finish = System.nanoTime();
 
-        System.out.println(message + " " + 1.0D * (finish - start) / 1000000000 + "s");
+        ScrabbleUtil.printTiming(message, finish - start);
     }
 
     public static
@@ -120,7 +139,6 @@ class ScrabbleUtil
         return c - 97;
     }
 
-    @SuppressWarnings("unused")
     public static
     char intToChar(int i)
     {
@@ -130,8 +148,12 @@ class ScrabbleUtil
     public static
     char[][] readRectangularBoardText(File file) throws IOException
     {
-        String boardText = Files.readString(file.toPath(), StandardCharsets.UTF_8);
+        return ScrabbleUtil.parseRectangularBoardText(Files.readString(file.toPath(), StandardCharsets.UTF_8));
+    }
 
+    public static
+    char[][] parseRectangularBoardText(String boardText)
+    {
         if (boardText.isEmpty() || boardText.isBlank())
         {
             throw new IllegalStateException("Empty board");
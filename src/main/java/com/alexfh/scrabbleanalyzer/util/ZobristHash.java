@@ -0,0 +1,125 @@
+package com.alexfh.scrabbleanalyzer.util;
+
+import com.alexfh.scrabbleanalyzer.state.IPlayerTileRack;
+import com.alexfh.scrabbleanalyzer.state.IScrabbleBoard;
+import com.alexfh.scrabbleanalyzer.state.IScrabbleGameState;
+
+/*
+Zobrist hashing of game states. Every feature of a position that move generation depends on has a random 64-bit key,
+and a position hashes to the xor of the keys of its features:
+
+- the board dimensions and anchor
+- the letter and word multiplier of each square
+- the tile on each occupied square, with whether it is a wildcard
+- each tile in the rack, by letter and by how many of that letter came before it, so that the hash of a rack is the
+  hash of its sorted tiles and does not depend on where they sit in the rack
+
+Since xor is its own inverse, a hash can be kept up to date by xoring out the keys of a changed feature and xoring in
+the new ones. The keys are not stored in tables but derived from the feature by a SplitMix64 finalizer, so any board
+size works without allocating anything.
+ */
+public
+class ZobristHash
+{
+
+    private static final long seed            = 0x5CA8B1EA4A1E2E0DL;
+    private static final int  dimensionsKind  = 0;
+    private static final int  anchorKind      = 1;
+    private static final int  multipliersKind = 2;
+    private static final int  tileKind        = 3;
+    private static final int  rackTileKind    = 4;
+
+    public static
+    long hash(IScrabbleGameState gameState)
+    {
+        return ZobristHash.hashBoard(gameState) ^ ZobristHash.hashRack(gameState);
+    }
+
+    public static
+    long hashBoard(IScrabbleBoard board)
+    {
+        int  rows = board.getRows();
+        int  cols = board.getCols();
+        long hash = ZobristHash.dimensionsKey(rows, cols) ^
+                    ZobristHash.anchorKey(board.getAnchorRow(), board.getAnchorCol());
+
+        for (int r = 0; r < rows; r++)
+        {
+            for (int c = 0; c < cols; c++)
+            {
+                hash ^= ZobristHash.multipliersKey(r, c, board.getLetterMultiplierAt(r, c),
+                    board.getWordMultiplierAt(r, c));
+
+                if (!board.isEmptyAt(r, c))
+                {
+                    hash ^= ZobristHash.tileKey(r, c, board.getCharAt(r, c), board.isWildcardAt(r, c));
+                }
+            }
+        }
+
+        return hash;
+    }
+
+    public static
+    long hashRack(IPlayerTileRack rack)
+    {
+        int[] counts = new int[27];
+        long  hash   = 0;
+
+        for (int i = 0; i < rack.getRackSize(); i++)
+        {
+            char tile = rack.getTileInRackAt(i);
+
+            if (tile != IScrabbleGameState.emptyMarker)
+            {
+                hash ^= ZobristHash.rackTileKey(tile, counts[ScrabbleUtil.charToInt(tile)]++);
+            }
+        }
+
+        return hash;
+    }
+
+    public static
+    long dimensionsKey(int rows, int cols)
+    {
+        return ZobristHash.key(ZobristHash.dimensionsKind, rows, cols, 0);
+    }
+
+    public static
+    long anchorKey(int anchorRow, int anchorCol)
+    {
+        return ZobristHash.key(ZobristHash.anchorKind, anchorRow, anchorCol, 0);
+    }
+
+    public static
+    long multipliersKey(int r, int c, int letterMultiplier, int wordMultiplier)
+    {
+        return ZobristHash.key(ZobristHash.multipliersKind, r, c, letterMultiplier << 8 | wordMultiplier);
+    }
+
+    public static
+    long tileKey(int r, int c, char tile, boolean isWildcard)
+    {
+        return ZobristHash.key(ZobristHash.tileKind, r, c, tile << 1 | (isWildcard ? 1 : 0));
+    }
+
+    // occurrence is the number of the same tile already in the rack
+    public static
+    long rackTileKey(char tile, int occurrence)
+    {
+        return ZobristHash.key(ZobristHash.rackTileKind, 0, occurrence, tile);
+    }
+
+    private static
+    long key(int kind, int a, int b, int value)
+    {
+        long z = ZobristHash.seed + ((long) kind << 56 | (long) (a & 0xFFF) << 44 | (long) (b & 0xFFF) << 32 |
+                                     (value & 0xFFFFFFFFL)) * 0x9E3779B97F4A7C15L;
+
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+
+        return z ^ (z >>> 31);
+    }
+
+}
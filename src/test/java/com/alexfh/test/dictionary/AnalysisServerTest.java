@@ -0,0 +1,98 @@
+package com.alexfh.test.dictionary;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.alexfh.scrabbleanalyzer.ScrabbleGame;
+import com.alexfh.scrabbleanalyzer.dictionary.DAWGDictionary;
+import com.alexfh.scrabbleanalyzer.dictionary.IWordGraph;
+import com.alexfh.scrabbleanalyzer.dictionary.PackedWordGraph;
+import com.alexfh.scrabbleanalyzer.rule.ILetterScoreMap;
+import com.alexfh.scrabbleanalyzer.rule.impl.LetterScoreMapImpl;
+import com.alexfh.scrabbleanalyzer.service.AnalysisServer;
+import com.alexfh.scrabbleanalyzer.state.impl.ScrabbleGameStateImpl;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class AnalysisServerTest
+{
+
+    @Test
+    public void testMovesEndpoint() throws IOException, InterruptedException
+    {
+        ILetterScoreMap scoreMap = LetterScoreMapImpl.fromFile(
+            new File("src/test/resources/scoremap.txt")
+        );
+        IWordGraph dictionary = PackedWordGraph.fromWordGraph(
+            DAWGDictionary.fromFile(new File("src/test/resources/nwl20.txt"))
+        );
+        AnalysisServer server = new AnalysisServer(
+            scoreMap, dictionary, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 2, 10000
+        );
+
+        server.start();
+
+        try
+        {
+            HttpClient client = HttpClient.newHttpClient();
+            String baseUri = "http://localhost:" + server.getAddress().getPort();
+
+            for (int gameNum = 1; gameNum <= 5; gameNum++)
+            {
+                String gameFolder = "src/test/resources/games/game" + gameNum + "/";
+                String body = Files.readString(Path.of(gameFolder + "board.txt")) + "\n\n" +
+                              Files.readString(Path.of("src/test/resources/multipliers.txt"));
+                String rack = Files.readString(Path.of(gameFolder + "currentletters.txt")).strip();
+                HttpResponse<String> response = client.send(
+                    HttpRequest.newBuilder(URI.create(baseUri + "/moves?top=3&rack=" + rack))
+                        .POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+                    HttpResponse.BodyHandlers.ofString()
+                );
+                List<ScrabbleGame.Move> expected = new ScrabbleGame(
+                    scoreMap,
+                    dictionary,
+                    ScrabbleGameStateImpl.fromFiles(
+                        new File(gameFolder + "board.txt"),
+                        new File("src/test/resources/multipliers.txt"),
+                        new File(gameFolder + "currentletters.txt")
+                    )
+                ).findTopMoves(1);
+
+                assertEquals(200, response.statusCode());
+                assertTrue(response.body().contains(
+                    "\"moves\":[{\"word\":\"" + expected.get(0).playedWord() + "\",\"score\":" +
+                    expected.get(0).score() + ","
+                ));
+            }
+
+            HttpResponse<String> badBoard = client.send(
+                HttpRequest.newBuilder(URI.create(baseUri + "/moves?rack=abc"))
+                    .POST(HttpRequest.BodyPublishers.ofString("...\n..\n")).build(),
+                HttpResponse.BodyHandlers.ofString()
+            );
+            HttpResponse<String> wrongMethod = client.send(
+                HttpRequest.newBuilder(URI.create(baseUri + "/moves?rack=abc")).GET().build(),
+                HttpResponse.BodyHandlers.ofString()
+            );
+
+            assertEquals(400, badBoard.statusCode());
+            assertTrue(badBoard.body().startsWith("{\"error\":"));
+            assertEquals(405, wrongMethod.statusCode());
+        }
+        finally
+        {
+            server.stop();
+        }
+    }
+
+}
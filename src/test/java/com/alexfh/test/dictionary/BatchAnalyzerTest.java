@@ -0,0 +1,97 @@
+package com.alexfh.test.dictionary;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.alexfh.scrabbleanalyzer.ScrabbleGame;
+import com.alexfh.scrabbleanalyzer.batch.BatchAnalyzer;
+import com.alexfh.scrabbleanalyzer.dictionary.DAWGDictionary;
+import com.alexfh.scrabbleanalyzer.dictionary.IWordGraph;
+import com.alexfh.scrabbleanalyzer.dictionary.PackedWordGraph;
+import com.alexfh.scrabbleanalyzer.rule.ILetterScoreMap;
+import com.alexfh.scrabbleanalyzer.rule.impl.LetterScoreMapImpl;
+import com.alexfh.scrabbleanalyzer.state.IScrabbleGameState;
+import com.alexfh.scrabbleanalyzer.state.impl.ScrabbleGameStateImpl;
+import com.alexfh.scrabbleanalyzer.state.impl.stream.SAOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.List;
+
+public class BatchAnalyzerTest
+{
+
+    @Test
+    public void testBatchOverDirectoryAndGameFile(@TempDir Path tempDir) throws IOException, InterruptedException
+    {
+        ILetterScoreMap scoreMap = LetterScoreMapImpl.fromFile(
+            new File("src/test/resources/scoremap.txt")
+        );
+        IWordGraph dictionary = PackedWordGraph.fromWordGraph(
+            DAWGDictionary.fromFile(new File("src/test/resources/nwl20.txt"))
+        );
+        BatchAnalyzer analyzer = new BatchAnalyzer(
+            scoreMap, dictionary, 3, 2, new File("src/test/resources/multipliers.txt")
+        );
+        StringWriter directoryOutput = new StringWriter();
+        BatchAnalyzer.Summary directorySummary = analyzer.analyze(
+            Path.of("src/test/resources/games"), directoryOutput
+        );
+        String[] directoryLines = directoryOutput.toString().split("\n");
+
+        assertEquals(new BatchAnalyzer.Summary(5, 0), directorySummary);
+        assertEquals(5, directoryLines.length);
+
+        for (int gameNum = 1; gameNum <= 5; gameNum++)
+        {
+            String line = directoryLines[gameNum - 1];
+
+            assertTrue(line.startsWith("{\"position\":\"src/test/resources/games/game" + gameNum + "\",\"nanos\":"));
+            assertTrue(line.contains(this.describeTopMove(scoreMap, dictionary, this.loadGame(gameNum))));
+        }
+
+        // concatenated game states, cut off partway through the last one
+        File gameFile = tempDir.resolve("games.sa").toFile();
+
+        try (SAOutputStream saOutputStream = new SAOutputStream(new FileOutputStream(gameFile)))
+        {
+            saOutputStream.writeScrabbleGameState(this.loadGame(1));
+            saOutputStream.writeScrabbleGameState(this.loadGame(2));
+            saOutputStream.writeInt(15);
+        }
+
+        StringWriter fileOutput = new StringWriter();
+        BatchAnalyzer.Summary fileSummary = analyzer.analyze(gameFile.toPath(), fileOutput);
+        String[] fileLines = fileOutput.toString().split("\n");
+
+        assertEquals(new BatchAnalyzer.Summary(3, 1), fileSummary);
+        assertTrue(fileLines[0].contains(this.describeTopMove(scoreMap, dictionary, this.loadGame(1))));
+        assertTrue(fileLines[1].contains(this.describeTopMove(scoreMap, dictionary, this.loadGame(2))));
+        assertTrue(fileLines[2].startsWith("{\"position\":\"" + gameFile + "#2\",\"error\":"));
+    }
+
+    private String describeTopMove(
+        ILetterScoreMap scoreMap, IWordGraph dictionary, IScrabbleGameState gameState
+    ) throws InterruptedException
+    {
+        List<ScrabbleGame.Move> moves = new ScrabbleGame(scoreMap, dictionary, gameState).findTopMoves(1);
+
+        return "\"moves\":[{\"word\":\"" + moves.get(0).playedWord() + "\",\"score\":" + moves.get(0).score() + ",";
+    }
+
+    private IScrabbleGameState loadGame(int gameNum) throws IOException
+    {
+        String gameFolder = "src/test/resources/games/game" + gameNum + "/";
+
+        return ScrabbleGameStateImpl.fromFiles(
+            new File(gameFolder + "board.txt"),
+            new File("src/test/resources/multipliers.txt"),
+            new File(gameFolder + "currentletters.txt")
+        );
+    }
+
+}
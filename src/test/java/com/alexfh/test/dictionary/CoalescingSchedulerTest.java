@@ -0,0 +1,104 @@
+package com.alexfh.test.dictionary;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.alexfh.scrabbleanalyzer.util.CoalescingScheduler;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class CoalescingSchedulerTest
+{
+
+    @Test
+    public void testBurstRunsOnlyLastTask() throws InterruptedException
+    {
+        CoalescingScheduler scheduler = new CoalescingScheduler("test", 200);
+        List<Integer> ran = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        try
+        {
+            // the first task of a burst runs right away, the rest are coalesced into the last
+            CountDownLatch firstStarted = new CountDownLatch(1);
+
+            scheduler.schedule(firstStarted::countDown);
+            assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+
+            for (int i = 0; i < 10; i++)
+            {
+                final int taskNum = i;
+
+                scheduler.schedule(() ->
+                {
+                    ran.add(taskNum);
+                    done.countDown();
+                });
+            }
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            Thread.sleep(300);
+            assertEquals(List.of(9), ran);
+            assertEquals(11, scheduler.getScheduled());
+            assertEquals(9, scheduler.getSkipped());
+        }
+        finally
+        {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testRunningTaskIsInterrupted() throws InterruptedException
+    {
+        CoalescingScheduler scheduler = new CoalescingScheduler("test", 0);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        CountDownLatch next = new CountDownLatch(1);
+
+        try
+        {
+            scheduler.schedule(() ->
+            {
+                started.countDown();
+
+                try
+                {
+                    Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                }
+                finally
+                {
+                    interrupted.countDown();
+                }
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            scheduler.schedule(next::countDown);
+            assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+            assertTrue(next.await(5, TimeUnit.SECONDS));
+            assertEquals(1, scheduler.getCancelled());
+            assertEquals(0, scheduler.getSkipped());
+
+            // a failing task doesn't stop the worker
+            CountDownLatch afterFailure = new CountDownLatch(1);
+            Thread.UncaughtExceptionHandler quiet = (thread, e) -> {};
+
+            scheduler.schedule(() ->
+            {
+                Thread.currentThread().setUncaughtExceptionHandler(quiet);
+
+                throw new IllegalStateException("failed");
+            });
+            Thread.sleep(100);
+            scheduler.schedule(afterFailure::countDown);
+            assertTrue(afterFailure.await(5, TimeUnit.SECONDS));
+        }
+        finally
+        {
+            scheduler.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.alexfh.test.dictionary;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.alexfh.scrabbleanalyzer.util.CommandLineOptions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+
+public class CommandLineOptionsTest
+{
+
+    @Test
+    public void testOptionsAndArguments()
+    {
+        CommandLineOptions options = CommandLineOptions.parse(
+            new String[]{ "--top", "5", "games", "--seed", "-3", "--output", "out.txt", "--top", "7" },
+            1,
+            "--top", "--seed", "--output", "--threads"
+        );
+
+        assertEquals("games", options.getArgument(0, "input"));
+        assertEquals(7, options.getInt("--top", 10, 1, Integer.MAX_VALUE));
+        assertEquals(-3, options.getLong("--seed", 0, Long.MIN_VALUE, Long.MAX_VALUE));
+        assertEquals(4, options.getInt("--threads", 4, 1, Integer.MAX_VALUE));
+        assertEquals(new File("out.txt"), options.getFile("--output", null));
+    }
+
+    @Test
+    public void testErrorsNameTheArgument()
+    {
+        String[] options = new String[]{ "--games", "--prior" };
+
+        this.assertInvalid("Unknown option --bogus", () -> CommandLineOptions.parse(
+            new String[]{ "--bogus", "1" }, 0, options));
+        this.assertInvalid("Missing value for --games", () -> CommandLineOptions.parse(
+            new String[]{ "--games" }, 0, options));
+        this.assertInvalid("Unexpected argument extra", () -> CommandLineOptions.parse(
+            new String[]{ "input", "extra" }, 1, options));
+        this.assertInvalid("Missing input", () -> CommandLineOptions.parse(
+            new String[]{}, 1, options).getArgument(0, "input"));
+        this.assertInvalid("Invalid value for --games: x", () -> CommandLineOptions.parse(
+            new String[]{ "--games", "x" }, 0, options).getInt("--games", 1, 1, Integer.MAX_VALUE));
+        this.assertInvalid("Invalid value for --games: 0, must be at least 1", () -> CommandLineOptions.parse(
+            new String[]{ "--games", "0" }, 0, options).getInt("--games", 1, 1, Integer.MAX_VALUE));
+        this.assertInvalid("Invalid value for --games: 9, must be between 1 and 8", () -> CommandLineOptions.parse(
+            new String[]{ "--games", "9" }, 0, options).getInt("--games", 1, 1, 8));
+        this.assertInvalid("Invalid value for --prior: NaN, must be at least 0.0", () -> CommandLineOptions.parse(
+            new String[]{ "--prior", "NaN" }, 0, options).getDouble("--prior", 1, 0, Double.MAX_VALUE));
+    }
+
+    private void assertInvalid(String message, Runnable parse)
+    {
+        assertEquals(message, assertThrows(IllegalArgumentException.class, parse::run).getMessage());
+    }
+
+}
@@ -0,0 +1,188 @@
+package com.alexfh.test.dictionary;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.alexfh.scrabbleanalyzer.ScrabbleGame;
+import com.alexfh.scrabbleanalyzer.dictionary.DAWGDictionary;
+import com.alexfh.scrabbleanalyzer.dictionary.IWordGraph;
+import com.alexfh.scrabbleanalyzer.dictionary.PackedWordGraph;
+import com.alexfh.scrabbleanalyzer.rule.ILetterScoreMap;
+import com.alexfh.scrabbleanalyzer.rule.impl.LetterScoreMapImpl;
+import com.alexfh.scrabbleanalyzer.sim.EndgameSolver;
+import com.alexfh.scrabbleanalyzer.sim.MovePlayer;
+import com.alexfh.scrabbleanalyzer.sim.TileBag;
+import com.alexfh.scrabbleanalyzer.state.IScrabbleGameState;
+import com.alexfh.scrabbleanalyzer.state.impl.PlayerTileRackImpl;
+import com.alexfh.scrabbleanalyzer.state.impl.ScrabbleGameStateImpl;
+import com.alexfh.scrabbleanalyzer.util.ScrabbleUtil;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class EndgameSolverTest
+{
+
+    private static ILetterScoreMap scoreMap;
+    private static IWordGraph dictionary;
+
+    @BeforeAll
+    public static void loadDictionary() throws IOException
+    {
+        EndgameSolverTest.scoreMap = LetterScoreMapImpl.fromFile(new File("src/test/resources/scoremap.txt"));
+        EndgameSolverTest.dictionary = PackedWordGraph.fromWordGraph(
+            DAWGDictionary.fromFile(new File("src/test/resources/nwl20.txt"))
+        );
+    }
+
+    @Test
+    public void testShallowSearchFindsBestScore() throws InterruptedException
+    {
+        IScrabbleGameState endgame = this.playToEndgame(1, 7);
+        long hash = endgame.getPositionHash();
+        EndgameSolver.Result result = new EndgameSolver(EndgameSolverTest.scoreMap, EndgameSolverTest.dictionary, 16)
+            .solve(endgame, 1, 60000);
+        List<ScrabbleGame.Move> topMove = new ScrabbleGame(EndgameSolverTest.scoreMap, EndgameSolverTest.dictionary,
+            endgame.snapshot()).findTopMoves(1);
+
+        assertEquals(hash, endgame.getPositionHash());
+        assertEquals(1, result.depth());
+        assertEquals(1, result.line().size());
+        assertTrue(result.spread() >= topMove.get(0).score());
+        assertTrue(result.nodes() > 0);
+    }
+
+    @Test
+    public void testSmallEndgameIsSolvedExactly() throws InterruptedException
+    {
+        IScrabbleGameState endgame = this.playToEndgame(3, 4);
+        IScrabbleGameState opponent = new ScrabbleGameStateImpl(
+            endgame.getBoard(),
+            new PlayerTileRackImpl(this.rackOf(TileBag.unseen(endgame.getBoard(), endgame)))
+        );
+        EndgameSolver.Result tiny = new EndgameSolver(EndgameSolverTest.scoreMap, EndgameSolverTest.dictionary, 2)
+            .solve(endgame, 20, 60000);
+        EndgameSolver.Result large = new EndgameSolver(EndgameSolverTest.scoreMap, EndgameSolverTest.dictionary, 18)
+            .solve(endgame, 20, 60000);
+
+        assertTrue(large.isExact());
+        assertTrue(tiny.isExact());
+        assertEquals(large.spread(), tiny.spread());
+
+        // playing out the line scores the spread
+        IScrabbleGameState mover = endgame;
+        IScrabbleGameState other = opponent;
+        int spread = 0;
+        int sign = 1;
+        boolean lastPassed = false;
+
+        for (ScrabbleGame.Move move : large.line())
+        {
+            MovePlayer.play(mover, move);
+            spread += sign * move.score();
+
+            if (mover.getNumTilesInRack() == 0)
+            {
+                spread += sign * 2 * MovePlayer.getRackValue(other, EndgameSolverTest.scoreMap);
+            }
+            else if (lastPassed && move == EndgameSolver.pass)
+            {
+                spread += sign * (MovePlayer.getRackValue(other, EndgameSolverTest.scoreMap) -
+                                  MovePlayer.getRackValue(mover, EndgameSolverTest.scoreMap));
+            }
+
+            lastPassed = move == EndgameSolver.pass;
+            sign = -sign;
+            IScrabbleGameState swap = mover;
+            mover = other;
+            other = swap;
+        }
+
+        assertEquals(large.spread(), spread);
+    }
+
+    @Test
+    public void testFullRacksFinishDepth() throws InterruptedException
+    {
+        IScrabbleGameState endgame = this.playToEndgame(1, 7);
+        EndgameSolver.Result result = new EndgameSolver(EndgameSolverTest.scoreMap, EndgameSolverTest.dictionary, 20)
+            .solve(endgame, 4, 60000);
+
+        assertEquals(7, endgame.getNumTilesInRack());
+        assertEquals(7, TileBag.unseen(endgame.getBoard(), endgame).size());
+        assertEquals(4, result.depth());
+        assertFalse(result.line().isEmpty());
+    }
+
+    // greedy self play from an empty board until the bag runs out and neither rack holds more than maxRackTiles,
+    // returning the position of the player to move
+    private IScrabbleGameState playToEndgame(long seed, int maxRackTiles) throws InterruptedException
+    {
+        SplittableRandom random = new SplittableRandom(seed);
+        TileBag bag = TileBag.standard();
+        IScrabbleGameState first = ScrabbleGameStateImpl.defaultBlankScrabbleGameState();
+        IScrabbleGameState second = new ScrabbleGameStateImpl(
+            first.getBoard(),
+            new PlayerTileRackImpl(this.emptyRack())
+        );
+        IScrabbleGameState mover = first;
+        int passes = 0;
+
+        bag.fillRack(first, random);
+        bag.fillRack(second, random);
+
+        while (!bag.isEmpty() || first.getNumTilesInRack() > maxRackTiles ||
+               second.getNumTilesInRack() > maxRackTiles)
+        {
+            List<ScrabbleGame.Move> best = new ScrabbleGame(EndgameSolverTest.scoreMap, EndgameSolverTest.dictionary,
+                mover).findTopMoves(1);
+
+            if (best.isEmpty())
+            {
+                assertTrue(++passes < 2);
+            }
+            else
+            {
+                passes = 0;
+
+                MovePlayer.play(mover, best.get(0));
+                bag.fillRack(mover, random);
+                assertTrue(mover.getNumTilesInRack() > 0);
+            }
+
+            mover = (mover == first) ? second : first;
+        }
+
+        return mover;
+    }
+
+    private char[] rackOf(TileBag tiles)
+    {
+        char[] rack = this.emptyRack();
+        int i = 0;
+
+        for (int t = 0; t < TileBag.numTileTypes; t++)
+        {
+            for (int n = 0; n < tiles.getCount(ScrabbleUtil.intToChar(t)); n++)
+            {
+                rack[i++] = ScrabbleUtil.intToChar(t);
+            }
+        }
+
+        return rack;
+    }
+
+    private char[] emptyRack()
+    {
+        char[] rack = new char[7];
+
+        Arrays.fill(rack, IScrabbleGameState.emptyMarker);
+
+        return rack;
+    }
+
+}
@@ -0,0 +1,138 @@
+package com.alexfh.test.dictionary;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.alexfh.scrabbleanalyzer.ScrabbleGame;
+import com.alexfh.scrabbleanalyzer.ai.LeaveTable;
+import com.alexfh.scrabbleanalyzer.ai.MoveBuffer;
+import com.alexfh.scrabbleanalyzer.dictionary.DAWGDictionary;
+import com.alexfh.scrabbleanalyzer.dictionary.PackedWordGraph;
+import com.alexfh.scrabbleanalyzer.rule.impl.LetterScoreMapImpl;
+import com.alexfh.scrabbleanalyzer.state.IScrabbleGameState;
+import com.alexfh.scrabbleanalyzer.state.impl.ScrabbleGameStateImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+
+public class LeaveTableTest
+{
+
+    @Test
+    public void testIndexIsPerfectHash()
+    {
+        boolean[] seen = new boolean[LeaveTable.numLeaves];
+        int[] count = new int[1];
+
+        this.forEachLeave(new int[LeaveTable.maxLeaveSize], 0, 0, (leave, numTiles) ->
+        {
+            int index = LeaveTable.getIndex(leave, numTiles);
+
+            assertFalse(seen[index]);
+            seen[index] = true;
+            count[0]++;
+        });
+
+        assertEquals(LeaveTable.numLeaves, count[0]);
+    }
+
+    @Test
+    public void testFileRoundTrip(@TempDir File tempDir) throws IOException
+    {
+        float[] values = new float[LeaveTable.numLeaves];
+
+        for (int i = 0; i < values.length; i++)
+        {
+            values[i] = (i % 1000) / 10F - 50;
+        }
+
+        File leavesFile = new File(tempDir, "leaves.salv");
+
+        new LeaveTable(values).writeToFile(leavesFile);
+
+        LeaveTable loaded = LeaveTable.fromFile(leavesFile);
+
+        for (int i = 0; i < values.length; i++)
+        {
+            assertEquals(values[i], loaded.getValue(i));
+        }
+    }
+
+    @Test
+    public void testSortByEquity() throws IOException, InterruptedException
+    {
+        IScrabbleGameState gameState = ScrabbleGameStateImpl.fromFiles(
+            new File("src/test/resources/games/game1/board.txt"),
+            new File("src/test/resources/multipliers.txt"),
+            new File("src/test/resources/games/game1/currentletters.txt")
+        );
+        ScrabbleGame game = new ScrabbleGame(
+            LetterScoreMapImpl.fromFile(new File("src/test/resources/scoremap.txt")),
+            PackedWordGraph.fromWordGraph(DAWGDictionary.fromFile(new File("src/test/resources/nwl20.txt"))),
+            gameState
+        );
+        MoveBuffer byScore = new MoveBuffer();
+        MoveBuffer byEquity = new MoveBuffer();
+
+        game.findMoves(byScore);
+        byEquity.addAll(byScore);
+        byScore.sort();
+
+        // with every leave worth nothing the order is the score order
+        byEquity.sortByEquity(LeaveTable.zero(), gameState.getTilesInRack());
+
+        for (int i = 0; i < byScore.size(); i++)
+        {
+            assertEquals(byScore.getWord(i), byEquity.getWord(i));
+            assertEquals(byScore.getRow(i), byEquity.getRow(i));
+            assertEquals(byScore.getCol(i), byEquity.getCol(i));
+            assertEquals(byScore.isVertical(i), byEquity.isVertical(i));
+        }
+
+        // leaves worth a point per tile kept rank each move by score minus tiles played
+        float[] values = new float[LeaveTable.numLeaves];
+
+        this.forEachLeave(new int[LeaveTable.maxLeaveSize], 0, 0,
+            (leave, numTiles) -> values[LeaveTable.getIndex(leave, numTiles)] = numTiles);
+        byEquity.sortByEquity(new LeaveTable(values), gameState.getTilesInRack());
+
+        int rackSize = gameState.getTilesInRack().size();
+
+        for (int i = 0; i < byEquity.size(); i++)
+        {
+            assertEquals(byEquity.getScore(i) + rackSize - byEquity.getNumPlacedTiles(i), byEquity.getEquity(i));
+
+            if (i > 0)
+            {
+                assertTrue(byEquity.getEquity(i - 1) >= byEquity.getEquity(i));
+            }
+        }
+    }
+
+    private interface LeaveConsumer
+    {
+
+        void accept(int[] leave, int numTiles);
+
+    }
+
+    // every sorted leave of up to maxLeaveSize tiles, extending leave[0, numTiles) with tiles from minTile on
+    private void forEachLeave(int[] leave, int numTiles, int minTile, LeaveConsumer consumer)
+    {
+        consumer.accept(leave, numTiles);
+
+        if (numTiles == LeaveTable.maxLeaveSize)
+        {
+            return;
+        }
+
+        for (int tile = minTile; tile < LeaveTable.numTileTypes; tile++)
+        {
+            leave[numTiles] = tile;
+
+            this.forEachLeave(leave, numTiles + 1, tile, consumer);
+        }
+    }
+
+}
@@ -0,0 +1,245 @@
+package com.alexfh.test.dictionary;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.alexfh.scrabbleanalyzer.ai.MoveBuffer;
+import com.alexfh.scrabbleanalyzer.ai.MoveCache;
+import com.alexfh.scrabbleanalyzer.gui.action.RevertibleAction;
+import com.alexfh.scrabbleanalyzer.state.IScrabbleGameState;
+import com.alexfh.scrabbleanalyzer.state.impl.PlayerTileRackImpl;
+import com.alexfh.scrabbleanalyzer.state.impl.ScrabbleBoardImpl;
+import com.alexfh.scrabbleanalyzer.state.impl.ScrabbleGameStateImpl;
+import com.alexfh.scrabbleanalyzer.util.ZobristHash;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class MoveCacheTest
+{
+
+    @Test
+    public void testZobristHash() throws IOException
+    {
+        IScrabbleGameState gameState = ScrabbleGameStateImpl.fromFiles(
+            new File("src/test/resources/games/game1/board.txt"),
+            new File("src/test/resources/multipliers.txt"),
+            new File("src/test/resources/games/game1/currentletters.txt")
+        );
+        long hash = ZobristHash.hash(gameState);
+
+        assertEquals(hash, ZobristHash.hash(gameState.copyScrabbleGame()));
+
+        // the rack is hashed as a multiset
+        IScrabbleGameState reversedRack = new ScrabbleGameStateImpl(
+            gameState.copyBoard(),
+            new PlayerTileRackImpl(new StringBuilder(
+                new String(this.getRackTiles(gameState))).reverse().toString().toCharArray()
+            )
+        );
+
+        assertEquals(hash, ZobristHash.hash(reversedRack));
+
+        RevertibleAction setTile = gameState.setCharAt(0, 0, 'q');
+
+        assertNotEquals(hash, ZobristHash.hash(gameState));
+
+        long withTile = ZobristHash.hash(gameState);
+
+        gameState.setWildcardAt(0, 0, true);
+        assertNotEquals(withTile, ZobristHash.hash(gameState));
+        gameState.setWildcardAt(0, 0, false);
+        setTile.undo();
+        assertEquals(hash, ZobristHash.hash(gameState));
+        assertNotEquals(
+            ZobristHash.hash(ScrabbleGameStateImpl.defaultBlankScrabbleGameState()),
+            ZobristHash.hash(new ScrabbleGameStateImpl(
+                ScrabbleBoardImpl.defaultBlankBoard(),
+                new PlayerTileRackImpl(new char[]{'a', '.', '.', '.', '.', '.', '.'})
+            ))
+        );
+    }
+
+    @Test
+    public void testIncrementalHash() throws IOException
+    {
+        IScrabbleGameState gameState = ScrabbleGameStateImpl.fromFiles(
+            new File("src/test/resources/games/game5/board.txt"),
+            new File("src/test/resources/multipliers.txt"),
+            new File("src/test/resources/games/game5/currentletters.txt")
+        );
+        Random random = new Random(15);
+        List<RevertibleAction> actions = new ArrayList<>();
+        List<Long> hashes = new ArrayList<>();
+
+        for (int i = 0; i < 500; i++)
+        {
+            int r = random.nextInt(gameState.getRows());
+            int c = random.nextInt(gameState.getCols());
+            char tile = IScrabbleGameState.alphaChars[random.nextInt(3)];
+
+            hashes.add(gameState.getPositionHash());
+            actions.add(switch (random.nextInt(5))
+            {
+                case 0 -> gameState.setCharAt(r, c, tile);
+                case 1 -> gameState.setWildcardAt(r, c, random.nextBoolean());
+                case 2 -> gameState.removeCharAt(r, c);
+                case 3 -> gameState.setTileInRackAt(random.nextInt(gameState.getRackSize()), tile);
+                default -> gameState.removeTileInRackAt(random.nextInt(gameState.getRackSize()));
+            });
+            assertEquals(ZobristHash.hash(gameState), gameState.getPositionHash());
+            assertEquals(gameState.getPositionHash(), gameState.copyScrabbleGame().getPositionHash());
+        }
+
+        for (int i = actions.size() - 1; i >= 0; i--)
+        {
+            actions.get(i).undo();
+            assertEquals(hashes.get(i), gameState.getPositionHash());
+        }
+    }
+
+    @Test
+    public void testSnapshotsAreUnaffectedByEdits() throws IOException
+    {
+        IScrabbleGameState gameState = ScrabbleGameStateImpl.fromFiles(
+            new File("src/test/resources/games/game3/board.txt"),
+            new File("src/test/resources/multipliers.txt"),
+            new File("src/test/resources/games/game3/currentletters.txt")
+        );
+        Random random = new Random(17);
+        List<RevertibleAction> actions = new ArrayList<>();
+        List<IScrabbleGameState> snapshots = new ArrayList<>();
+        List<String> descriptions = new ArrayList<>();
+
+        for (int i = 0; i < 300; i++)
+        {
+            int r = random.nextInt(gameState.getRows());
+            int c = random.nextInt(gameState.getCols());
+            char tile = IScrabbleGameState.alphaChars[random.nextInt(3)];
+
+            if (random.nextInt(4) == 0)
+            {
+                IScrabbleGameState snapshot = gameState.snapshot();
+
+                snapshots.add(snapshot);
+                descriptions.add(this.describe(snapshot));
+            }
+
+            actions.add(switch (random.nextInt(4))
+            {
+                case 0 -> gameState.setCharAt(r, c, tile);
+                case 1 -> gameState.setWildcardAt(r, c, random.nextBoolean());
+                case 2 -> gameState.removeCharAt(r, c);
+                default -> gameState.setTileInRackAt(random.nextInt(gameState.getRackSize()), tile);
+            });
+        }
+
+        for (int i = actions.size() - 1; i >= 0; i--)
+        {
+            actions.get(i).undo();
+        }
+
+        for (int i = 0; i < snapshots.size(); i++)
+        {
+            IScrabbleGameState snapshot = snapshots.get(i);
+
+            assertEquals(descriptions.get(i), this.describe(snapshot));
+            assertEquals(ZobristHash.hash(snapshot), snapshot.getPositionHash());
+        }
+
+        IScrabbleGameState snapshot = gameState.snapshot();
+        IScrabbleGameState copy = snapshot.copyScrabbleGame();
+
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.setCharAt(0, 0, 'a'));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.removeTileInRackAt(0));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getTilesInRack().clear());
+
+        // copies of a snapshot are modifiable, and leave the snapshot and the original alone
+        String description = this.describe(gameState);
+
+        copy.setCharAt(0, 0, 'z');
+        copy.setTileInRackAt(0, 'z');
+        assertEquals(description, this.describe(snapshot));
+        assertEquals(description, this.describe(gameState));
+        assertNotEquals(description, this.describe(copy));
+    }
+
+    private String describe(IScrabbleGameState gameState)
+    {
+        StringBuilder description = new StringBuilder();
+
+        for (int r = 0; r < gameState.getRows(); r++)
+        {
+            for (int c = 0; c < gameState.getCols(); c++)
+            {
+                description.append(gameState.isWildcardAt(r, c) ? Character.toUpperCase(gameState.getCharAt(r, c))
+                                                                : gameState.getCharAt(r, c));
+            }
+        }
+
+        for (int i = 0; i < gameState.getRackSize(); i++)
+        {
+            description.append(gameState.getTileInRackAt(i));
+        }
+
+        return description.append(gameState.getTilesInRack()).toString();
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction()
+    {
+        MoveBuffer first = this.bufferOfSize(10);
+        MoveBuffer second = this.bufferOfSize(10);
+        MoveBuffer third = this.bufferOfSize(10);
+        MoveCache cache = new MoveCache(first.getSizeInBytes() * 2);
+
+        cache.put(1, first);
+        cache.put(2, second);
+        assertSame(first, cache.get(1));
+        cache.put(3, third);
+
+        // 2 was used least recently
+        assertNull(cache.get(2));
+        assertSame(first, cache.get(1));
+        assertSame(third, cache.get(3));
+        assertEquals(2, cache.size());
+        assertEquals(first.getSizeInBytes() + third.getSizeInBytes(), cache.getSizeInBytes());
+        assertEquals(3, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        // too large to cache at all
+        cache.put(4, this.bufferOfSize(100));
+        assertNull(cache.get(4));
+        assertEquals(2, cache.size());
+    }
+
+    private MoveBuffer bufferOfSize(int numMoves)
+    {
+        MoveBuffer buffer = new MoveBuffer(numMoves);
+
+        for (int i = 0; i < numMoves; i++)
+        {
+            buffer.add(7, i, false, i, new char[]{'a', 't'}, new int[]{0, 1}, 2, new char[]{'a', 't'}, 2);
+        }
+
+        buffer.trimToSize();
+
+        return buffer;
+    }
+
+    private char[] getRackTiles(IScrabbleGameState gameState)
+    {
+        char[] tiles = new char[gameState.getRackSize()];
+
+        for (int i = 0; i < tiles.length; i++)
+        {
+            tiles[i] = gameState.getTileInRackAt(i);
+        }
+
+        return tiles;
+    }
+
+}
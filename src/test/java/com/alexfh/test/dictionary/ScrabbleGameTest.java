@@ -2,16 +2,29 @@ package com.alexfh.test.dictionary;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import com.alexfh.scrabbleanalyzer.BoardAnalyzer;
 import com.alexfh.scrabbleanalyzer.ScrabbleGame;
-import com.alexfh.scrabbleanalyzer.dictionary.WordGraphDictionary;
+import com.alexfh.scrabbleanalyzer.ai.GADDAGMoveGenerator;
+import com.alexfh.scrabbleanalyzer.ai.MoveBatcher;
+import com.alexfh.scrabbleanalyzer.ai.MoveBuffer;
+import com.alexfh.scrabbleanalyzer.dictionary.DAWGDictionary;
+import com.alexfh.scrabbleanalyzer.dictionary.GADDAG;
+import com.alexfh.scrabbleanalyzer.dictionary.IWordGraph;
+import com.alexfh.scrabbleanalyzer.dictionary.PackedWordGraph;
+import com.alexfh.scrabbleanalyzer.gui.action.RevertibleAction;
 import com.alexfh.scrabbleanalyzer.rule.ILetterScoreMap;
 import com.alexfh.scrabbleanalyzer.rule.impl.LetterScoreMapImpl;
+import com.alexfh.scrabbleanalyzer.state.IScrabbleGameState;
+import com.alexfh.scrabbleanalyzer.state.impl.PlayerTileRackImpl;
+import com.alexfh.scrabbleanalyzer.state.impl.ScrabbleBoardImpl;
 import com.alexfh.scrabbleanalyzer.state.impl.ScrabbleGameStateImpl;
 import com.alexfh.scrabbleanalyzer.util.ScrabbleUtil;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -24,9 +37,18 @@ public class ScrabbleGameTest
         ILetterScoreMap scoreMap = LetterScoreMapImpl.fromFile(
             new File("src/test/resources/scoremap.txt")
         );
-        WordGraphDictionary dictionary = WordGraphDictionary.fromFile(
+        DAWGDictionary dictionary = DAWGDictionary.fromFile(
             new File("src/test/resources/nwl20.txt")
         );
+
+        this.testDistributionForAllGames(dictionary, scoreMap);
+        this.testDistributionForAllGames(PackedWordGraph.fromWordGraph(dictionary), scoreMap);
+    }
+
+    public void testDistributionForAllGames(
+        IWordGraph dictionary, ILetterScoreMap scoreMap
+    ) throws IOException, InterruptedException
+    {
         this.testDistribution(
             1,
             new int[]{0, 114, 158, 133, 268, 159, 115, 115, 82, 74, 38, 40, 23, 19, 29, 14, 11, 3, 11},
@@ -66,7 +88,7 @@ public class ScrabbleGameTest
     }
 
     public void testDistribution(
-        int gameNum, int[] expectedDistribution, WordGraphDictionary dictionary, ILetterScoreMap scoreMap
+        int gameNum, int[] expectedDistribution, IWordGraph dictionary, ILetterScoreMap scoreMap
     ) throws IOException, InterruptedException
     {
         String gameFolder = "src/test/resources/games/game" + gameNum + "/";
@@ -97,4 +119,278 @@ public class ScrabbleGameTest
         assertArrayEquals(scoreDistribution, expectedDistribution);
     }
 
+    @Test
+    public void testGADDAGMatchesFindMoves() throws IOException, InterruptedException
+    {
+        ILetterScoreMap scoreMap = LetterScoreMapImpl.fromFile(
+            new File("src/test/resources/scoremap.txt")
+        );
+        IWordGraph dictionary = PackedWordGraph.fromWordGraph(
+            DAWGDictionary.fromFile(new File("src/test/resources/nwl20.txt"))
+        );
+        IWordGraph gaddag = ScrabbleUtil.timeRetrieval(() -> GADDAG.fromWordGraph(dictionary), "buildGADDAG");
+
+        for (int gameNum = 1; gameNum <= 5; gameNum++)
+        {
+            IScrabbleGameState      gameState = this.loadGame(gameNum);
+            List<ScrabbleGame.Move> moves     = ScrabbleUtil.timeRetrievalInterruptable(
+                new ScrabbleGame(scoreMap, dictionary, gameState.copyScrabbleGame())::findMoves, "findMoves"
+            );
+            List<ScrabbleGame.Move> gaddagMoves = ScrabbleUtil.timeRetrievalInterruptable(
+                new GADDAGMoveGenerator(scoreMap, gaddag, gameState.copyScrabbleGame())::findMoves, "findMovesGADDAG"
+            );
+
+            assertEquals(this.describeMoves(moves), this.describeMoves(gaddagMoves));
+        }
+    }
+
+    @Test
+    public void testParallelMatchesFindMoves() throws IOException, InterruptedException
+    {
+        ILetterScoreMap scoreMap = LetterScoreMapImpl.fromFile(
+            new File("src/test/resources/scoremap.txt")
+        );
+        IWordGraph dictionary = PackedWordGraph.fromWordGraph(
+            DAWGDictionary.fromFile(new File("src/test/resources/nwl20.txt"))
+        );
+        List<IScrabbleGameState> gameStates = new ArrayList<>();
+
+        for (int gameNum = 1; gameNum <= 5; gameNum++)
+        {
+            gameStates.add(this.loadGame(gameNum));
+        }
+
+        gameStates.add(new ScrabbleGameStateImpl(
+            ScrabbleBoardImpl.defaultBlankBoard(),
+            new PlayerTileRackImpl(new char[]{'r', 'e', 't', IScrabbleGameState.wildCardTile,
+                                              IScrabbleGameState.wildCardTile, 'i', 'n'})
+        ));
+
+        for (IScrabbleGameState gameState : gameStates)
+        {
+            List<ScrabbleGame.Move> moves = ScrabbleUtil.timeRetrievalInterruptable(
+                new ScrabbleGame(scoreMap, dictionary, gameState.copyScrabbleGame())::findMoves, "findMoves"
+            );
+            List<ScrabbleGame.Move> parallelMoves = ScrabbleUtil.timeRetrievalInterruptable(
+                new ScrabbleGame(scoreMap, dictionary, gameState.copyScrabbleGame())::findMovesParallel,
+                "findMovesParallel"
+            );
+
+            // same order, not just the same set
+            assertEquals(this.describeMovesInOrder(moves), this.describeMovesInOrder(parallelMoves));
+        }
+    }
+
+    @Test
+    public void testParallelWithoutWordStarts() throws IOException, InterruptedException
+    {
+        ILetterScoreMap scoreMap = LetterScoreMapImpl.fromFile(
+            new File("src/test/resources/scoremap.txt")
+        );
+        IWordGraph dictionary = PackedWordGraph.fromWordGraph(
+            DAWGDictionary.fromFile(new File("src/test/resources/nwl20.txt"))
+        );
+        List<IScrabbleGameState> gameStates = new ArrayList<>();
+
+        // an empty rack leaves no WordStarts, on a blank board or on one with tiles
+        gameStates.add(ScrabbleGameStateImpl.defaultBlankScrabbleGameState());
+        gameStates.add(new ScrabbleGameStateImpl(
+            this.loadGame(1).getBoard(),
+            PlayerTileRackImpl.defaultBlankRack()
+        ));
+
+        for (IScrabbleGameState gameState : gameStates)
+        {
+            assertEquals(0, new ScrabbleGame(scoreMap, dictionary, gameState.copyScrabbleGame()).findMoves().size());
+            assertEquals(
+                0,
+                new ScrabbleGame(scoreMap, dictionary, gameState.copyScrabbleGame()).findMovesParallel().size()
+            );
+        }
+    }
+
+    @Test
+    public void testMoveBufferSort() throws IOException, InterruptedException
+    {
+        ILetterScoreMap scoreMap = LetterScoreMapImpl.fromFile(
+            new File("src/test/resources/scoremap.txt")
+        );
+        IWordGraph dictionary = PackedWordGraph.fromWordGraph(
+            DAWGDictionary.fromFile(new File("src/test/resources/nwl20.txt"))
+        );
+
+        for (int gameNum = 1; gameNum <= 5; gameNum++)
+        {
+            MoveBuffer   buffer = new MoveBuffer(1);
+            ScrabbleGame game   = new ScrabbleGame(scoreMap, dictionary, this.loadGame(gameNum));
+
+            game.findMoves(buffer);
+
+            List<ScrabbleGame.Move> moves = buffer.toList();
+
+            Collections.sort(moves);
+            ScrabbleUtil.timeIt(buffer::sort, "sortMoveBuffer");
+            assertEquals(this.describeMovesInOrder(moves), this.describeMovesInOrder(buffer.asList()));
+        }
+    }
+
+    @Test
+    public void testBatchedMovesMatchFindMovesParallel() throws IOException, InterruptedException
+    {
+        ILetterScoreMap scoreMap = LetterScoreMapImpl.fromFile(
+            new File("src/test/resources/scoremap.txt")
+        );
+        IWordGraph dictionary = PackedWordGraph.fromWordGraph(
+            DAWGDictionary.fromFile(new File("src/test/resources/nwl20.txt"))
+        );
+
+        for (int gameNum = 1; gameNum <= 5; gameNum++)
+        {
+            List<MoveBuffer> batches = Collections.synchronizedList(new ArrayList<>());
+            MoveBuffer moves = new MoveBuffer();
+
+            // with no interval, every WordStart is its own batch
+            new ScrabbleGame(scoreMap, dictionary, this.loadGame(gameNum)).findMovesParallel(
+                ScrabbleGame.forkJoinPool, moves, new MoveBatcher(0, batches::add)
+            );
+
+            MoveBuffer merged = new MoveBuffer();
+
+            for (MoveBuffer batch : batches)
+            {
+                merged.addAllSorted(batch);
+            }
+
+            moves.sort();
+            assertEquals(this.describeMoves(moves.asList()), this.describeMoves(merged.asList()));
+            assertEquals(
+                moves.asList().stream().map(ScrabbleGame.Move::score).toList(),
+                merged.asList().stream().map(ScrabbleGame.Move::score).toList()
+            );
+        }
+    }
+
+    @Test
+    public void testTopMovesMatchFindMoves() throws IOException, InterruptedException
+    {
+        ILetterScoreMap scoreMap = LetterScoreMapImpl.fromFile(
+            new File("src/test/resources/scoremap.txt")
+        );
+        IWordGraph dictionary = PackedWordGraph.fromWordGraph(
+            DAWGDictionary.fromFile(new File("src/test/resources/nwl20.txt"))
+        );
+        List<IScrabbleGameState> gameStates = new ArrayList<>();
+
+        for (int gameNum = 1; gameNum <= 5; gameNum++)
+        {
+            gameStates.add(this.loadGame(gameNum));
+        }
+
+        gameStates.add(new ScrabbleGameStateImpl(
+            ScrabbleBoardImpl.defaultBlankBoard(),
+            new PlayerTileRackImpl(new char[]{'q', 'u', 'a', IScrabbleGameState.wildCardTile, 'z', 'e', 's'})
+        ));
+
+        for (IScrabbleGameState gameState : gameStates)
+        {
+            List<ScrabbleGame.Move> moves = new ScrabbleGame(scoreMap, dictionary, gameState.copyScrabbleGame())
+                .findMoves();
+
+            Collections.sort(moves);
+
+            List<String> allMoves = this.describeMoves(moves);
+
+            for (int k : new int[]{1, 10, 100})
+            {
+                List<ScrabbleGame.Move> topMoves = ScrabbleUtil.timeRetrievalInterruptable(
+                    () -> new ScrabbleGame(scoreMap, dictionary, gameState.copyScrabbleGame()).findTopMoves(k),
+                    "findTopMoves"
+                );
+                List<ScrabbleGame.Move> expected = moves.subList(0, Math.min(k, moves.size()));
+
+                assertEquals(
+                    expected.stream().map(ScrabbleGame.Move::score).toList(),
+                    topMoves.stream().map(ScrabbleGame.Move::score).toList()
+                );
+                assertTrue(allMoves.containsAll(this.describeMoves(topMoves)));
+            }
+        }
+    }
+
+    @Test
+    public void testBoardAnalyzerMatchesFreshAnalysis() throws IOException, InterruptedException
+    {
+        ILetterScoreMap scoreMap = LetterScoreMapImpl.fromFile(
+            new File("src/test/resources/scoremap.txt")
+        );
+        IWordGraph dictionary = PackedWordGraph.fromWordGraph(
+            DAWGDictionary.fromFile(new File("src/test/resources/nwl20.txt"))
+        );
+        BoardAnalyzer boardAnalyzer = new BoardAnalyzer(scoreMap, dictionary);
+
+        for (int gameNum = 1; gameNum <= 5; gameNum++)
+        {
+            IScrabbleGameState gameState = this.loadGame(gameNum);
+
+            this.assertAnalyzerMatches(scoreMap, dictionary, boardAnalyzer, gameState);
+
+            // edits across the board, each followed by its undo
+            for (int i = 0; i < gameState.getRows(); i += 2)
+            {
+                int col = (i * 7 + gameNum) % gameState.getCols();
+                RevertibleAction edit = gameState.isEmptyAt(i, col) ? gameState.setCharAt(i, col, 'e')
+                                                                    : gameState.removeCharAt(i, col);
+
+                this.assertAnalyzerMatches(scoreMap, dictionary, boardAnalyzer, gameState);
+
+                RevertibleAction wildcard = gameState.isEmptyAt(i, col) ? RevertibleAction.NULL_REVERTIBLE_ACTION
+                                                                        : gameState.setWildcardAt(i, col, true);
+
+                this.assertAnalyzerMatches(scoreMap, dictionary, boardAnalyzer, gameState);
+                wildcard.undo();
+                edit.undo();
+                this.assertAnalyzerMatches(scoreMap, dictionary, boardAnalyzer, gameState);
+            }
+        }
+    }
+
+    private void assertAnalyzerMatches(
+        ILetterScoreMap scoreMap, IWordGraph dictionary, BoardAnalyzer boardAnalyzer, IScrabbleGameState gameState
+    ) throws InterruptedException
+    {
+        List<ScrabbleGame.Move> moves = new ScrabbleGame(
+            scoreMap, dictionary, gameState.copyScrabbleGame()
+        ).findMoves();
+        List<ScrabbleGame.Move> analyzerMoves = new ScrabbleGame(
+            scoreMap, dictionary, gameState.copyScrabbleGame(), boardAnalyzer
+        ).findMoves();
+
+        assertEquals(this.describeMovesInOrder(moves), this.describeMovesInOrder(analyzerMoves));
+    }
+
+    private IScrabbleGameState loadGame(int gameNum) throws IOException
+    {
+        String gameFolder = "src/test/resources/games/game" + gameNum + "/";
+
+        return ScrabbleGameStateImpl.fromFiles(
+            new File(gameFolder + "board.txt"),
+            new File("src/test/resources/multipliers.txt"),
+            new File(gameFolder + "currentletters.txt")
+        );
+    }
+
+    private List<String> describeMoves(List<ScrabbleGame.Move> moves)
+    {
+        return this.describeMovesInOrder(moves).stream().sorted().toList();
+    }
+
+    private List<String> describeMovesInOrder(List<ScrabbleGame.Move> moves)
+    {
+        return moves.stream().map(
+            move -> move.playedWord() + " " + String.valueOf(move.playedTiles()) + " " +
+                    Arrays.toString(move.tileSpotsInWord()) + " " + move.isVertical() + " " + move.row() + " " +
+                    move.col() + " " + move.score()
+        ).toList();
+    }
+
 }
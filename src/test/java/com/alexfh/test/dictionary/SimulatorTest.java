@@ -0,0 +1,163 @@
+package com.alexfh.test.dictionary;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.alexfh.scrabbleanalyzer.ScrabbleGame;
+import com.alexfh.scrabbleanalyzer.ai.LeaveTable;
+import com.alexfh.scrabbleanalyzer.dictionary.DAWGDictionary;
+import com.alexfh.scrabbleanalyzer.dictionary.IWordGraph;
+import com.alexfh.scrabbleanalyzer.dictionary.PackedWordGraph;
+import com.alexfh.scrabbleanalyzer.gui.action.RevertibleAction;
+import com.alexfh.scrabbleanalyzer.rule.ILetterScoreMap;
+import com.alexfh.scrabbleanalyzer.rule.impl.LetterScoreMapImpl;
+import com.alexfh.scrabbleanalyzer.sim.LeaveTrainer;
+import com.alexfh.scrabbleanalyzer.sim.MovePlayer;
+import com.alexfh.scrabbleanalyzer.sim.SelfPlay;
+import com.alexfh.scrabbleanalyzer.sim.SelfPlayBenchmark;
+import com.alexfh.scrabbleanalyzer.sim.Simulator;
+import com.alexfh.scrabbleanalyzer.sim.TileBag;
+import com.alexfh.scrabbleanalyzer.state.IScrabbleGameState;
+import com.alexfh.scrabbleanalyzer.state.impl.ScrabbleGameStateImpl;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class SimulatorTest
+{
+
+    @Test
+    public void testTileBag() throws IOException
+    {
+        IScrabbleGameState gameState = this.loadGame(1);
+        int tilesOnBoard = 0;
+
+        for (int r = 0; r < gameState.getRows(); r++)
+        {
+            for (int c = 0; c < gameState.getCols(); c++)
+            {
+                tilesOnBoard += gameState.isEmptyAt(r, c) ? 0 : 1;
+            }
+        }
+
+        TileBag unseen = TileBag.unseen(gameState.getBoard(), gameState);
+
+        assertEquals(104, TileBag.standard().size());
+        assertEquals(104 - tilesOnBoard - gameState.getNumTilesInRack(), unseen.size());
+    }
+
+    @Test
+    public void testMovePlayerUndo() throws IOException, InterruptedException
+    {
+        ILetterScoreMap scoreMap = LetterScoreMapImpl.fromFile(
+            new File("src/test/resources/scoremap.txt")
+        );
+        IWordGraph dictionary = PackedWordGraph.fromWordGraph(
+            DAWGDictionary.fromFile(new File("src/test/resources/nwl20.txt"))
+        );
+        IScrabbleGameState gameState = this.loadGame(2);
+        long hash = gameState.getPositionHash();
+
+        for (ScrabbleGame.Move move : new ScrabbleGame(scoreMap, dictionary, gameState.snapshot()).findTopMoves(20))
+        {
+            RevertibleAction play = MovePlayer.play(gameState, move);
+
+            assertEquals(
+                gameState.snapshot().getNumTilesInRack() + move.playedTiles().length,
+                this.loadGame(2).getNumTilesInRack()
+            );
+            play.undo();
+            assertEquals(hash, gameState.getPositionHash());
+        }
+    }
+
+    @Test
+    public void testSimulationIsDeterministic() throws IOException, InterruptedException
+    {
+        ILetterScoreMap scoreMap = LetterScoreMapImpl.fromFile(
+            new File("src/test/resources/scoremap.txt")
+        );
+        IWordGraph dictionary = PackedWordGraph.fromWordGraph(
+            DAWGDictionary.fromFile(new File("src/test/resources/nwl20.txt"))
+        );
+        IScrabbleGameState gameState = this.loadGame(3);
+        List<Simulator.Result> oneThread = new Simulator(scoreMap, dictionary, 2, 1).simulate(gameState, 3, 8, 42);
+        List<Simulator.Result> threeThreads = new Simulator(scoreMap, dictionary, 2, 3).simulate(gameState, 3, 8, 42);
+
+        assertEquals(3, oneThread.size());
+
+        for (int i = 0; i < oneThread.size(); i++)
+        {
+            assertEquals(oneThread.get(i).move().playedWord(), threeThreads.get(i).move().playedWord());
+            assertEquals(oneThread.get(i).meanSpread(), threeThreads.get(i).meanSpread());
+            assertEquals(oneThread.get(i).standardDeviation(), threeThreads.get(i).standardDeviation());
+            assertEquals(8, oneThread.get(i).iterations());
+        }
+
+        // ranked by mean spread
+        assertTrue(oneThread.get(0).meanSpread() >= oneThread.get(1).meanSpread());
+        assertTrue(oneThread.get(1).meanSpread() >= oneThread.get(2).meanSpread());
+    }
+
+    @Test
+    public void testLeaveTrainingIsDeterministic() throws IOException, InterruptedException
+    {
+        ILetterScoreMap scoreMap = LetterScoreMapImpl.fromFile(
+            new File("src/test/resources/scoremap.txt")
+        );
+        IWordGraph dictionary = PackedWordGraph.fromWordGraph(
+            DAWGDictionary.fromFile(new File("src/test/resources/nwl20.txt"))
+        );
+        LeaveTrainer.Result oneThread = new LeaveTrainer(scoreMap, dictionary, null, 1, 20).train(3, 7);
+        LeaveTrainer.Result twoThreads = new LeaveTrainer(scoreMap, dictionary, null, 2, 20).train(3, 7);
+
+        assertEquals(3, oneThread.games());
+        assertEquals(oneThread.turns(), twoThreads.turns());
+        assertEquals(oneThread.observations(), twoThreads.observations());
+        assertTrue(oneThread.observations() > 0);
+
+        for (int i = 0; i < LeaveTable.numLeaves; i++)
+        {
+            assertEquals(oneThread.leaves().getValue(i), twoThreads.leaves().getValue(i));
+        }
+
+        // the trained table can drive the equity player
+        SelfPlay.GameResult game = new SelfPlay(scoreMap, dictionary, oneThread.leaves()).play(
+            new SplittableRandom(7), (player, score, leave, leaveSize) -> assertTrue(score >= 0)
+        );
+
+        assertTrue(game.turns() > 0);
+    }
+
+    @Test
+    public void testSelfPlayIsDeterministic() throws IOException, InterruptedException
+    {
+        ILetterScoreMap scoreMap = LetterScoreMapImpl.fromFile(
+            new File("src/test/resources/scoremap.txt")
+        );
+        IWordGraph dictionary = PackedWordGraph.fromWordGraph(
+            DAWGDictionary.fromFile(new File("src/test/resources/nwl20.txt"))
+        );
+        SelfPlayBenchmark.Result oneThread = new SelfPlayBenchmark(scoreMap, dictionary, null, 1).run(4, 11);
+        SelfPlayBenchmark.Result threeThreads = new SelfPlayBenchmark(scoreMap, dictionary, null, 3).run(4, 11);
+
+        assertEquals(4, oneThread.games());
+        assertEquals(oneThread.positions(), threeThreads.positions());
+        assertEquals(oneThread.scoreSum(), threeThreads.scoreSum());
+        assertTrue(oneThread.positionsPerSecond() > 0);
+    }
+
+    private IScrabbleGameState loadGame(int gameNum) throws IOException
+    {
+        String gameFolder = "src/test/resources/games/game" + gameNum + "/";
+
+        return ScrabbleGameStateImpl.fromFiles(
+            new File(gameFolder + "board.txt"),
+            new File("src/test/resources/multipliers.txt"),
+            new File(gameFolder + "currentletters.txt")
+        );
+    }
+
+}
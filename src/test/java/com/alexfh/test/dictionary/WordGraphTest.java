@@ -2,12 +2,20 @@ package com.alexfh.test.dictionary;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import com.alexfh.scrabbleanalyzer.dictionary.DAWGDictionary;
+import com.alexfh.scrabbleanalyzer.dictionary.DictionaryCompiler;
+import com.alexfh.scrabbleanalyzer.dictionary.IWordGraph;
+import com.alexfh.scrabbleanalyzer.dictionary.PackedWordGraph;
 import com.alexfh.scrabbleanalyzer.dictionary.WordGraphDictionary;
+import com.alexfh.scrabbleanalyzer.util.ScrabbleUtil;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.*;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 public class WordGraphTest
 {
@@ -67,4 +75,146 @@ public class WordGraphTest
         assertFalse(dictionary.hasPrefix(""));
     }
 
+    @Test
+    public void testDAWGInclusion()
+    {
+        List<String>   testWords  = List.of("prefix", "foo", "bar", "foobar", "a", "dictionary", "tar", "tars");
+        DAWGDictionary dictionary = DAWGDictionary.fromWords(testWords);
+
+        testWords.forEach(testWord -> assertTrue(dictionary.hasWord(testWord)));
+        assertTrue(dictionary.hasPrefix("fooba"));
+        assertFalse(dictionary.hasWord("fooba"));
+        assertFalse(dictionary.hasWord("bars"));
+        assertFalse(dictionary.hasPrefix("refix"));
+        assertFalse(DAWGDictionary.fromWords(List.of()).hasPrefix(""));
+        assertThrows(IllegalStateException.class, () ->
+        {
+            DAWGDictionary.Builder builder = new DAWGDictionary.Builder();
+
+            builder.addWord("foo");
+            builder.addWord("bar");
+        });
+    }
+
+    @Test
+    public void nwl20DAWG() throws IOException
+    {
+        File                dictionaryFile = new File("src/test/resources/nwl20.txt");
+        WordGraphDictionary trie           = this.measureHeap(() -> this.loadTrie(dictionaryFile), "trie");
+        DAWGDictionary      dawg           = this.measureHeap(() -> this.loadDAWG(dictionaryFile), "dawg");
+        List<String>        trieWords      = new ArrayList<>();
+        List<String>        dawgWords      = new ArrayList<>();
+
+        trie.forEach(trieWords::add);
+        dawg.forEach(dawgWords::add);
+        trieWords.sort(null);
+        assertEquals(trieWords, dawgWords);
+        assertEquals(dawg.getWordCount(), 191852);
+        System.out.println("trie nodes " + trie.getNodeCount());
+        System.out.println("dawg nodes " + dawg.getNodeCount() + ", edges " + dawg.getEdgeCount());
+        assertTrue(dawg.getNodeCount() < trie.getNodeCount());
+
+        PackedWordGraph packed      = this.measureHeap(() -> PackedWordGraph.fromWordGraph(dawg), "packed");
+        List<String>    packedWords = new ArrayList<>();
+
+        packed.forEach(packedWords::add);
+        assertEquals(dawgWords, packedWords);
+        System.out.println("packed edges " + packed.getEdgeCount() + ", bytes " + packed.getSizeInBytes());
+    }
+
+    @Test
+    public void testPackedPrefix()
+    {
+        List<String> testWords = List.of("prefix", "foo", "bar", "foobar", "a", "dictionary");
+        IWordGraph   packed    = PackedWordGraph.fromWordGraph(DAWGDictionary.fromWords(testWords));
+
+        testWords.forEach(
+            testWord ->
+            {
+                assertTrue(packed.hasWord(testWord));
+
+                for (int i = testWord.length(); i > 0; i--)
+                {
+                    assertTrue(packed.hasPrefix(testWord.substring(0, i)));
+                }
+            }
+        );
+        assertFalse(packed.hasWord("fooba"));
+        assertFalse(packed.hasPrefix("refix"));
+        assertFalse(packed.hasPrefix("i"));
+        assertEquals(packed.getPathMask(packed.getRoot()), 0b101011 | (1 << 15));
+        assertFalse(PackedWordGraph.fromWordGraph(DAWGDictionary.fromWords(List.of())).hasPrefix(""));
+    }
+
+    private WordGraphDictionary loadTrie(File dictionaryFile)
+    {
+        try
+        {
+            return WordGraphDictionary.fromFile(dictionaryFile);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private DAWGDictionary loadDAWG(File dictionaryFile)
+    {
+        try
+        {
+            return DAWGDictionary.fromFile(dictionaryFile);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // rough retained heap, only meaningful for comparing structures of very different sizes
+    private <T> T measureHeap(Supplier<T> supplier, String message)
+    {
+        Runtime runtime = Runtime.getRuntime();
+
+        System.gc();
+
+        long before = runtime.totalMemory() - runtime.freeMemory();
+        T    t      = supplier.get();
+
+        System.gc();
+
+        long after = runtime.totalMemory() - runtime.freeMemory();
+
+        System.out.println(message + " heap " + (after - before) / (1024 * 1024) + "MB");
+
+        return t;
+    }
+
+    @Test
+    public void testMappedDictionary(@TempDir File tempDir) throws IOException
+    {
+        byte[]          wordList      = Files.readAllBytes(new File("src/test/resources/nwl20.txt").toPath());
+        File            packedFile    = new File(tempDir, "nwl20.sadg");
+        PackedWordGraph compiled      = ScrabbleUtil.timeRetrieval(
+            () -> DictionaryCompiler.loadOrCompile(packedFile, wordList), "compileDictionary"
+        );
+        long            start         = System.nanoTime();
+        PackedWordGraph mapped        = PackedWordGraph.fromFile(packedFile);
+        List<String>    compiledWords = new ArrayList<>();
+        List<String>    mappedWords   = new ArrayList<>();
+
+        System.out.println("mapDictionary " + 1.0D * (System.nanoTime() - start) / 1000000000 + "s");
+
+        assertTrue(packedFile.isFile());
+        compiled.forEach(compiledWords::add);
+        mapped.forEach(mappedWords::add);
+        assertEquals(compiledWords, mappedWords);
+        assertEquals(mapped.getSourceChecksum(), DictionaryCompiler.checksum(wordList));
+        assertEquals(mapped.getEdgeCount(), compiled.getEdgeCount());
+
+        File corruptFile = new File(tempDir, "corrupt.sadg");
+
+        Files.write(corruptFile.toPath(), new byte[]{ 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16 });
+        assertThrows(IOException.class, () -> PackedWordGraph.fromFile(corruptFile));
+    }
+
 }